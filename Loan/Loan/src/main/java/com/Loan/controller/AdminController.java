@@ -1,8 +1,7 @@
 package com.Loan.controller;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -10,7 +9,12 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,17 +25,25 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.core.io.Resource; // Added import
 import org.springframework.core.io.UrlResource; // Added import
 import org.springframework.http.HttpHeaders; // Added import
 import org.springframework.http.MediaType; // Added import
 import java.net.MalformedURLException; // Added import
 import java.nio.file.Path; // Added import
-import java.nio.file.Paths; // Added import
 import java.io.IOException; // Added import
 
+import com.Loan.dto.StoredDocument;
+import com.Loan.dto.StoredFileDTO;
 import com.Loan.dto.UserDTO;
 import com.Loan.entity.User;
+import com.Loan.service.DashboardCounters;
+import com.Loan.service.DashboardStatsService;
+import com.Loan.service.DocumentCatalogService;
+import com.Loan.service.DocumentDownloadService;
+import com.Loan.service.DocumentStorageService;
+import com.Loan.service.LoanReportService;
 import com.Loan.service.LoanService;
 import com.Loan.service.PaymentService;
 import com.Loan.service.UserService;
@@ -41,6 +53,8 @@ import com.Loan.service.UserService;
 @CrossOrigin(origins = "*")
 public class AdminController {
 
+    private static final int MAX_FILE_PAGE_SIZE = 200;
+
     @Autowired
     private UserService userService;
 
@@ -53,41 +67,30 @@ public class AdminController {
     @Autowired
     private com.Loan.service.NotificationService notificationService;
 
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private LoanReportService loanReportService;
+
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private DocumentDownloadService documentDownloadService;
+
+    @Autowired
+    private DocumentCatalogService documentCatalogService;
+
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-
-        long totalUsers = userService.getAllUsers().size();
-        long activeLoans = loanService.getAllLoans().stream()
-                .filter(loan -> loan.getStatus().name().equals("ACTIVE"))
-                .count();
-        long pendingPayments = paymentService.getAllPayments().stream()
-                .filter(payment -> payment.getStatus().name().equals("PENDING") ||
-                        payment.getStatus().name().equals("OVERDUE"))
-                .count();
-        double totalDisbursed = loanService.getAllLoans().stream()
-                .mapToDouble(loan -> loan.getPrincipal().doubleValue())
-                .sum();
-
-        long pendingLoans = loanService.getAllLoans().stream()
-                .filter(loan -> loan.getStatus().name().equals("PENDING")) // Assuming PENDING status exists or similar
-                .count();
-        long rejectedLoans = loanService.getAllLoans().stream()
-                .filter(loan -> loan.getStatus().name().equals("REJECTED") || loan.getStatus().name().equals("DEFAULTED")) // approximating for now, adjust based on real status enum
-                .count();
-
-        stats.put("totalUsers", totalUsers);
-        stats.put("activeLoans", activeLoans);
-        stats.put("pendingLoans", pendingLoans);
-        stats.put("rejectedLoans", rejectedLoans);
-        stats.put("pendingPayments", pendingPayments);
-        stats.put("totalDisbursed", totalDisbursed);
-
-        // Add total counts for percentage calculations
-        stats.put("totalLoans", loanService.getAllLoans().size());
-        stats.put("totalPayments", paymentService.getAllPayments().size());
-
-        return ResponseEntity.ok(stats);
+        if (dashboardCounters.isSeeded()) {
+            return ResponseEntity.ok(dashboardCounters.getDashboardStats());
+        }
+        return ResponseEntity.ok(dashboardStatsService.getDashboardStats());
     }
 
     @GetMapping("/users")
@@ -108,61 +111,20 @@ public class AdminController {
 
     @GetMapping("/distribution")
     public ResponseEntity<List<Map<String, Object>>> getLoanDistribution() {
-        Map<String, Long> distribution = loanService.getAllLoans().stream()
-                .collect(Collectors.groupingBy(
-                        loan -> loan.getLoanType().name(),
-                        Collectors.counting()
-                ));
-
-        List<Map<String, Object>> result = distribution.entrySet().stream()
-                .map(entry -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("name", entry.getKey());
-                    map.put("value", entry.getValue());
-                    return map;
-                })
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(result);
+        if (dashboardCounters.isSeeded()) {
+            return ResponseEntity.ok(dashboardCounters.getLoanDistribution());
+        }
+        return ResponseEntity.ok(dashboardStatsService.getLoanDistribution());
     }
 
     @GetMapping("/trends")
     public ResponseEntity<List<Map<String, Object>>> getDisbursementTrends() {
-        LocalDate sixMonthsAgo = LocalDate.now().minusMonths(6).withDayOfMonth(1);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM");
-
-        Map<String, Double> monthlySum = loanService.getAllLoans().stream()
-                .filter(loan -> loan.getStartDate().isAfter(sixMonthsAgo) || loan.getStartDate().isEqual(sixMonthsAgo))
-                .collect(Collectors.groupingBy(
-                        loan -> loan.getStartDate().format(formatter),
-                        Collectors.summingDouble(loan -> loan.getPrincipal().doubleValue())
-                ));
-
-        // Sort by month (roughly)
-        List<String> last6Months = new ArrayList<>();
-        for (int i = 5; i >= 0; i--) {
-            last6Months.add(LocalDate.now().minusMonths(i).format(formatter));
-        }
-
-        List<Map<String, Object>> result = last6Months.stream()
-                .map(month -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("month", month);
-                    map.put("amount", monthlySum.getOrDefault(month, 0.0));
-                    return map;
-                })
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(dashboardStatsService.getDisbursementTrends(LocalDate.now(), 6));
     }
 
     @GetMapping("/logs")
     public ResponseEntity<List<Map<String, Object>>> getRecentLogs() {
-        List<com.Loan.entity.Notification> notifications = notificationService.getAllNotifications();
-
-        List<Map<String, Object>> logs = notifications.stream()
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                .limit(10)
+        List<Map<String, Object>> logs = notificationService.getRecentNotifications(10).stream()
                 .map(n -> {
                     Map<String, Object> map = new HashMap<>();
                     map.put("msg", n.getMessage());
@@ -192,52 +154,34 @@ public class AdminController {
                 // For demo, we might want to be lenient or strictly follow requirement "xl words document"
             }
 
-            // Save file - for now just log it or save to a temp dir
-            java.nio.file.Path path = java.nio.file.Paths.get("uploads/" + file.getOriginalFilename());
-            java.nio.file.Files.createDirectories(path.getParent());
-            java.nio.file.Files.write(path, file.getBytes());
+            StoredDocument document = documentStorageService.store(file);
+            documentCatalogService.catalog(document, null, null);
 
-            return ResponseEntity.ok("File uploaded successfully: " + file.getOriginalFilename());
+            return ResponseEntity.ok("File uploaded successfully: " + file.getOriginalFilename() + " (" + document.getName() + ")");
         } catch (java.io.IOException e) {
             return ResponseEntity.internalServerError().body("Failed to upload file: " + e.getMessage());
         }
     }
+    // Served from the stored_files catalog; newest uploads first unless sort/direction say otherwise
     @GetMapping("/files")
-    public ResponseEntity<List<Map<String, Object>>> getAllFiles() {
+    public ResponseEntity<List<StoredFileDTO>> getAllFiles(
+            @RequestParam(defaultValue = "uploadedAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + MAX_FILE_PAGE_SIZE) int size) {
         try {
-            Path uploadsDir = Paths.get("uploads");
-            if (!java.nio.file.Files.exists(uploadsDir)) {
-                return ResponseEntity.ok(new ArrayList<>());
-            }
-
-            List<Map<String, Object>> files = java.nio.file.Files.list(uploadsDir)
-                    .filter(java.nio.file.Files::isRegularFile)
-                    .map(path -> {
-                        Map<String, Object> fileInfo = new HashMap<>();
-                        fileInfo.put("name", path.getFileName().toString());
-                        try {
-                            fileInfo.put("size", java.nio.file.Files.size(path));
-                            fileInfo.put("lastModified", java.nio.file.Files.getLastModifiedTime(path).toMillis());
-                        } catch (IOException e) {
-                            e.printStackTrace();
-                        }
-                        return fileInfo;
-                    })
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(files);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
+            return ResponseEntity.ok(documentCatalogService.list(sort, Sort.Direction.fromString(direction),
+                    Math.max(0, page), Math.max(1, Math.min(size, MAX_FILE_PAGE_SIZE))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
-    @DeleteMapping("/files/{filename:.+}")
-    public ResponseEntity<Void> deleteFile(@PathVariable String filename) {
+    // Takes the catalog row id from the listing; the file goes only with the last row naming it
+    @DeleteMapping("/files/{id}")
+    public ResponseEntity<Void> deleteFile(@PathVariable UUID id) {
         try {
-            Path file = Paths.get("uploads").resolve(filename);
-            if (java.nio.file.Files.exists(file)) {
-                java.nio.file.Files.delete(file);
+            if (documentCatalogService.delete(id)) {
                 return ResponseEntity.ok().build();
             } else {
                 return ResponseEntity.notFound().build();
@@ -248,21 +192,10 @@ public class AdminController {
         }
     }
 
+    // Supports Range, ETag and If-Modified-Since, so re-opening a document is a 304
     @GetMapping("/files/{filename:.+}")
-    @ResponseBody
-    public ResponseEntity<org.springframework.core.io.Resource> getFile(@PathVariable String filename) {
-        try {
-            java.nio.file.Path file = java.nio.file.Paths.get("uploads").resolve(filename);
-            if (!java.nio.file.Files.exists(file)) {
-                return ResponseEntity.notFound().build();
-            }
-            org.springframework.core.io.Resource resource = new org.springframework.core.io.UrlResource(file.toUri());
-            return ResponseEntity.ok()
-                    .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
-        } catch (java.net.MalformedURLException e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public void getFile(@PathVariable String filename, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        documentDownloadService.serve(filename, request, response);
     }
 
     @PostMapping("/loan/{id}/decision")
@@ -277,63 +210,57 @@ public class AdminController {
             return ResponseEntity.notFound().build();
         }
 
+        boolean approve;
+        if (action.equalsIgnoreCase("approve") || action.equalsIgnoreCase("accept")) {
+            approve = true;
+        } else if (action.equalsIgnoreCase("reject")) {
+            approve = false;
+        } else {
+            return ResponseEntity.badRequest().body("Invalid action; use 'approve' or 'reject'");
+        }
+
         try {
+            StoredDocument document = null;
             if (file != null && !file.isEmpty()) {
-                java.nio.file.Path path = java.nio.file.Paths.get("uploads/" + loan.getId().toString() + "_" + file.getOriginalFilename());
-                java.nio.file.Files.createDirectories(path.getParent());
-                java.nio.file.Files.write(path, file.getBytes());
-                loan.setUploadedFileName(file.getOriginalFilename());
-                loan.setUploadedFilePath(path.toString());
+                document = documentStorageService.store(file);
             }
 
-            if (action.equalsIgnoreCase("approve") || action.equalsIgnoreCase("accept")) {
-                loan.setStatus(com.Loan.entity.Loan.LoanStatus.ACTIVE);
-                loan.setRejectionReason(null);
-            } else if (action.equalsIgnoreCase("reject")) {
-                loan.setStatus(com.Loan.entity.Loan.LoanStatus.REJECTED);
-                loan.setRejectionReason(rejectionReason);
-            } else {
-                return ResponseEntity.badRequest().body("Invalid action; use 'approve' or 'reject'");
+            // The file is cataloged only once the decision has been saved, and discarded if it was not
+            com.Loan.entity.Loan decided;
+            try {
+                decided = loanService.decideLoan(loan.getId(), approve, rejectionReason,
+                        document != null ? document.getOriginalFilename() : null,
+                        document != null ? document.getName() : null);
+            } catch (RuntimeException e) {
+                if (document != null) {
+                    documentCatalogService.discard(document);
+                }
+                throw e;
             }
-
-            loanService.updateLoan(loan.getId(), loan);
-            return ResponseEntity.ok(loan);
+            if (document != null) {
+                documentCatalogService.catalog(document, loan.getId(), loan.getUser() != null ? loan.getUser().getId() : null);
+            }
+            return ResponseEntity.ok(decided);
         } catch (java.io.IOException e) {
             return ResponseEntity.internalServerError().body("Failed to save file: " + e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Loan is being changed by someone else; reload and retry");
         }
     }
 
     @GetMapping("/report/download")
-    public ResponseEntity<org.springframework.core.io.Resource> downloadReport(@RequestParam(required = false) String month) {
-        // Simple CSV generation
-        StringBuilder csv = new StringBuilder();
-        csv.append("Loan ID,User,Type,Principal,Status,Date\n");
-
-        List<com.Loan.entity.Loan> loans = loanService.getAllLoans();
-        if (month != null && !month.isEmpty()) {
-            // Filter by month (format YYYY-MM)
-            loans = loans.stream()
-                    .filter(l -> l.getStartDate().toString().startsWith(month))
-                    .collect(Collectors.toList());
-        }
-
-        for (com.Loan.entity.Loan loan : loans) {
-            csv.append(String.format("%s,%s,%s,%s,%s,%s\n",
-                    loan.getId(),
-                    loan.getUser() != null ? loan.getUser().getName() : "Unknown",
-                    loan.getLoanType(),
-                    loan.getPrincipal(),
-                    loan.getStatus(),
-                    loan.getStartDate()));
+    public ResponseEntity<StreamingResponseBody> downloadReport(@RequestParam(required = false) String month) {
+        // Filter by month (format YYYY-MM) or year (YYYY); validated here so a bad value is a 400, not a broken download
+        try {
+            loanReportService.parsePeriod(month);
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest().build();
         }
 
-        org.springframework.core.io.ByteArrayResource resource = new org.springframework.core.io.ByteArrayResource(csv.toString().getBytes());
-
+        StreamingResponseBody body = out -> loanReportService.writeCsv(month, out);
         return ResponseEntity.ok()
                 .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=report.csv")
                 .contentType(org.springframework.http.MediaType.parseMediaType("text/csv"))
-                .body(resource);
+                .body(body);
     }
 }
-
-
@@ -1,11 +1,13 @@
 package com.Loan.controller;
 
+import com.Loan.dto.CibilScoreDTO;
 import com.Loan.entity.CibilScore;
 import com.Loan.service.CibilService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.NoSuchElementException;
 import java.util.UUID;
 
 @RestController
@@ -17,7 +19,7 @@ public class CibilController {
     private CibilService cibilService;
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<CibilScore> getCibilScore(@PathVariable UUID userId) {
+    public ResponseEntity<CibilScoreDTO> getCibilScore(@PathVariable UUID userId) {
         return cibilService.getCibilScoreByUserId(userId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -25,11 +27,19 @@ public class CibilController {
 
     @PostMapping("/user/{userId}")
     public ResponseEntity<CibilScore> createCibilScore(@PathVariable UUID userId, @RequestBody CibilScore score) {
-        return ResponseEntity.ok(cibilService.createCibilScore(score));
+        try {
+            return ResponseEntity.ok(cibilService.createCibilScore(userId, score));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @PutMapping("/user/{userId}")
     public ResponseEntity<CibilScore> updateCibilScore(@PathVariable UUID userId, @RequestBody CibilScore score) {
-        return ResponseEntity.ok(cibilService.updateScore(score));
+        try {
+            return ResponseEntity.ok(cibilService.updateScore(userId, score));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 }
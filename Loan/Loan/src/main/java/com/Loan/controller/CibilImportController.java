@@ -0,0 +1,55 @@
+package com.Loan.controller;
+
+import com.Loan.entity.CibilImport;
+import com.Loan.service.CibilImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/cibil-imports")
+@CrossOrigin(origins = "*")
+public class CibilImportController {
+
+    @Autowired
+    private CibilImportService cibilImportService;
+
+    @GetMapping
+    public ResponseEntity<List<CibilImport>> getImports() {
+        return ResponseEntity.ok(cibilImportService.getImports());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<CibilImport> getImport(@PathVariable UUID id) {
+        CibilImport cibilImport = cibilImportService.getImport(id);
+        if (cibilImport != null) {
+            return ResponseEntity.ok(cibilImport);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // The file must already be in loan.cibil.import.directory; the import runs in the background
+    @PostMapping
+    public ResponseEntity<CibilImport> startImport(@RequestParam String fileName,
+                                                   @RequestParam(defaultValue = "CSV") String format) {
+        try {
+            CibilImport.Format fileFormat = CibilImport.Format.valueOf(format.toUpperCase());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(cibilImportService.submit(fileName, fileFormat));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<CibilImport> resumeImport(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(cibilImportService.resume(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.Loan.controller;
+
+import com.Loan.dto.StoredDocument;
+import com.Loan.dto.StoredFileDTO;
+import com.Loan.entity.User;
+import com.Loan.security.JwtPrincipal;
+import com.Loan.service.DocumentCatalogService;
+import com.Loan.service.DocumentDownloadService;
+import com.Loan.service.DocumentStorageService;
+import com.Loan.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The signed-in user's own documents. /api/admin/files serves every document to admins;
+ * here a user only sees and downloads what was uploaded by or for them.
+ */
+@RestController
+@RequestMapping("/api/documents")
+@CrossOrigin(origins = "*")
+public class DocumentController {
+
+    private static final int MAX_DOCUMENTS = 200;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private DocumentCatalogService documentCatalogService;
+
+    @Autowired
+    private DocumentDownloadService documentDownloadService;
+
+    @GetMapping
+    public ResponseEntity<List<StoredFileDTO>> getDocuments(@AuthenticationPrincipal JwtPrincipal principal) {
+        User user = userService.findByEmail(principal.getEmail()).orElse(null);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(documentCatalogService.listForUser(user.getId(), MAX_DOCUMENTS));
+    }
+
+    @PostMapping
+    public ResponseEntity<String> uploadDocument(@AuthenticationPrincipal JwtPrincipal principal,
+                                                 @RequestParam("file") MultipartFile file) {
+        User user = userService.findByEmail(principal.getEmail()).orElse(null);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("File is empty");
+        }
+        if (file.getSize() > 40 * 1024) { // 40KB limit, as for admin uploads
+            return ResponseEntity.badRequest().body("File size exceeds 40KB limit");
+        }
+        try {
+            StoredDocument document = documentStorageService.store(file);
+            documentCatalogService.catalog(document, null, user.getId());
+            return ResponseEntity.ok("File uploaded successfully: " + file.getOriginalFilename() + " (" + document.getName() + ")");
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body("Failed to upload file: " + e.getMessage());
+        }
+    }
+
+    // Another user's document answers 404 rather than 403, so names cannot be probed
+    @GetMapping("/{name:.+}")
+    public void getDocument(@AuthenticationPrincipal JwtPrincipal principal, @PathVariable String name,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        User user = userService.findByEmail(principal.getEmail()).orElse(null);
+        if (user == null || !documentCatalogService.isOwner(name, user.getId())) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        documentDownloadService.serve(name, request, response);
+    }
+}
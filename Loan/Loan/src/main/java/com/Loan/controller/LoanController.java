@@ -1,10 +1,16 @@
 package com.Loan.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,8 +23,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.Loan.dto.CursorPage;
+import com.Loan.dto.InstallmentDTO;
 import com.Loan.dto.LoanDTO;
+import com.Loan.dto.StoredDocument;
 import com.Loan.entity.Loan;
+import com.Loan.service.DocumentCatalogService;
+import com.Loan.service.DocumentStorageService;
+import com.Loan.service.KeysetCursor;
 import com.Loan.service.LoanService;
 
 @RestController
@@ -26,14 +38,23 @@ import com.Loan.service.LoanService;
 @CrossOrigin(origins = "*")
 public class LoanController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private LoanService loanService;
 
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private DocumentCatalogService documentCatalogService;
+
+    @Value("${loan.listing.max-results:1000}")
+    private int maxResults;
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<LoanDTO>> getUserLoans(@PathVariable UUID userId) {
-        return ResponseEntity.ok(loanService.getLoansByUserId(userId).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(loanService.getLoansByUserId(userId));
     }
 
     @PostMapping("/apply")
@@ -54,6 +75,7 @@ public class LoanController {
             loan.setTenureMonths(Integer.parseInt(tenureMonths));
             
             // Handle file upload if present
+            StoredDocument document = null;
             if (file != null && !file.isEmpty()) {
                 // Validate file size (40KB limit)
                 if (file.getSize() > 40 * 1024) {
@@ -61,16 +83,17 @@ public class LoanController {
                 }
                 
                 // Save file
-                String filename = userId.toString() + "_" + System.currentTimeMillis() + "_" + file.getOriginalFilename();
-                java.nio.file.Path path = java.nio.file.Paths.get("uploads/" + filename);
-                java.nio.file.Files.createDirectories(path.getParent());
-                java.nio.file.Files.write(path, file.getBytes());
+                document = documentStorageService.store(file);
                 
-                loan.setUploadedFileName(file.getOriginalFilename());
-                loan.setUploadedFilePath(path.toString());
+                loan.setUploadedFileName(document.getOriginalFilename());
+                // The catalog name, which /api/admin/files serves; not the path on this server
+                loan.setUploadedFilePath(document.getName());
             }
             
             Loan savedLoan = loanService.applyForLoan(userId, loan);
+            if (document != null) {
+                documentCatalogService.catalog(document, savedLoan.getId(), userId);
+            }
             return ResponseEntity.ok(savedLoan);
         } catch (Exception e) {
             e.printStackTrace();
@@ -78,11 +101,35 @@ public class LoanController {
         }
     }
 
+    // Kept for existing clients; capped to the newest loan.listing.max-results loans. Use /page for everything else.
     @GetMapping
     public ResponseEntity<List<LoanDTO>> getAllLoans() {
-        return ResponseEntity.ok(loanService.getAllLoans().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(loanService.getRecentLoans(maxResults));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<LoanDTO>> getLoansPage(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String loanType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            Window<Loan> window = loanService.scrollLoans(
+                    status != null ? Loan.LoanStatus.valueOf(status.toUpperCase()) : null,
+                    loanType != null ? Loan.LoanType.valueOf(loanType.toUpperCase()) : null,
+                    from, to, cursor, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+            List<LoanDTO> items = window.stream().map(this::mapToDTO).collect(Collectors.toList());
+            String nextCursor = null;
+            if (window.hasNext() && !window.isEmpty()) {
+                Loan last = window.getContent().get(window.size() - 1);
+                nextCursor = KeysetCursor.encode(last.getCreatedAt(), last.getId());
+            }
+            return ResponseEntity.ok(new CursorPage<>(items, nextCursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -94,9 +141,23 @@ public class LoanController {
         return ResponseEntity.notFound().build();
     }
 
+    @GetMapping("/{id}/schedule")
+    public ResponseEntity<List<InstallmentDTO>> getLoanSchedule(@PathVariable UUID id) {
+        Loan loan = loanService.getLoanById(id);
+        if (loan == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(loanService.getSchedule(loan));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Loan> updateLoan(@PathVariable UUID id, @RequestBody Loan loan) {
-        return ResponseEntity.ok(loanService.updateLoan(id, loan));
+        try {
+            return ResponseEntity.ok(loanService.updateLoan(id, loan));
+        } catch (OptimisticLockingFailureException e) {
+            // Still contended after the retries; an illegal transition is a LoanConflictException (also 409)
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -105,8 +166,8 @@ public class LoanController {
         return ResponseEntity.ok().build();
     }
 
-    private LoanDTO mapToDTO(Loan loan) {
-        return new LoanDTO(
+    LoanDTO mapToDTO(Loan loan) {
+        LoanDTO dto = new LoanDTO(
                 loan.getId(),
                 loan.getUser() != null ? loan.getUser().getId() : null,
                 loan.getLoanType().name(),
@@ -121,5 +182,7 @@ public class LoanController {
                 loan.getUploadedFileName(),
                 loan.getUploadedFilePath()
         );
+        dto.setVersion(loan.getVersion());
+        return dto;
     }
 }
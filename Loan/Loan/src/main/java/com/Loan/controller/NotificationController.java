@@ -1,5 +1,6 @@
 package com.Loan.controller;
 
+import com.Loan.dto.NotificationDTO;
 import com.Loan.entity.Notification;
 import com.Loan.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +19,7 @@ public class NotificationController {
     private NotificationService notificationService;
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Notification>> getUserNotifications(@PathVariable UUID userId) {
+    public ResponseEntity<List<NotificationDTO>> getUserNotifications(@PathVariable UUID userId) {
         return ResponseEntity.ok(notificationService.getUserNotifications(userId));
     }
 
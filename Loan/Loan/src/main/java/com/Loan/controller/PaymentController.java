@@ -1,39 +1,78 @@
 package com.Loan.controller;
 
+import com.Loan.dto.CursorPage;
+import com.Loan.dto.PaymentDTO;
 import com.Loan.entity.Payment;
+import com.Loan.service.KeysetCursor;
 import com.Loan.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/payments")
 @CrossOrigin(origins = "*")
 public class PaymentController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private PaymentService paymentService;
 
+    @Value("${loan.listing.max-results:1000}")
+    private int maxResults;
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Payment>> getUserPayments(@PathVariable UUID userId) {
+    public ResponseEntity<List<PaymentDTO>> getUserPayments(@PathVariable UUID userId) {
         return ResponseEntity.ok(paymentService.getPaymentsByUserId(userId));
     }
 
     @GetMapping("/user/{userId}/pending")
-    public ResponseEntity<List<Payment>> getPendingPayments(@PathVariable UUID userId) {
+    public ResponseEntity<List<PaymentDTO>> getPendingPayments(@PathVariable UUID userId) {
         return ResponseEntity.ok(paymentService.getPendingPayments(userId));
     }
 
+    // Kept for existing clients; capped to the newest loan.listing.max-results payments. Use /page for everything else.
     @GetMapping
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        return ResponseEntity.ok(paymentService.getAllPayments());
+    public ResponseEntity<List<PaymentDTO>> getAllPayments() {
+        return ResponseEntity.ok(paymentService.getRecentPayments(maxResults));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<PaymentDTO>> getPaymentsPage(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            Window<Payment> window = paymentService.scrollPayments(
+                    status != null ? Payment.PaymentStatus.valueOf(status.toUpperCase()) : null,
+                    from, to, cursor, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+            List<PaymentDTO> items = window.stream().map(this::mapToDTO).collect(Collectors.toList());
+            String nextCursor = null;
+            if (window.hasNext() && !window.isEmpty()) {
+                Payment last = window.getContent().get(window.size() - 1);
+                nextCursor = KeysetCursor.encode(last.getCreatedAt(), last.getId());
+            }
+            return ResponseEntity.ok(new CursorPage<>(items, nextCursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/loan/{loanId}")
-    public ResponseEntity<List<Payment>> getPaymentsByLoan(@PathVariable UUID loanId) {
+    public ResponseEntity<List<PaymentDTO>> getPaymentsByLoan(@PathVariable UUID loanId) {
         return ResponseEntity.ok(paymentService.getPaymentsByLoanId(loanId));
     }
 
@@ -45,6 +84,22 @@ public class PaymentController {
     @PutMapping("/{id}/status")
     public ResponseEntity<Payment> updatePaymentStatus(@PathVariable UUID id, @RequestParam String status) {
         Payment.PaymentStatus paymentStatus = Payment.PaymentStatus.valueOf(status.toUpperCase());
-        return ResponseEntity.ok(paymentService.updatePaymentStatus(id, paymentStatus));
+        try {
+            return ResponseEntity.ok(paymentService.updatePaymentStatus(id, paymentStatus));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    PaymentDTO mapToDTO(Payment payment) {
+        return new PaymentDTO(
+                payment.getId(),
+                payment.getLoan() != null ? payment.getLoan().getId() : null,
+                payment.getUser() != null ? payment.getUser().getId() : null,
+                payment.getAmount(),
+                payment.getDueDate(),
+                payment.getPaidDate(),
+                payment.getStatus().name()
+        );
     }
 }
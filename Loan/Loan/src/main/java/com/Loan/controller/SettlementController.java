@@ -0,0 +1,71 @@
+package com.Loan.controller;
+
+import com.Loan.entity.SettlementRun;
+import com.Loan.service.SettlementReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/settlements")
+@CrossOrigin(origins = "*")
+public class SettlementController {
+
+    @Autowired
+    private SettlementReconciliationService settlementService;
+
+    @GetMapping
+    public ResponseEntity<List<SettlementRun>> getRuns() {
+        return ResponseEntity.ok(settlementService.getRuns());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SettlementRun> getRun(@PathVariable UUID id) {
+        SettlementRun run = settlementService.getRun(id);
+        if (run != null) {
+            return ResponseEntity.ok(run);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // The file must already be in loan.payments.settlement.directory; the run happens in the background
+    @PostMapping
+    public ResponseEntity<SettlementRun> startRun(@RequestParam String fileName) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(settlementService.submit(fileName));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<SettlementRun> resumeRun(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(settlementService.resume(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // Credits that could not be posted, for manual follow-up
+    @GetMapping("/{id}/exceptions")
+    public ResponseEntity<Resource> getExceptions(@PathVariable UUID id) {
+        Path report = settlementService.getReport(id);
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + report.getFileName())
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(new FileSystemResource(report));
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/users")
@@ -24,23 +25,29 @@ public class UserController {
     @Autowired
     private com.Loan.security.JwtUtil jwtUtil;
 
+    // Register and login complete asynchronously so the request thread is not held while BCrypt runs
     @PostMapping("/register")
-    public ResponseEntity<User> register(@RequestBody User user) {
-        return ResponseEntity.ok(userService.registerUser(user));
+    public CompletableFuture<ResponseEntity<User>> register(@RequestBody User user) {
+        return userService.registerUser(user).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<com.Loan.dto.AuthResponse> login(@RequestBody Map<String, String> credentials) {
+    public CompletableFuture<ResponseEntity<com.Loan.dto.AuthResponse>> login(@RequestBody Map<String, String> credentials) {
         String email = credentials.get("email");
         String password = credentials.get("password");
         
         logger.info("Login request received for email: {}", email);
         
         try {
-            User user = userService.authenticate(email, password);
-            String token = jwtUtil.generateToken(user.getEmail(), user.getRole().toString());
-            logger.info("Login successful for email: {}. Token generated.", email);
-            return ResponseEntity.ok(new com.Loan.dto.AuthResponse(token, user));
+            return userService.authenticate(email, password).thenApply(user -> {
+                String token = jwtUtil.generateToken(user.getEmail(), user.getRole().toString());
+                logger.info("Login successful for email: {}. Token generated.", email);
+                return ResponseEntity.ok(new com.Loan.dto.AuthResponse(token, user));
+            }).whenComplete((response, e) -> {
+                if (e != null) {
+                    logger.error("Login failed for email: {} - Reason: {}", email, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                }
+            });
         } catch (RuntimeException e) {
             logger.error("Login failed for email: {} - Reason: {}", email, e.getMessage());
             throw e; // Rethrow to let global exception handler (if any) or Spring handle it
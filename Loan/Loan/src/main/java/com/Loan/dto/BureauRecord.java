@@ -0,0 +1,98 @@
+package com.Loan.dto;
+
+import java.util.UUID;
+
+/**
+ * One parsed line of a bureau file. The borrower is identified either by user id
+ * or by email; {@code userId} is filled in once the email has been resolved.
+ */
+public class BureauRecord {
+    private UUID userId;
+    private String email;
+    private int score;
+    private Integer paymentHistory;
+    private Integer creditUtilization;
+    private Integer creditAge;
+    private Integer creditMix;
+    private Integer recentInquiries;
+
+    public BureauRecord() {
+    }
+
+    public BureauRecord(UUID userId, String email, int score, Integer paymentHistory, Integer creditUtilization, Integer creditAge, Integer creditMix, Integer recentInquiries) {
+        this.userId = userId;
+        this.email = email;
+        this.score = score;
+        this.paymentHistory = paymentHistory;
+        this.creditUtilization = creditUtilization;
+        this.creditAge = creditAge;
+        this.creditMix = creditMix;
+        this.recentInquiries = recentInquiries;
+    }
+
+    // Getters and Setters
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    public Integer getPaymentHistory() {
+        return paymentHistory;
+    }
+
+    public void setPaymentHistory(Integer paymentHistory) {
+        this.paymentHistory = paymentHistory;
+    }
+
+    public Integer getCreditUtilization() {
+        return creditUtilization;
+    }
+
+    public void setCreditUtilization(Integer creditUtilization) {
+        this.creditUtilization = creditUtilization;
+    }
+
+    public Integer getCreditAge() {
+        return creditAge;
+    }
+
+    public void setCreditAge(Integer creditAge) {
+        this.creditAge = creditAge;
+    }
+
+    public Integer getCreditMix() {
+        return creditMix;
+    }
+
+    public void setCreditMix(Integer creditMix) {
+        this.creditMix = creditMix;
+    }
+
+    public Integer getRecentInquiries() {
+        return recentInquiries;
+    }
+
+    public void setRecentInquiries(Integer recentInquiries) {
+        this.recentInquiries = recentInquiries;
+    }
+}
@@ -1,15 +1,17 @@
 package com.Loan.dto;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-public class CibilScoreDTO {
+// What the cibilScores cache holds: the score without the entity's User, password hash included
+public class CibilScoreDTO implements Serializable {
     private UUID userId;
     private Integer score;
     private LocalDateTime lastUpdated;
     private CibilFactors factors;
 
-    public static class CibilFactors {
+    public static class CibilFactors implements Serializable {
         private Integer paymentHistory;
         private Integer creditUtilization;
         private Integer creditAge;
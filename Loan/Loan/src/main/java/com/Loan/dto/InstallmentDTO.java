@@ -0,0 +1,75 @@
+package com.Loan.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class InstallmentDTO {
+    private int installmentNumber;
+    private LocalDate dueDate;
+    private BigDecimal payment;
+    private BigDecimal principal;
+    private BigDecimal interest;
+    private BigDecimal balance;
+
+    public InstallmentDTO() {
+    }
+
+    public InstallmentDTO(int installmentNumber, LocalDate dueDate, BigDecimal payment, BigDecimal principal, BigDecimal interest, BigDecimal balance) {
+        this.installmentNumber = installmentNumber;
+        this.dueDate = dueDate;
+        this.payment = payment;
+        this.principal = principal;
+        this.interest = interest;
+        this.balance = balance;
+    }
+
+    // Getters and Setters
+
+    public int getInstallmentNumber() {
+        return installmentNumber;
+    }
+
+    public void setInstallmentNumber(int installmentNumber) {
+        this.installmentNumber = installmentNumber;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public BigDecimal getPayment() {
+        return payment;
+    }
+
+    public void setPayment(BigDecimal payment) {
+        this.payment = payment;
+    }
+
+    public BigDecimal getPrincipal() {
+        return principal;
+    }
+
+    public void setPrincipal(BigDecimal principal) {
+        this.principal = principal;
+    }
+
+    public BigDecimal getInterest() {
+        return interest;
+    }
+
+    public void setInterest(BigDecimal interest) {
+        this.interest = interest;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
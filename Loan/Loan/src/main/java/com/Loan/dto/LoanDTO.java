@@ -1,5 +1,7 @@
 package com.Loan.dto;
 
+import com.Loan.entity.Loan;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
@@ -17,6 +19,8 @@ public class LoanDTO {
     private BigDecimal outstandingBalance;
     private String uploadedFileName;
     private String uploadedFilePath;
+    // Sent back with an edit so the server can refuse it if the loan has changed meanwhile
+    private Long version;
 
     public LoanDTO() {
     }
@@ -156,4 +160,19 @@ public class LoanDTO {
         this.uploadedFileName = uploadedFileName;
         this.uploadedFilePath = uploadedFilePath;
     }
+
+    // Used by the projection queries in LoanRepository
+    public LoanDTO(UUID id, UUID userId, Loan.LoanType loanType, BigDecimal principal, BigDecimal interestRate, Integer tenureMonths, LocalDate startDate, BigDecimal emi, Loan.LoanStatus status, BigDecimal outstandingBalance, String rejectionReason, String uploadedFileName, String uploadedFilePath, Long version) {
+        this(id, userId, loanType.name(), principal, interestRate, tenureMonths, startDate, emi, status.name(),
+                outstandingBalance, rejectionReason, uploadedFileName, uploadedFilePath);
+        this.version = version;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,55 @@
+package com.Loan.dto;
+
+import com.Loan.entity.Loan;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One line of the loan CSV report, read by a constructor-expression query so the
+ * borrower name arrives in the same row instead of a per-loan user lookup.
+ */
+public class LoanReportRow {
+    private final UUID loanId;
+    private final String userName;
+    private final Loan.LoanType loanType;
+    private final BigDecimal principal;
+    private final Loan.LoanStatus status;
+    private final LocalDate startDate;
+
+    public LoanReportRow(UUID loanId, String userName, Loan.LoanType loanType, BigDecimal principal, Loan.LoanStatus status, LocalDate startDate) {
+        this.loanId = loanId;
+        this.userName = userName;
+        this.loanType = loanType;
+        this.principal = principal;
+        this.status = status;
+        this.startDate = startDate;
+    }
+
+    // Getters
+
+    public UUID getLoanId() {
+        return loanId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public Loan.LoanType getLoanType() {
+        return loanType;
+    }
+
+    public BigDecimal getPrincipal() {
+        return principal;
+    }
+
+    public Loan.LoanStatus getStatus() {
+        return status;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+}
@@ -0,0 +1,49 @@
+package com.Loan.dto;
+
+import java.util.UUID;
+
+/**
+ * A notification claimed from the outbox for delivery. {@code attempts} counts the
+ * deliveries tried before this one.
+ */
+public class OutboxMessage {
+    private final UUID id;
+    private final UUID notificationId;
+    private final UUID userId;
+    private final String type;
+    private final String message;
+    private final int attempts;
+
+    public OutboxMessage(UUID id, UUID notificationId, UUID userId, String type, String message, int attempts) {
+        this.id = id;
+        this.notificationId = notificationId;
+        this.userId = userId;
+        this.type = type;
+        this.message = message;
+        this.attempts = attempts;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getNotificationId() {
+        return notificationId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+}
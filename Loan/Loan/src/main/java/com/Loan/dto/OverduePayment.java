@@ -0,0 +1,46 @@
+package com.Loan.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A payment the overdue sweep has just marked OVERDUE, with what its notification needs.
+ */
+public class OverduePayment {
+    private final UUID id;
+    private final UUID loanId;
+    private final UUID userId;
+    private final BigDecimal amount;
+    private final LocalDate dueDate;
+
+    public OverduePayment(UUID id, UUID loanId, UUID userId, BigDecimal amount, LocalDate dueDate) {
+        this.id = id;
+        this.loanId = loanId;
+        this.userId = userId;
+        this.amount = amount;
+        this.dueDate = dueDate;
+    }
+
+    // Getters
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getLoanId() {
+        return loanId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+}
@@ -1,5 +1,7 @@
 package com.Loan.dto;
 
+import com.Loan.entity.Payment;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
@@ -12,6 +14,8 @@ public class PaymentDTO {
     private LocalDate dueDate;
     private LocalDate paidDate;
     private String status;
+    private BigDecimal principalComponent;
+    private BigDecimal interestComponent;
 
     public PaymentDTO() {
     }
@@ -26,6 +30,13 @@ public class PaymentDTO {
         this.status = status;
     }
 
+    // Used by the projection queries in PaymentRepository
+    public PaymentDTO(UUID id, UUID loanId, UUID userId, BigDecimal amount, LocalDate dueDate, LocalDate paidDate, Payment.PaymentStatus status, BigDecimal principalComponent, BigDecimal interestComponent) {
+        this(id, loanId, userId, amount, dueDate, paidDate, status.name());
+        this.principalComponent = principalComponent;
+        this.interestComponent = interestComponent;
+    }
+
     // Getters and Setters
 
     public UUID getId() {
@@ -83,4 +94,20 @@ public class PaymentDTO {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public BigDecimal getPrincipalComponent() {
+        return principalComponent;
+    }
+
+    public void setPrincipalComponent(BigDecimal principalComponent) {
+        this.principalComponent = principalComponent;
+    }
+
+    public BigDecimal getInterestComponent() {
+        return interestComponent;
+    }
+
+    public void setInterestComponent(BigDecimal interestComponent) {
+        this.interestComponent = interestComponent;
+    }
 }
@@ -0,0 +1,44 @@
+package com.Loan.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One credit from a bank settlement file: the EMI paid for a loan's installment due on {@code dueDate}.
+ */
+public class SettlementRecord {
+    private final long line;
+    private final UUID loanId;
+    private final LocalDate dueDate;
+    private final BigDecimal amount;
+    private final String reference;
+
+    public SettlementRecord(long line, UUID loanId, LocalDate dueDate, BigDecimal amount, String reference) {
+        this.line = line;
+        this.loanId = loanId;
+        this.dueDate = dueDate;
+        this.amount = amount;
+        this.reference = reference;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public UUID getLoanId() {
+        return loanId;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+}
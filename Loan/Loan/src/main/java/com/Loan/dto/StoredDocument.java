@@ -0,0 +1,39 @@
+package com.Loan.dto;
+
+import java.nio.file.Path;
+
+/**
+ * A document written by the storage service. {@code name} is the SHA-256 of the content
+ * and is what the file endpoints take; identical uploads share one file.
+ */
+public class StoredDocument {
+    private final String name;
+    private final Path path;
+    private final long size;
+    private final String originalFilename;
+
+    public StoredDocument(String name, Path path, long size, String originalFilename) {
+        this.name = name;
+        this.path = path;
+        this.size = size;
+        this.originalFilename = originalFilename;
+    }
+
+    // Getters
+
+    public String getName() {
+        return name;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+}
@@ -0,0 +1,71 @@
+package com.Loan.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the admin file listing. {@code name} is what GET /api/admin/files/{name}
+ * takes and {@code id} is what DELETE /api/admin/files/{id} takes; {@code lastModified} is the upload time in epoch
+ * milliseconds, as the listing reported it when it was read from the file system.
+ */
+public class StoredFileDTO {
+    private UUID id;
+    private String name;
+    private String originalFilename;
+    private long size;
+    private long lastModified;
+    private UUID loanId;
+    private UUID userId;
+    private LocalDateTime uploadedAt;
+    private String status;
+
+    public StoredFileDTO(UUID id, String name, String originalFilename, long size, long lastModified, UUID loanId, UUID userId, LocalDateTime uploadedAt, String status) {
+        this.id = id;
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.loanId = loanId;
+        this.userId = userId;
+        this.uploadedAt = uploadedAt;
+        this.status = status;
+    }
+
+    // Getters
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public UUID getLoanId() {
+        return loanId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getUploadedAt() {
+        return uploadedAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
@@ -2,6 +2,9 @@ package com.Loan.entity;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.UUID;
 
 import jakarta.persistence.Column;
@@ -10,12 +13,21 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "loans")
+@Table(name = "loans", indexes = {
+        @Index(name = "idx_loans_created", columnList = "created_at, id"),
+        @Index(name = "idx_loans_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_loans_type_created", columnList = "loan_type, created_at, id"),
+        @Index(name = "idx_loans_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_loans_start_date", columnList = "start_date")
+})
 public class Loan {
 
     @Id
@@ -27,6 +39,11 @@ public class Loan {
     @org.hibernate.annotations.NotFound(action = org.hibernate.annotations.NotFoundAction.IGNORE)
     private User user;
 
+    // Read-only copy of the foreign key for the list projections, which can then select it without
+    // touching the association (@NotFound(IGNORE) would otherwise resolve it with a select per row)
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private UUID userId;
+
     @jakarta.persistence.Convert(converter = LoanTypeConverter.class)
     @Column(name = "loan_type", nullable = false)
     private LoanType loanType;
@@ -53,12 +70,38 @@ public class Loan {
     @Column(name = "outstanding_balance", nullable = false)
     private BigDecimal outstandingBalance;
 
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // Optimistic lock: every update bumps it, so racing read-modify-writes fail instead of overwriting each other
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public enum LoanType {
         PERSONAL, HOME, CAR, EDUCATION, BUSINESS
     }
 
     public enum LoanStatus {
-        ACTIVE, COMPLETED, DEFAULTED, PENDING, REJECTED
+        ACTIVE, COMPLETED, DEFAULTED, PENDING, REJECTED;
+
+        /**
+         * The lifecycle: an application is approved or rejected once; an active loan is
+         * repaid or defaults; a defaulted loan can be brought current again or settled.
+         * Rejected and completed loans are final.
+         */
+        public Set<LoanStatus> next() {
+            return switch (this) {
+                case PENDING -> EnumSet.of(ACTIVE, REJECTED);
+                case ACTIVE -> EnumSet.of(COMPLETED, DEFAULTED);
+                case DEFAULTED -> EnumSet.of(ACTIVE, COMPLETED);
+                case COMPLETED, REJECTED -> EnumSet.noneOf(LoanStatus.class);
+            };
+        }
+
+        public boolean canTransitionTo(LoanStatus target) {
+            return this == target || next().contains(target);
+        }
     }
 
     public Loan() {
@@ -77,6 +120,11 @@ public class Loan {
         this.outstandingBalance = outstandingBalance;
     }
 
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
     // Getters and Setters
 
     public UUID getId() {
@@ -158,6 +206,14 @@ public class Loan {
     public void setOutstandingBalance(BigDecimal outstandingBalance) {
         this.outstandingBalance = outstandingBalance;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
     @Column(name = "rejection_reason")
     private String rejectionReason;
 
@@ -190,4 +246,12 @@ public class Loan {
     public void setUploadedFilePath(String uploadedFilePath) {
         this.uploadedFilePath = uploadedFilePath;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -5,7 +5,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_read_created", columnList = "user_id, is_read, created_at"),
+        @Index(name = "idx_notifications_created", columnList = "created_at")
+})
 public class Notification {
 
     @Id
@@ -17,6 +20,10 @@ public class Notification {
     @org.hibernate.annotations.NotFound(action = org.hibernate.annotations.NotFoundAction.IGNORE)
     private User user;
 
+    // Read-only foreign key for the list projections, as on Loan.userId
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private UUID userId;
+
     @Column(nullable = false)
     private String type;
 
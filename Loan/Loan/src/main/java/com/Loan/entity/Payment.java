@@ -3,10 +3,17 @@ package com.Loan.entity;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_created", columnList = "created_at, id"),
+        @Index(name = "idx_payments_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_payments_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_payments_loan_due", columnList = "loan_id, due_date"),
+        @Index(name = "idx_payments_status_due", columnList = "status, due_date, id")
+})
 public class Payment {
 
     @Id
@@ -23,9 +30,23 @@ public class Payment {
     @org.hibernate.annotations.NotFound(action = org.hibernate.annotations.NotFoundAction.IGNORE)
     private User user;
 
+    // Read-only foreign keys for the list projections, as on Loan.userId
+    @Column(name = "loan_id", insertable = false, updatable = false)
+    private UUID loanId;
+
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private UUID userId;
+
     @Column(nullable = false)
     private BigDecimal amount;
 
+    // Split of the amount from the amortization schedule; null for ad-hoc payments
+    @Column(name = "principal_component")
+    private BigDecimal principalComponent;
+
+    @Column(name = "interest_component")
+    private BigDecimal interestComponent;
+
     @Column(name = "due_date", nullable = false)
     private LocalDate dueDate;
 
@@ -36,6 +57,14 @@ public class Payment {
     @Column(nullable = false)
     private PaymentStatus status;
 
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // Optimistic lock; the JDBC writers bump it too (see PaymentJdbcRepository)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public enum PaymentStatus {
         PENDING, PAID, OVERDUE
     }
@@ -53,6 +82,11 @@ public class Payment {
         this.status = status;
     }
 
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
     // Getters and Setters
 
     public UUID getId() {
@@ -87,6 +121,22 @@ public class Payment {
         this.amount = amount;
     }
 
+    public BigDecimal getPrincipalComponent() {
+        return principalComponent;
+    }
+
+    public void setPrincipalComponent(BigDecimal principalComponent) {
+        this.principalComponent = principalComponent;
+    }
+
+    public BigDecimal getInterestComponent() {
+        return interestComponent;
+    }
+
+    public void setInterestComponent(BigDecimal interestComponent) {
+        this.interestComponent = interestComponent;
+    }
+
     public LocalDate getDueDate() {
         return dueDate;
     }
@@ -110,4 +160,20 @@ public class Payment {
     public void setStatus(PaymentStatus status) {
         this.status = status;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
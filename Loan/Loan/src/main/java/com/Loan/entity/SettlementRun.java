@@ -0,0 +1,208 @@
+package com.Loan.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One reconciliation of a bank settlement file against the payment schedule.
+ * {@code checkpointLine} is the last data line whose chunk has been committed,
+ * together with the postings it made; a resumed run starts reading after it.
+ * Rows that could not be posted are listed in the exceptions report. Ownership and
+ * heartbeats work as on {@link CibilImport}.
+ */
+@Entity
+@Table(name = "settlement_runs", indexes = {
+        @Index(name = "idx_settlement_runs_status", columnList = "status"),
+        @Index(name = "idx_settlement_runs_created", columnList = "created_at")
+})
+public class SettlementRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(name = "checkpoint_line", nullable = false)
+    private long checkpointLine;
+
+    @Column(name = "rows_read", nullable = false)
+    private long rowsRead;
+
+    @Column(name = "rows_posted", nullable = false)
+    private long rowsPosted;
+
+    @Column(name = "rows_exceptions", nullable = false)
+    private long rowsExceptions;
+
+    @Column(name = "amount_posted", nullable = false)
+    private BigDecimal amountPosted = BigDecimal.ZERO;
+
+    @Column(name = "rows_per_second")
+    private Double rowsPerSecond;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // Claims and heartbeats are written by conditional updates in the repository only, so a
+    // checkpoint save of an entity loaded long ago never hands the run back or ages its heartbeat
+    @Column(name = "owner_node", updatable = false)
+    private String ownerNode;
+
+    @Column(name = "heartbeat_at", updatable = false)
+    private LocalDateTime heartbeatAt;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, INTERRUPTED
+    }
+
+    public SettlementRun() {
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public boolean isResumable() {
+        return status == Status.FAILED || status == Status.INTERRUPTED;
+    }
+
+    // Getters and Setters
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getCheckpointLine() {
+        return checkpointLine;
+    }
+
+    public void setCheckpointLine(long checkpointLine) {
+        this.checkpointLine = checkpointLine;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getRowsPosted() {
+        return rowsPosted;
+    }
+
+    public void setRowsPosted(long rowsPosted) {
+        this.rowsPosted = rowsPosted;
+    }
+
+    public long getRowsExceptions() {
+        return rowsExceptions;
+    }
+
+    public void setRowsExceptions(long rowsExceptions) {
+        this.rowsExceptions = rowsExceptions;
+    }
+
+    public BigDecimal getAmountPosted() {
+        return amountPosted;
+    }
+
+    public void setAmountPosted(BigDecimal amountPosted) {
+        this.amountPosted = amountPosted;
+    }
+
+    public Double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(Double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getOwnerNode() {
+        return ownerNode;
+    }
+
+    public void setOwnerNode(String ownerNode) {
+        this.ownerNode = ownerNode;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+}
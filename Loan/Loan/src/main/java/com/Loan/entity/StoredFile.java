@@ -0,0 +1,149 @@
+package com.Loan.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Catalog row for a stored document, written when it is uploaded so listings never
+ * touch the file system. {@code name} is the name the file endpoints take: the content
+ * hash, or the file name for documents stored flat before sharding. Identical uploads
+ * share one file but each gets its own row.
+ */
+@Entity
+@Table(name = "stored_files", indexes = {
+        @Index(name = "idx_stored_files_name", columnList = "name"),
+        @Index(name = "idx_stored_files_status", columnList = "status, name"),
+        @Index(name = "idx_stored_files_loan", columnList = "loan_id"),
+        @Index(name = "idx_stored_files_user", columnList = "user_id, uploaded_at"),
+        @Index(name = "idx_stored_files_uploaded", columnList = "uploaded_at, id"),
+        @Index(name = "idx_stored_files_size", columnList = "size_bytes, id"),
+        @Index(name = "idx_stored_files_original_name", columnList = "original_filename, id")
+})
+public class StoredFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "original_filename")
+    private String originalFilename;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long size;
+
+    @Column(name = "loan_id")
+    private UUID loanId;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "uploaded_at", nullable = false)
+    private LocalDateTime uploadedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(name = "checked_at")
+    private LocalDateTime checkedAt;
+
+    /**
+     * PRESENT once uploaded; the reconciler marks rows whose file has gone MISSING, and
+     * adds ORPHANED rows for files it finds on disk that were never cataloged.
+     */
+    public enum Status {
+        PRESENT, MISSING, ORPHANED
+    }
+
+    public StoredFile() {
+    }
+
+    // Getters and Setters
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public void setOriginalFilename(String originalFilename) {
+        this.originalFilename = originalFilename;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public UUID getLoanId() {
+        return loanId;
+    }
+
+    public void setLoanId(UUID loanId) {
+        this.loanId = loanId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getUploadedAt() {
+        return uploadedAt;
+    }
+
+    public void setUploadedAt(LocalDateTime uploadedAt) {
+        this.uploadedAt = uploadedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCheckedAt() {
+        return checkedAt;
+    }
+
+    public void setCheckedAt(LocalDateTime checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+}
@@ -0,0 +1,68 @@
+package com.Loan.repository;
+
+import com.Loan.entity.CibilImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CibilImportRepository extends JpaRepository<CibilImport, UUID> {
+    List<CibilImport> findTop50ByOrderByCreatedAtDesc();
+
+    /**
+     * Moves the run from one of {@code from} to {@code status} on behalf of {@code node},
+     * starting its heartbeat. Returns 0 if the run was not in one of those states, e.g.
+     * because another node claimed it first.
+     */
+    @Transactional
+    @Modifying
+    @Query("update CibilImport r set r.status = :status, r.ownerNode = :node, r.heartbeatAt = :now " +
+            "where r.id = :id and r.status in :from")
+    int claim(@Param("id") UUID id, @Param("from") Collection<CibilImport.Status> from, @Param("status") CibilImport.Status status,
+              @Param("node") String node, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update CibilImport r set r.heartbeatAt = :now where r.id in :ids and r.ownerNode = :node")
+    int heartbeat(@Param("ids") Collection<UUID> ids, @Param("node") String node, @Param("now") LocalDateTime now);
+
+    /**
+     * Records the progress of a run this node is running, and counts as a heartbeat.
+     * Returns 0 once the run is no longer RUNNING here, e.g. because another node's
+     * sweep marked it INTERRUPTED; the runner then stops instead of overwriting that.
+     */
+    @Transactional
+    @Modifying
+    @Query("update CibilImport r set r.checkpointLine = :#{#run.checkpointLine}, r.rowsRead = :#{#run.rowsRead}, " +
+            "r.rowsUpserted = :#{#run.rowsUpserted}, r.rowsUnmatched = :#{#run.rowsUnmatched}, " +
+            "r.rowsRejected = :#{#run.rowsRejected}, r.rowsPerSecond = :#{#run.rowsPerSecond}, r.heartbeatAt = :now " +
+            "where r.id = :#{#run.id} and r.ownerNode = :node and r.status = com.Loan.entity.CibilImport.Status.RUNNING")
+    int checkpoint(@Param("run") CibilImport run, @Param("node") String node, @Param("now") LocalDateTime now);
+
+    // Same guard as checkpoint: a run taken away from this node keeps the status it was given
+    @Transactional
+    @Modifying
+    @Query("update CibilImport r set r.status = :#{#run.status}, r.errorMessage = :#{#run.errorMessage}, " +
+            "r.rowsPerSecond = :#{#run.rowsPerSecond}, r.finishedAt = :#{#run.finishedAt} " +
+            "where r.id = :#{#run.id} and r.ownerNode = :node and r.status = com.Loan.entity.CibilImport.Status.RUNNING")
+    int finish(@Param("run") CibilImport run, @Param("node") String node);
+
+    @Query("select r from CibilImport r where r.status in :statuses and (r.heartbeatAt is null or r.heartbeatAt < :before)")
+    List<CibilImport> findExpired(@Param("statuses") Collection<CibilImport.Status> statuses, @Param("before") LocalDateTime before);
+
+    // Re-checks the heartbeat, so a run whose owner has just caught up is left alone
+    @Transactional
+    @Modifying
+    @Query("update CibilImport r set r.status = com.Loan.entity.CibilImport.Status.INTERRUPTED " +
+            "where r.id = :id and r.status in :statuses and (r.heartbeatAt is null or r.heartbeatAt < :before)")
+    int interruptIfExpired(@Param("id") UUID id, @Param("statuses") Collection<CibilImport.Status> statuses,
+                           @Param("before") LocalDateTime before);
+}
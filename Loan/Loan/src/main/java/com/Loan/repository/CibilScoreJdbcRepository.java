@@ -0,0 +1,127 @@
+package com.Loan.repository;
+
+import com.Loan.dto.BureauRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Chunked user lookups and batched score upserts for bureau file ingestion.
+ * The upsert is an UPDATE batch followed by an INSERT batch for the rows the
+ * update did not touch, which works the same on MySQL and H2.
+ */
+@Repository
+public class CibilScoreJdbcRepository {
+
+    private static final String UPDATE_SQL =
+            "UPDATE cibil_scores SET score = ?, payment_history = ?, credit_utilization = ?, credit_age = ?, " +
+            "credit_mix = ?, recent_inquiries = ?, last_updated = ? WHERE user_id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cibil_scores (score, payment_history, credit_utilization, credit_age, credit_mix, " +
+            "recent_inquiries, last_updated, user_id, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${loan.jdbc.batch-size:100}")
+    private int batchSize;
+
+    public Map<String, UUID> findUserIdsByEmail(Collection<String> emails) {
+        Map<String, UUID> ids = new HashMap<>();
+        if (emails.isEmpty()) {
+            return ids;
+        }
+        namedParameterJdbcTemplate.query("SELECT id, email FROM users WHERE email IN (:emails)",
+                Map.of("emails", emails),
+                rs -> {
+                    ids.put(rs.getString("email"), JdbcUuids.read(rs, "id"));
+                });
+        return ids;
+    }
+
+    public Set<UUID> findExistingUserIds(Collection<UUID> userIds) {
+        Set<UUID> existing = new HashSet<>();
+        if (userIds.isEmpty()) {
+            return existing;
+        }
+        List<byte[]> keys = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds) {
+            keys.add(JdbcUuids.toBytes(userId));
+        }
+        namedParameterJdbcTemplate.query("SELECT id FROM users WHERE id IN (:ids)",
+                Map.of("ids", keys),
+                rs -> {
+                    existing.add(JdbcUuids.read(rs, "id"));
+                });
+        return existing;
+    }
+
+    /**
+     * Writes one score per record; every record must have a resolved, distinct user id.
+     * @return the number of rows updated or inserted
+     */
+    public int upsert(List<BureauRecord> records) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, records, batchSize,
+                (ps, record) -> bind(ps, record, now));
+
+        List<BureauRecord> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for a batched update; only 0 means no row
+                if (count == 0) {
+                    missing.add(records.get(index));
+                }
+                index++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing, batchSize, (ps, record) -> {
+                bind(ps, record, now);
+                ps.setBytes(9, JdbcUuids.toBytes(UUID.randomUUID()));
+            });
+        }
+        return records.size();
+    }
+
+    // Shared by both statements: the SET/VALUES columns in the same order, then user_id
+    private static void bind(PreparedStatement ps, BureauRecord record, Timestamp now) throws SQLException {
+        ps.setInt(1, record.getScore());
+        setNullableInt(ps, 2, record.getPaymentHistory());
+        setNullableInt(ps, 3, record.getCreditUtilization());
+        setNullableInt(ps, 4, record.getCreditAge());
+        setNullableInt(ps, 5, record.getCreditMix());
+        setNullableInt(ps, 6, record.getRecentInquiries());
+        ps.setTimestamp(7, now);
+        ps.setBytes(8, JdbcUuids.toBytes(record.getUserId()));
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
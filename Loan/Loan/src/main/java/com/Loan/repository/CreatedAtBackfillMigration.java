@@ -0,0 +1,90 @@
+package com.Loan.repository;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * V3: fills in created_at on loans and payments that predate the column.
+ * V1.1 adds the column as NULL on existing rows, which sorts them outside the
+ * keyset listings. Loans take their start date and payments their due
+ * date, the closest thing recorded to when they were created.
+ * <p>
+ * Rows are updated by primary key in batches, each committed on its own, so a large
+ * table is never locked in one long statement and an interrupted run picks up where
+ * it stopped.
+ */
+@Component
+public class CreatedAtBackfillMigration implements JavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CreatedAtBackfillMigration.class);
+
+    static final int BATCH_SIZE = 1000;
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("3");
+    }
+
+    @Override
+    public String getDescription() {
+        return "backfill created at";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        backfill(connection, "loans", "start_date");
+        backfill(connection, "payments", "due_date");
+    }
+
+    private void backfill(Connection connection, String table, String source) throws SQLException {
+        String select = "SELECT id FROM " + table + " WHERE created_at IS NULL LIMIT " + BATCH_SIZE;
+        String update = "UPDATE " + table + " SET created_at = " + source + " WHERE id = ?";
+        long total = 0;
+        while (true) {
+            List<Object> ids = new ArrayList<>();
+            try (PreparedStatement ps = connection.prepareStatement(select);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getObject(1));
+                }
+            }
+            if (ids.isEmpty()) {
+                break;
+            }
+            try (PreparedStatement ps = connection.prepareStatement(update)) {
+                for (Object id : ids) {
+                    ps.setObject(1, id);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            total += ids.size();
+        }
+        logger.info("Backfilled created_at on {} {} rows", total, table);
+    }
+}
@@ -0,0 +1,40 @@
+package com.Loan.repository;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * UUID conversion for the plain JDBC repositories. Hibernate maps UUID ids to
+ * BINARY(16) on MySQL and to the native UUID type on H2; both accept the 16-byte
+ * big-endian form as a bind value.
+ */
+public final class JdbcUuids {
+
+    private JdbcUuids() {
+    }
+
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    public static UUID read(ResultSet rs, String column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof UUID uuid) {
+            return uuid;
+        }
+        return fromBytes((byte[]) value);
+    }
+}
@@ -0,0 +1,70 @@
+package com.Loan.repository;
+
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for the paginated listings. Each filter that is not supplied
+ * is left out of the WHERE clause entirely, so the remaining predicates can use
+ * the (status|loan_type, created_at, id) indexes.
+ */
+public final class ListingSpecifications {
+
+    private ListingSpecifications() {
+    }
+
+    public static Specification<Loan> loans(Loan.LoanStatus status, Loan.LoanType loanType, LocalDate from, LocalDate to) {
+        Specification<Loan> spec = (root, query, cb) -> {
+            if (isEntityQuery(query)) {
+                root.fetch("user", JoinType.LEFT);
+            }
+            return null;
+        };
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        if (loanType != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("loanType"), loanType));
+        }
+        return spec.and(createdBetween(from, to));
+    }
+
+    public static Specification<Payment> payments(Payment.PaymentStatus status, LocalDate from, LocalDate to) {
+        Specification<Payment> spec = (root, query, cb) -> {
+            if (isEntityQuery(query)) {
+                Fetch<Payment, Loan> loan = root.fetch("loan", JoinType.LEFT);
+                loan.fetch("user", JoinType.LEFT);
+                root.fetch("user", JoinType.LEFT);
+            }
+            return null;
+        };
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        return spec.and(createdBetween(from, to));
+    }
+
+    // The to-one associations are @NotFound(IGNORE), so Hibernate resolves them eagerly with one
+    // select per row unless they are fetched in the listing query itself. Count queries must not fetch.
+    private static boolean isEntityQuery(CriteriaQuery<?> query) {
+        return query != null && query.getResultType() != Long.class && query.getResultType() != long.class;
+    }
+
+    // Both bounds are whole days and inclusive
+    private static <T> Specification<T> createdBetween(LocalDate from, LocalDate to) {
+        Specification<T> spec = Specification.unrestricted();
+        if (from != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from.atStartOfDay()));
+        }
+        if (to != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get("createdAt"), to.plusDays(1).atStartOfDay()));
+        }
+        return spec;
+    }
+}
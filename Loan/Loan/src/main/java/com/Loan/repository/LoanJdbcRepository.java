@@ -0,0 +1,150 @@
+package com.Loan.repository;
+
+import com.Loan.entity.Loan;
+import com.Loan.entity.LoanStatusConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Relative updates of a loan's balance. Each is a single conditional UPDATE that
+ * computes the new value in the database, so concurrent postings against one loan
+ * queue on its row lock instead of overwriting each other's read-modify-write.
+ * Every write bumps the version so Hibernate edits racing with them fail and retry.
+ */
+@Repository
+public class LoanJdbcRepository {
+
+    private static final LoanStatusConverter STATUS = new LoanStatusConverter();
+
+    // Only loans being repaid take payments; GREATEST keeps rounding on old rows from going negative
+    private static final String DECREMENT_SQL =
+            "UPDATE loans SET outstanding_balance = GREATEST(outstanding_balance - ?, 0), version = version + 1 " +
+            "WHERE id = ? AND status IN (?, ?)";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE loans SET outstanding_balance = LEAST(outstanding_balance + ?, principal), version = version + 1 " +
+            "WHERE id = ? AND status IN (?, ?)";
+
+    private static final String BALANCE_SQL = "SELECT status, outstanding_balance FROM loans WHERE id = ?";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE loans SET status = ?, version = version + 1 WHERE id = ? AND status = ? AND outstanding_balance = 0";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${loan.jdbc.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Takes {@code amount} off the balance of an ACTIVE or DEFAULTED loan.
+     *
+     * @return false if the loan is in no state to be repaid
+     */
+    public boolean decrementBalance(UUID loanId, BigDecimal amount) {
+        return jdbcTemplate.update(DECREMENT_SQL, amount, JdbcUuids.toBytes(loanId),
+                STATUS.convertToDatabaseColumn(Loan.LoanStatus.ACTIVE),
+                STATUS.convertToDatabaseColumn(Loan.LoanStatus.DEFAULTED)) == 1;
+    }
+
+    /**
+     * Puts {@code amount} back on the balance of an ACTIVE or DEFAULTED loan, never above its principal.
+     *
+     * @return false if the loan is in no state to be repaid
+     */
+    public boolean incrementBalance(UUID loanId, BigDecimal amount) {
+        return jdbcTemplate.update(INCREMENT_SQL, amount, JdbcUuids.toBytes(loanId),
+                STATUS.convertToDatabaseColumn(Loan.LoanStatus.ACTIVE),
+                STATUS.convertToDatabaseColumn(Loan.LoanStatus.DEFAULTED)) == 1;
+    }
+
+    /**
+     * Marks the loan COMPLETED if its balance is zero and it may go to COMPLETED from its status.
+     * Call after a balance update in the same transaction, which already holds the row lock.
+     *
+     * @return the status the loan was completed from, or null if it was not completed
+     */
+    public Loan.LoanStatus completeIfRepaid(UUID loanId) {
+        byte[] id = JdbcUuids.toBytes(loanId);
+        List<Loan.LoanStatus> repaid = jdbcTemplate.query(BALANCE_SQL,
+                (rs, rowNum) -> rs.getBigDecimal("outstanding_balance").signum() == 0
+                        ? STATUS.convertToEntityAttribute(rs.getString("status")) : null, id);
+        Loan.LoanStatus from = repaid.isEmpty() ? null : repaid.get(0);
+        if (from == null || !from.next().contains(Loan.LoanStatus.COMPLETED)) {
+            return null;
+        }
+        int updated = jdbcTemplate.update(COMPLETE_SQL, STATUS.convertToDatabaseColumn(Loan.LoanStatus.COMPLETED),
+                id, STATUS.convertToDatabaseColumn(from));
+        return updated == 1 ? from : null;
+    }
+
+    /**
+     * Locks the given loans and reads their status. Must run inside a transaction;
+     * lock payments before loans, as every posting does.
+     */
+    public Map<UUID, Loan.LoanStatus> lockStatuses(Collection<UUID> loanIds) {
+        Map<UUID, Loan.LoanStatus> statuses = new HashMap<>();
+        if (loanIds.isEmpty()) {
+            return statuses;
+        }
+        String sql = "SELECT id, status FROM loans WHERE id IN ("
+                + String.join(", ", Collections.nCopies(loanIds.size(), "?")) + ") FOR UPDATE";
+        Object[] ids = loanIds.stream().map(JdbcUuids::toBytes).toArray();
+        jdbcTemplate.query(sql, rs -> {
+            statuses.put(JdbcUuids.read(rs, "id"), STATUS.convertToEntityAttribute(rs.getString("status")));
+        }, ids);
+        return statuses;
+    }
+
+    /**
+     * Batched {@link #decrementBalance}, one statement per loan.
+     */
+    public void decrementBalances(Map<UUID, BigDecimal> amounts) {
+        String active = STATUS.convertToDatabaseColumn(Loan.LoanStatus.ACTIVE);
+        String defaulted = STATUS.convertToDatabaseColumn(Loan.LoanStatus.DEFAULTED);
+        jdbcTemplate.batchUpdate(DECREMENT_SQL, new ArrayList<>(amounts.entrySet()), batchSize, (ps, amount) -> {
+            ps.setBigDecimal(1, amount.getValue());
+            ps.setBytes(2, JdbcUuids.toBytes(amount.getKey()));
+            ps.setString(3, active);
+            ps.setString(4, defaulted);
+        });
+    }
+
+    /**
+     * Completes those of the given loans, already locked with {@link #lockStatuses}, whose balance is now zero.
+     *
+     * @return the loans completed
+     */
+    public List<UUID> completeRepaid(Map<UUID, Loan.LoanStatus> lockedStatuses) {
+        if (lockedStatuses.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT id FROM loans WHERE outstanding_balance = 0 AND id IN ("
+                + String.join(", ", Collections.nCopies(lockedStatuses.size(), "?")) + ")";
+        Object[] ids = lockedStatuses.keySet().stream().map(JdbcUuids::toBytes).toArray();
+        List<UUID> repaid = new ArrayList<>();
+        for (UUID loanId : jdbcTemplate.query(sql, (rs, rowNum) -> JdbcUuids.read(rs, "id"), ids)) {
+            if (lockedStatuses.get(loanId).next().contains(Loan.LoanStatus.COMPLETED)) {
+                repaid.add(loanId);
+            }
+        }
+        String completed = STATUS.convertToDatabaseColumn(Loan.LoanStatus.COMPLETED);
+        jdbcTemplate.batchUpdate(COMPLETE_SQL, repaid, batchSize, (ps, loanId) -> {
+            ps.setString(1, completed);
+            ps.setBytes(2, JdbcUuids.toBytes(loanId));
+            ps.setString(3, STATUS.convertToDatabaseColumn(lockedStatuses.get(loanId)));
+        });
+        return repaid;
+    }
+}
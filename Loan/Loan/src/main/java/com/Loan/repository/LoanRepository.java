@@ -1,14 +1,80 @@
 package com.Loan.repository;
 
+import com.Loan.dto.LoanDTO;
+import com.Loan.dto.LoanReportRow;
 import com.Loan.entity.Loan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface LoanRepository extends JpaRepository<Loan, UUID> {
+public interface LoanRepository extends JpaRepository<Loan, UUID>, JpaSpecificationExecutor<Loan> {
+
+    // Reads user_id straight off the loans row. Loading Loan entities instead would resolve
+    // every user with its own select, because @NotFound(IGNORE) disables the lazy proxy.
+    String LOAN_DTO = "select new com.Loan.dto.LoanDTO(l.id, l.userId, l.loanType, l.principal, l.interestRate, " +
+            "l.tenureMonths, l.startDate, l.emi, l.status, l.outstandingBalance, l.rejectionReason, " +
+            "l.uploadedFileName, l.uploadedFilePath, l.version) from Loan l ";
+
     List<Loan> findByUserId(UUID userId);
     List<Loan> findByUserIdAndStatus(UUID userId, Loan.LoanStatus status);
+
+    @Query(LOAN_DTO + "where l.userId = :userId")
+    List<LoanDTO> findDtosByUserId(@Param("userId") UUID userId);
+
+    @Query(LOAN_DTO + "order by l.createdAt desc, l.id desc")
+    List<LoanDTO> findRecentDtos(Limit limit);
+
+    // One row per status with the loan count and principal total for that status
+    @Query("select l.status as status, count(l) as count, coalesce(sum(l.principal), 0) as principal " +
+            "from Loan l group by l.status")
+    List<StatusTotals> sumByStatus();
+
+    @Query("select l.loanType as loanType, count(l) as count from Loan l group by l.loanType")
+    List<TypeCount> countByLoanType();
+
+    // Principal per calendar month of start_date, over the half-open range [from, to)
+    @Query("select year(l.startDate) as year, month(l.startDate) as month, coalesce(sum(l.principal), 0) as principal " +
+            "from Loan l where l.startDate >= :from and l.startDate < :to group by year(l.startDate), month(l.startDate)")
+    List<MonthTotal> sumPrincipalByMonth(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new com.Loan.dto.LoanReportRow(l.id, u.name, l.loanType, l.principal, l.status, l.startDate) " +
+            "from Loan l left join l.user u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<LoanReportRow> streamReportRows();
+
+    // Half-open range on start_date so the month filter can use an index instead of a string prefix match
+    @Query("select new com.Loan.dto.LoanReportRow(l.id, u.name, l.loanType, l.principal, l.status, l.startDate) " +
+            "from Loan l left join l.user u where l.startDate >= :from and l.startDate < :to")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<LoanReportRow> streamReportRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    interface StatusTotals {
+        Loan.LoanStatus getStatus();
+        Long getCount();
+        BigDecimal getPrincipal();
+    }
+
+    interface TypeCount {
+        Loan.LoanType getLoanType();
+        Long getCount();
+    }
+
+    interface MonthTotal {
+        Integer getYear();
+        Integer getMonth();
+        BigDecimal getPrincipal();
+    }
 }
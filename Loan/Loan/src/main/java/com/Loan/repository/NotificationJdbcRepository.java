@@ -0,0 +1,66 @@
+package com.Loan.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batched inserts into the notifications table, for jobs that notify many users at once.
+ */
+@Repository
+public class NotificationJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (id, user_id, type, message, is_read, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${loan.jdbc.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Inserts one unread notification per entry, all of the given type.
+     */
+    public int insertAll(String type, List<Message> messages) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, messages, batchSize, (ps, message) -> {
+            ps.setBytes(1, JdbcUuids.toBytes(message.id));
+            ps.setBytes(2, JdbcUuids.toBytes(message.userId));
+            ps.setString(3, type);
+            ps.setString(4, message.text);
+            ps.setBoolean(5, false);
+            ps.setTimestamp(6, createdAt);
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            inserted += batch.length;
+        }
+        return inserted;
+    }
+
+    public static final class Message {
+        final UUID id;
+        final UUID userId;
+        final String text;
+
+        public Message(UUID userId, String text) {
+            this(UUID.randomUUID(), userId, text);
+        }
+
+        /**
+         * @param id the notification's id, when it has already been saved
+         */
+        public Message(UUID id, UUID userId, String text) {
+            this.id = id;
+            this.userId = userId;
+            this.text = text;
+        }
+    }
+}
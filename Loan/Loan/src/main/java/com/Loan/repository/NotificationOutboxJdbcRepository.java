@@ -0,0 +1,133 @@
+package com.Loan.repository;
+
+import com.Loan.dto.OutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes to and drains the notification outbox. Enqueueing joins the caller's
+ * transaction, so the delivery commits or rolls back with the notification.
+ */
+@Repository
+public class NotificationOutboxJdbcRepository {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification_outbox (id, notification_id, user_id, type, message, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    // Oldest first along idx_notification_outbox_status_next, so the index supplies the order.
+    // The row locks keep a dispatcher on another node off the batch until its lease is written.
+    private static final String LOCK_DUE_SQL =
+            "SELECT id, notification_id, user_id, type, message, attempts FROM notification_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= ? ORDER BY next_attempt_at LIMIT ? FOR UPDATE";
+
+    private static final String SENT_SQL =
+            "UPDATE notification_outbox SET status = 'SENT', attempts = attempts + 1, sent_at = ?, last_error = NULL WHERE id = ?";
+
+    private static final String RETRY_SQL =
+            "UPDATE notification_outbox SET attempts = attempts + 1, next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    private static final String DEAD_SQL =
+            "UPDATE notification_outbox SET status = 'DEAD', attempts = attempts + 1, last_error = ? WHERE id = ?";
+
+    private static final String SENT_BEFORE_SQL =
+            "SELECT id FROM notification_outbox WHERE status = 'SENT' AND sent_at < ? LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${loan.jdbc.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Queues one delivery per notification, all of the given type, due now.
+     */
+    public int enqueue(String type, List<NotificationJdbcRepository.Message> messages) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, messages, batchSize, (ps, message) -> {
+            ps.setBytes(1, JdbcUuids.toBytes(UUID.randomUUID()));
+            ps.setBytes(2, JdbcUuids.toBytes(message.id));
+            ps.setBytes(3, JdbcUuids.toBytes(message.userId));
+            ps.setString(4, type);
+            ps.setString(5, message.text);
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            inserted += batch.length;
+        }
+        return inserted;
+    }
+
+    /**
+     * Locks up to {@code limit} deliveries due by {@code now}. Must run inside a
+     * transaction, which should {@link #lease} them before it commits.
+     */
+    public List<OutboxMessage> lockDue(LocalDateTime now, int limit) {
+        return jdbcTemplate.query(LOCK_DUE_SQL, (rs, rowNum) -> new OutboxMessage(
+                JdbcUuids.read(rs, "id"),
+                JdbcUuids.read(rs, "notification_id"),
+                JdbcUuids.read(rs, "user_id"),
+                rs.getString("type"),
+                rs.getString("message"),
+                rs.getInt("attempts")), Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Keeps the given deliveries from being claimed again until {@code until}.
+     */
+    public void lease(List<OutboxMessage> messages, LocalDateTime until) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE notification_outbox SET next_attempt_at = ? WHERE id IN ("
+                + String.join(", ", Collections.nCopies(messages.size(), "?")) + ")";
+        List<Object> args = new ArrayList<>(messages.size() + 1);
+        args.add(Timestamp.valueOf(until));
+        for (OutboxMessage message : messages) {
+            args.add(JdbcUuids.toBytes(message.getId()));
+        }
+        jdbcTemplate.update(sql, args.toArray());
+    }
+
+    public void markSent(UUID id, LocalDateTime sentAt) {
+        jdbcTemplate.update(SENT_SQL, Timestamp.valueOf(sentAt), JdbcUuids.toBytes(id));
+    }
+
+    public void retryAt(UUID id, LocalDateTime nextAttemptAt, String error) {
+        jdbcTemplate.update(RETRY_SQL, Timestamp.valueOf(nextAttemptAt), truncate(error), JdbcUuids.toBytes(id));
+    }
+
+    public void markDead(UUID id, String error) {
+        jdbcTemplate.update(DEAD_SQL, truncate(error), JdbcUuids.toBytes(id));
+    }
+
+    /**
+     * Deletes up to {@code limit} deliveries sent before {@code before}.
+     */
+    public int purgeSent(LocalDateTime before, int limit) {
+        List<byte[]> ids = jdbcTemplate.query(SENT_BEFORE_SQL,
+                (rs, rowNum) -> JdbcUuids.toBytes(JdbcUuids.read(rs, "id")), Timestamp.valueOf(before), limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String sql = "DELETE FROM notification_outbox WHERE id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        return jdbcTemplate.update(sql, ids.toArray());
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
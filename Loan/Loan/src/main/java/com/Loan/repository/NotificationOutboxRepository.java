@@ -0,0 +1,12 @@
+package com.Loan.repository;
+
+import com.Loan.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, UUID> {
+    long countByStatus(NotificationOutbox.Status status);
+}
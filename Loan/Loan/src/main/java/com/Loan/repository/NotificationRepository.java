@@ -1,7 +1,11 @@
 package com.Loan.repository;
 
+import com.Loan.dto.NotificationDTO;
 import com.Loan.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,6 +13,17 @@ import java.util.UUID;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+
+    // Reads user_id from the notifications row instead of loading the user per notification
+    String NOTIFICATION_DTO = "select new com.Loan.dto.NotificationDTO(n.id, n.userId, n.type, n.message, n.read, " +
+            "n.createdAt) from Notification n ";
+
     List<Notification> findByUserId(UUID userId);
     List<Notification> findByUserIdAndReadFalse(UUID userId);
+
+    @Query(NOTIFICATION_DTO + "where n.userId = :userId")
+    List<NotificationDTO> findDtosByUserId(@Param("userId") UUID userId);
+
+    @Query(NOTIFICATION_DTO + "order by n.createdAt desc")
+    List<NotificationDTO> findRecentDtos(Limit limit);
 }
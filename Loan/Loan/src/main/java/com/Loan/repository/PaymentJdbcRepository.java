@@ -0,0 +1,222 @@
+package com.Loan.repository;
+
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import com.Loan.dto.InstallmentDTO;
+import com.Loan.dto.OverduePayment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based writes to the payments table that would otherwise cost one
+ * Hibernate round trip per row.
+ */
+@Repository
+public class PaymentJdbcRepository {
+
+    private static final String INSERT_SCHEDULE_SQL =
+            "INSERT INTO payments (id, loan_id, user_id, amount, principal_component, interest_component, due_date, status, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // A range read on idx_payments_status_due. No ORDER BY: any due rows will do, and sorting would
+    // read every remaining due row on each chunk. The row locks keep a concurrent sweep off the chunk.
+    private static final String LOCK_OVERDUE_SQL =
+            "SELECT id, loan_id, user_id, amount, due_date FROM payments " +
+            "WHERE status = 'PENDING' AND due_date < ? LIMIT ? FOR UPDATE";
+
+    // Rows written before the schedule split an installment have no principal component; all of it counts
+    private static final String POSTING_COLUMNS =
+            "SELECT id, loan_id, due_date, amount, status, COALESCE(principal_component, amount) AS principal FROM payments ";
+
+    private static final String LOCK_FOR_POSTING_SQL = POSTING_COLUMNS + "WHERE id = ? FOR UPDATE";
+
+    private static final String MARK_PAID_SQL =
+            "UPDATE payments SET status = 'PAID', paid_date = ?, version = version + 1 " +
+            "WHERE id = ? AND status IN ('PENDING', 'OVERDUE')";
+
+    private static final RowMapper<Posting> POSTING_MAPPER = (rs, rowNum) -> new Posting(
+            JdbcUuids.read(rs, "id"),
+            JdbcUuids.read(rs, "loan_id"),
+            rs.getDate("due_date").toLocalDate(),
+            rs.getBigDecimal("amount"),
+            Payment.PaymentStatus.valueOf(rs.getString("status")),
+            rs.getBigDecimal("principal"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${loan.jdbc.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Inserts one PENDING payment per installment using JDBC batches.
+     */
+    public int insertSchedule(Loan loan, List<InstallmentDTO> schedule) {
+        byte[] loanId = JdbcUuids.toBytes(loan.getId());
+        // With @NotFound(IGNORE) a loan whose user row is gone has no user; its payments get none either
+        byte[] userId = loan.getUser() != null ? JdbcUuids.toBytes(loan.getUser().getId()) : null;
+        String status = Payment.PaymentStatus.PENDING.name();
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SCHEDULE_SQL, schedule, batchSize, (ps, installment) -> {
+            ps.setBytes(1, JdbcUuids.toBytes(UUID.randomUUID()));
+            ps.setBytes(2, loanId);
+            ps.setBytes(3, userId);
+            ps.setBigDecimal(4, installment.getPayment());
+            ps.setBigDecimal(5, installment.getPrincipal());
+            ps.setBigDecimal(6, installment.getInterest());
+            ps.setDate(7, Date.valueOf(installment.getDueDate()));
+            ps.setString(8, status);
+            ps.setTimestamp(9, createdAt);
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            inserted += batch.length;
+        }
+        return inserted;
+    }
+
+    /**
+     * Locks up to {@code limit} PENDING payments due before {@code today}.
+     * Must run inside a transaction, which holds the locks until it commits.
+     */
+    public List<OverduePayment> lockOverdue(LocalDate today, int limit) {
+        return jdbcTemplate.query(LOCK_OVERDUE_SQL, (rs, rowNum) -> new OverduePayment(
+                JdbcUuids.read(rs, "id"),
+                JdbcUuids.read(rs, "loan_id"),
+                JdbcUuids.read(rs, "user_id"),
+                rs.getBigDecimal("amount"),
+                rs.getDate("due_date").toLocalDate()), Date.valueOf(today), limit);
+    }
+
+    /**
+     * Marks the given payments OVERDUE with a single UPDATE.
+     */
+    public int markOverdue(List<OverduePayment> payments) {
+        if (payments.isEmpty()) {
+            return 0;
+        }
+        String sql = "UPDATE payments SET status = 'OVERDUE', version = version + 1 WHERE status = 'PENDING' AND id IN ("
+                + String.join(", ", Collections.nCopies(payments.size(), "?")) + ")";
+        Object[] ids = payments.stream().map(payment -> JdbcUuids.toBytes(payment.getId())).toArray();
+        return jdbcTemplate.update(sql, ids);
+    }
+
+    /**
+     * Locks one payment for posting. Must run inside a transaction, which holds the
+     * lock until it commits, so two postings of the same payment run one after the other.
+     *
+     * @return the payment's posting details, or null if there is no such payment
+     */
+    public Posting lockForPosting(UUID paymentId) {
+        List<Posting> postings = jdbcTemplate.query(LOCK_FOR_POSTING_SQL, POSTING_MAPPER, JdbcUuids.toBytes(paymentId));
+        return postings.isEmpty() ? null : postings.get(0);
+    }
+
+    /**
+     * Locks the installments of the given loans due between {@code from} and {@code to}
+     * inclusive, a range read on idx_payments_loan_due. Must run inside a transaction.
+     */
+    public List<Posting> lockForPosting(Collection<UUID> loanIds, LocalDate from, LocalDate to) {
+        if (loanIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = POSTING_COLUMNS + "WHERE loan_id IN (" + String.join(", ", Collections.nCopies(loanIds.size(), "?"))
+                + ") AND due_date BETWEEN ? AND ? FOR UPDATE";
+        List<Object> args = new ArrayList<>(loanIds.size() + 2);
+        for (UUID loanId : loanIds) {
+            args.add(JdbcUuids.toBytes(loanId));
+        }
+        args.add(Date.valueOf(from));
+        args.add(Date.valueOf(to));
+        return jdbcTemplate.query(sql, POSTING_MAPPER, args.toArray());
+    }
+
+    /**
+     * Marks a PENDING or OVERDUE payment PAID.
+     *
+     * @return false if the payment was not awaiting payment
+     */
+    public boolean markPaid(UUID paymentId, LocalDate paidDate) {
+        return jdbcTemplate.update(MARK_PAID_SQL, Date.valueOf(paidDate), JdbcUuids.toBytes(paymentId)) == 1;
+    }
+
+    /**
+     * Marks PENDING or OVERDUE payments PAID using JDBC batches.
+     *
+     * @return how many were marked
+     */
+    public int markPaid(List<UUID> paymentIds, LocalDate paidDate) {
+        Date paid = Date.valueOf(paidDate);
+        int[][] counts = jdbcTemplate.batchUpdate(MARK_PAID_SQL, paymentIds, batchSize, (ps, paymentId) -> {
+            ps.setDate(1, paid);
+            ps.setBytes(2, JdbcUuids.toBytes(paymentId));
+        });
+        int marked = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Drivers that rewrite batches may not report per-row counts; the rows are locked and unpaid
+                marked += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+        }
+        return marked;
+    }
+
+    public static final class Posting {
+        private final UUID id;
+        private final UUID loanId;
+        private final LocalDate dueDate;
+        private final BigDecimal amount;
+        private final Payment.PaymentStatus status;
+        private final BigDecimal principal;
+
+        Posting(UUID id, UUID loanId, LocalDate dueDate, BigDecimal amount, Payment.PaymentStatus status, BigDecimal principal) {
+            this.id = id;
+            this.loanId = loanId;
+            this.dueDate = dueDate;
+            this.amount = amount;
+            this.status = status;
+            this.principal = principal;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public UUID getLoanId() {
+            return loanId;
+        }
+
+        public LocalDate getDueDate() {
+            return dueDate;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public Payment.PaymentStatus getStatus() {
+            return status;
+        }
+
+        /** What paying this installment takes off the loan's outstanding balance. */
+        public BigDecimal getPrincipal() {
+            return principal;
+        }
+    }
+}
@@ -1,15 +1,57 @@
 package com.Loan.repository;
 
+import com.Loan.dto.PaymentDTO;
 import com.Loan.entity.Payment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, UUID> {
+public interface PaymentRepository extends JpaRepository<Payment, UUID>, JpaSpecificationExecutor<Payment> {
+
+    // Reads loan_id and user_id from the payments row instead of loading both associations per payment
+    String PAYMENT_DTO = "select new com.Loan.dto.PaymentDTO(p.id, p.loanId, p.userId, p.amount, p.dueDate, " +
+            "p.paidDate, p.status, p.principalComponent, p.interestComponent) from Payment p ";
+
     List<Payment> findByUserId(UUID userId);
     List<Payment> findByLoanId(UUID loanId);
+    boolean existsByLoanId(UUID loanId);
     List<Payment> findByUserIdAndStatus(UUID userId, Payment.PaymentStatus status);
+
+    @Query(PAYMENT_DTO + "where p.userId = :userId")
+    List<PaymentDTO> findDtosByUserId(@Param("userId") UUID userId);
+
+    @Query(PAYMENT_DTO + "where p.userId = :userId and p.status in :statuses")
+    List<PaymentDTO> findDtosByUserIdAndStatusIn(@Param("userId") UUID userId, @Param("statuses") Collection<Payment.PaymentStatus> statuses);
+
+    @Query(PAYMENT_DTO + "where p.loanId = :loanId order by p.dueDate")
+    List<PaymentDTO> findDtosByLoanId(@Param("loanId") UUID loanId);
+
+    @Query(PAYMENT_DTO + "order by p.createdAt desc, p.id desc")
+    List<PaymentDTO> findRecentDtos(Limit limit);
+
+    @Query("select p.status as status, count(p) as count from Payment p group by p.status")
+    List<StatusCount> countByStatus();
+
+    @Query("select p.status as status, count(p) as count from Payment p where p.loanId = :loanId group by p.status")
+    List<StatusCount> countByStatusForLoan(@Param("loanId") UUID loanId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Payment p where p.loanId = :loanId")
+    int deleteByLoanId(@Param("loanId") UUID loanId);
+
+    interface StatusCount {
+        Payment.PaymentStatus getStatus();
+        Long getCount();
+    }
 }
@@ -0,0 +1,127 @@
+package com.Loan.repository;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * V2: the secondary indexes declared on the entities ({@code @Table(indexes = ...)}).
+ * <p>
+ * The to-one associations are mapped with {@code @NotFound(IGNORE)}, so there are no
+ * foreign keys and MySQL never adds its implicit index on user_id / loan_id; these
+ * indexes are what keep the per-user queries off a full scan. Databases that ran under
+ * ddl-auto=update already have some or all of them, and MySQL has no
+ * {@code CREATE INDEX IF NOT EXISTS}, so each index is looked up first and only the
+ * missing ones are built. On MySQL they are built online (InnoDB in-place, no lock),
+ * so reads and writes to the table carry on while a large index is created.
+ */
+@Component
+public class QueryIndexMigration implements JavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryIndexMigration.class);
+
+    private static final List<IndexDefinition> INDEXES = List.of(
+            // loans: keyset listing, per-user lookups, monthly report
+            new IndexDefinition("loans", "idx_loans_created", "created_at, id"),
+            new IndexDefinition("loans", "idx_loans_status_created", "status, created_at, id"),
+            new IndexDefinition("loans", "idx_loans_type_created", "loan_type, created_at, id"),
+            new IndexDefinition("loans", "idx_loans_user_status", "user_id, status"),
+            new IndexDefinition("loans", "idx_loans_start_date", "start_date"),
+            // payments: keyset listing, per-user pending/history, schedule by loan in due-date order
+            new IndexDefinition("payments", "idx_payments_created", "created_at, id"),
+            new IndexDefinition("payments", "idx_payments_status_created", "status, created_at, id"),
+            new IndexDefinition("payments", "idx_payments_user_status", "user_id, status"),
+            new IndexDefinition("payments", "idx_payments_loan_due", "loan_id, due_date"),
+            // notifications: per-user (unread) lists, admin activity log
+            new IndexDefinition("notifications", "idx_notifications_user_read_created", "user_id, is_read, created_at"),
+            new IndexDefinition("notifications", "idx_notifications_created", "created_at"),
+            // cibil_imports: startup recovery by status, admin listing
+            new IndexDefinition("cibil_imports", "idx_cibil_imports_status", "status"),
+            new IndexDefinition("cibil_imports", "idx_cibil_imports_created", "created_at"),
+            // stored_files: lookups by name and status, sorted admin listing
+            new IndexDefinition("stored_files", "idx_stored_files_name", "name"),
+            new IndexDefinition("stored_files", "idx_stored_files_status", "status, name"),
+            new IndexDefinition("stored_files", "idx_stored_files_loan", "loan_id"),
+            new IndexDefinition("stored_files", "idx_stored_files_uploaded", "uploaded_at, id"),
+            new IndexDefinition("stored_files", "idx_stored_files_size", "size_bytes, id"),
+            new IndexDefinition("stored_files", "idx_stored_files_original_name", "original_filename, id")
+    );
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("2");
+    }
+
+    @Override
+    public String getDescription() {
+        return "query indexes";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        // MySQL commits DDL implicitly; each index is its own unit of work
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        DatabaseMetaData metaData = connection.getMetaData();
+        boolean mysql = metaData.getDatabaseProductName().toLowerCase().contains("mysql");
+
+        try (Statement statement = connection.createStatement()) {
+            for (IndexDefinition index : INDEXES) {
+                if (exists(metaData, connection, index)) {
+                    logger.info("Index {} already exists on {}", index.name, index.table);
+                    continue;
+                }
+                String sql = "CREATE INDEX " + index.name + " ON " + index.table + " (" + index.columns + ")";
+                if (mysql) {
+                    sql += " ALGORITHM=INPLACE LOCK=NONE";
+                }
+                long started = System.nanoTime();
+                statement.execute(sql);
+                logger.info("Created index {} on {} in {} ms", index.name, index.table, (System.nanoTime() - started) / 1_000_000);
+            }
+        }
+    }
+
+    static boolean exists(DatabaseMetaData metaData, Connection connection, IndexDefinition index) throws SQLException {
+        String table = metaData.storesUpperCaseIdentifiers() ? index.table.toUpperCase() : index.table;
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, true)) {
+            while (rs.next()) {
+                if (index.name.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static final class IndexDefinition {
+        final String table;
+        final String name;
+        final String columns;
+
+        IndexDefinition(String table, String name, String columns) {
+            this.table = table;
+            this.name = name;
+            this.columns = columns;
+        }
+    }
+}
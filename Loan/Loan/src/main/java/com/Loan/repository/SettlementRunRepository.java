@@ -0,0 +1,47 @@
+package com.Loan.repository;
+
+import com.Loan.entity.SettlementRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SettlementRunRepository extends JpaRepository<SettlementRun, UUID> {
+    List<SettlementRun> findTop50ByOrderByCreatedAtDesc();
+
+    /**
+     * Moves the run from one of {@code from} to {@code status} on behalf of {@code node},
+     * starting its heartbeat. Returns 0 if the run was not in one of those states, e.g.
+     * because another node claimed it first.
+     */
+    @Transactional
+    @Modifying
+    @Query("update SettlementRun r set r.status = :status, r.ownerNode = :node, r.heartbeatAt = :now " +
+            "where r.id = :id and r.status in :from")
+    int claim(@Param("id") UUID id, @Param("from") Collection<SettlementRun.Status> from, @Param("status") SettlementRun.Status status,
+              @Param("node") String node, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update SettlementRun r set r.heartbeatAt = :now where r.id in :ids and r.ownerNode = :node")
+    int heartbeat(@Param("ids") Collection<UUID> ids, @Param("node") String node, @Param("now") LocalDateTime now);
+
+    @Query("select r from SettlementRun r where r.status in :statuses and (r.heartbeatAt is null or r.heartbeatAt < :before)")
+    List<SettlementRun> findExpired(@Param("statuses") Collection<SettlementRun.Status> statuses, @Param("before") LocalDateTime before);
+
+    // Re-checks the heartbeat, so a run whose owner has just caught up is left alone
+    @Transactional
+    @Modifying
+    @Query("update SettlementRun r set r.status = com.Loan.entity.SettlementRun.Status.INTERRUPTED " +
+            "where r.id = :id and r.status in :statuses and (r.heartbeatAt is null or r.heartbeatAt < :before)")
+    int interruptIfExpired(@Param("id") UUID id, @Param("statuses") Collection<SettlementRun.Status> statuses,
+                           @Param("before") LocalDateTime before);
+}
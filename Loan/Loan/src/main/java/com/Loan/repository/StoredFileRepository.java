@@ -0,0 +1,53 @@
+package com.Loan.repository;
+
+import com.Loan.entity.StoredFile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, UUID> {
+
+    // A Slice skips the count query; the listing only needs to know whether there is a next page
+    Slice<StoredFile> findBy(Pageable pageable);
+
+    @Query("select distinct f.name from StoredFile f")
+    List<String> findAllNames();
+
+    @Query("select distinct f.name from StoredFile f where f.status = :status")
+    List<String> findNamesByStatus(@Param("status") StoredFile.Status status);
+
+    long countByStatus(StoredFile.Status status);
+
+    List<StoredFile> findByUserIdOrderByUploadedAtDesc(UUID userId, Limit limit);
+
+    boolean existsByNameAndUserId(String name, UUID userId);
+
+    // Identical uploads share a name; the first upload's file name is the one offered on download
+    Optional<StoredFile> findFirstByNameOrderByUploadedAtAsc(String name);
+
+    @Transactional
+    @Modifying
+    @Query("update StoredFile f set f.status = com.Loan.entity.StoredFile.Status.MISSING, f.checkedAt = :checkedAt where f.name in :names")
+    int markMissing(@Param("names") Collection<String> names, @Param("checkedAt") LocalDateTime checkedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update StoredFile f set f.status = com.Loan.entity.StoredFile.Status.PRESENT, f.checkedAt = :checkedAt " +
+            "where f.name in :names and f.status = com.Loan.entity.StoredFile.Status.MISSING")
+    int markFound(@Param("names") Collection<String> names, @Param("checkedAt") LocalDateTime checkedAt);
+
+    boolean existsByName(String name);
+}
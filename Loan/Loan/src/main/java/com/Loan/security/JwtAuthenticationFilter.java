@@ -0,0 +1,65 @@
+package com.Loan.security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <jwt>}. Everything
+ * needed comes from the token itself, so there is no database lookup per request;
+ * the principal is a {@link JwtPrincipal} with a {@code ROLE_<role>} authority.
+ * A missing or invalid token leaves the request anonymous and the authorization
+ * rules in {@link SecurityConfig} decide what it may reach.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    // One authority list per role, shared by every request
+    private final Map<String, List<GrantedAuthority>> authorities = new ConcurrentHashMap<>();
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            try {
+                JwtPrincipal principal = jwtUtil.parse(header.substring(BEARER.length()).trim());
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                        principal, null, authoritiesFor(principal.getRole())));
+                SecurityContextHolder.setContext(context);
+            } catch (JwtException | IllegalArgumentException e) {
+                SecurityContextHolder.clearContext();
+                logger.debug("Rejected bearer token: " + e.getMessage());
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private List<GrantedAuthority> authoritiesFor(String role) {
+        if (role == null) {
+            return List.of();
+        }
+        return authorities.computeIfAbsent(role, r -> List.of(new SimpleGrantedAuthority("ROLE_" + r)));
+    }
+}
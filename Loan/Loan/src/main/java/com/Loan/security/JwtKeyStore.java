@@ -0,0 +1,160 @@
+package com.Loan.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HMAC keys for signing and verifying JWTs, loaded from a PKCS12 keystore so every
+ * node and every restart share them. Each secret-key entry's alias is its key id
+ * ({@code kid} header). Tokens are signed with {@code loan.jwt.keystore.active-kid},
+ * or when that is not set with the greatest alias, and verified with whichever key
+ * their header names.
+ * <p>
+ * To rotate: add a key under a newer alias (date-named aliases sort naturally), and
+ * remove the old key once the tokens it signed have expired. The file is re-read
+ * when it changes, so every node picks the new key up without a restart.
+ * <pre>
+ * keytool -genseckey -alias 2026-10 -keyalg HmacSHA256 -keysize 256 -storetype PKCS12 -keystore jwt-keys.p12
+ * </pre>
+ * Without a keystore path a random key is generated at startup, so tokens only
+ * last as long as the process (development only).
+ */
+@Component
+public class JwtKeyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyStore.class);
+    private static final String EPHEMERAL_KID = "ephemeral";
+
+    @Value("${loan.jwt.keystore.path:}")
+    private String path;
+
+    @Value("${loan.jwt.keystore.password:}")
+    private String password;
+
+    @Value("${loan.jwt.keystore.active-kid:}")
+    private String activeKid;
+
+    // Replaced as a whole on reload so readers never see a half-loaded set
+    private volatile KeySet keys;
+    private long lastModified;
+
+    /**
+     * A store holding a single random key, for tests and tools that build JwtUtil directly.
+     */
+    public static JwtKeyStore ephemeral() {
+        JwtKeyStore store = new JwtKeyStore();
+        store.useEphemeralKey();
+        return store;
+    }
+
+    @PostConstruct
+    public void load() throws IOException, GeneralSecurityException {
+        if (path == null || path.isBlank()) {
+            logger.warn("loan.jwt.keystore.path is not set; signing with a random key, tokens will not survive a restart");
+            useEphemeralKey();
+            return;
+        }
+        Path file = Paths.get(path);
+        lastModified = Files.getLastModifiedTime(file).toMillis();
+        keys = read(file);
+        logger.info("Loaded {} JWT keys from {}, signing with '{}'", keys.byKid.size(), file, keys.signingKid);
+    }
+
+    @Scheduled(fixedDelayString = "${loan.jwt.keystore.reload-interval:PT1M}", initialDelayString = "${loan.jwt.keystore.reload-interval:PT1M}")
+    public void reloadIfChanged() {
+        if (path == null || path.isBlank()) {
+            return;
+        }
+        try {
+            Path file = Paths.get(path);
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            if (modified != lastModified) {
+                keys = read(file);
+                lastModified = modified;
+                logger.info("Reloaded {} JWT keys from {}, signing with '{}'", keys.byKid.size(), file, keys.signingKid);
+            }
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            // Keep the keys already loaded; a half-written keystore must not lock everyone out
+            logger.error("Could not reload JWT keystore {}; keeping the current keys", path, e);
+        }
+    }
+
+    public String getSigningKid() {
+        return keys.signingKid;
+    }
+
+    public Key getSigningKey() {
+        return keys.byKid.get(keys.signingKid);
+    }
+
+    /**
+     * @return the key for this id, or null if the id is unknown or has been retired
+     */
+    public Key getVerificationKey(String kid) {
+        return kid == null ? null : keys.byKid.get(kid);
+    }
+
+    private void useEphemeralKey() {
+        keys = new KeySet(Map.of(EPHEMERAL_KID, Keys.secretKeyFor(SignatureAlgorithm.HS256)), EPHEMERAL_KID);
+    }
+
+    private KeySet read(Path file) throws IOException, GeneralSecurityException {
+        char[] secret = password.toCharArray();
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(file)) {
+            store.load(in, secret);
+        }
+
+        Map<String, Key> byKid = new HashMap<>();
+        for (Enumeration<String> aliases = store.aliases(); aliases.hasMoreElements(); ) {
+            String alias = aliases.nextElement();
+            Key key = store.getKey(alias, secret);
+            if (key instanceof SecretKey) {
+                // Rejects keys too short for HMAC-SHA256 up front rather than on the first login
+                SignatureAlgorithm.forSigningKey(key);
+                byKid.put(alias, key);
+            }
+        }
+        if (byKid.isEmpty()) {
+            throw new IllegalStateException("JWT keystore " + file + " has no secret keys");
+        }
+
+        String signingKid = activeKid;
+        if (signingKid == null || signingKid.isBlank()) {
+            signingKid = Collections.max(byKid.keySet());
+        } else if (!byKid.containsKey(signingKid)) {
+            throw new IllegalStateException("JWT keystore " + file + " has no key '" + signingKid + "'");
+        }
+        return new KeySet(Collections.unmodifiableMap(byKid), signingKid);
+    }
+
+    private static final class KeySet {
+        final Map<String, Key> byKid;
+        final String signingKid;
+
+        KeySet(Map<String, Key> byKid, String signingKid) {
+            this.byKid = byKid;
+            this.signingKid = signingKid;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.Loan.security;
+
+import java.time.Instant;
+
+/**
+ * The verified contents of a token: who it was issued to, their role, when it
+ * stops being valid and which key signed it. Immutable, so one instance can be shared across requests.
+ */
+public final class JwtPrincipal {
+
+    private final String email;
+    private final String role;
+    private final Instant expiresAt;
+    private final String keyId;
+
+    public JwtPrincipal(String email, String role, Instant expiresAt, String keyId) {
+        this.email = email;
+        this.role = role;
+        this.expiresAt = expiresAt;
+        this.keyId = keyId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiresAt);
+    }
+}
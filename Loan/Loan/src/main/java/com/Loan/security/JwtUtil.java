@@ -1,33 +1,110 @@
 package com.Loan.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    private final Key SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
     private final long EXPIRATION_TIME = 1000 * 60 * 60 * 10; // 10 hours
 
+    private final JwtKeyStore keyStore;
+
+    // JwtParser is immutable and thread-safe, so one instance serves every request.
+    // The key is picked per token from its kid header, so rotated keys keep verifying.
+    private final JwtParser parser;
+
+    // Recently verified tokens, keyed by their SHA-256 so raw tokens are not kept in memory.
+    // Entries expire with the token itself; null when caching is disabled.
+    private final Cache<ByteBuffer, JwtPrincipal> verified;
+
+    public JwtUtil() {
+        this(10_000);
+    }
+
+    public JwtUtil(int cacheSize) {
+        this(JwtKeyStore.ephemeral(), cacheSize);
+    }
+
+    @Autowired
+    public JwtUtil(JwtKeyStore keyStore, @Value("${loan.jwt.cache-size:10000}") int cacheSize) {
+        this.keyStore = keyStore;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyStore.getVerificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        this.verified = cacheSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.creating((ByteBuffer key, JwtPrincipal principal) ->
+                        Duration.between(Instant.now(), principal.getExpiresAt())))
+                .build();
+    }
+
     public String generateToken(String email, String role) {
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyStore.getSigningKid())
                 .setSubject(email)
                 .claim("role", role)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(SECRET_KEY)
+                .signWith(keyStore.getSigningKey())
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its principal. A token seen recently is
+     * answered from the cache without repeating the signature check.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public JwtPrincipal parse(String token) {
+        if (verified == null) {
+            return verify(token);
+        }
+        ByteBuffer key = hash(token);
+        JwtPrincipal principal = verified.getIfPresent(key);
+        if (principal == null) {
+            principal = verify(token);
+            verified.put(key, principal);
+        } else if (principal.isExpired() || keyStore.getVerificationKey(principal.getKeyId()) == null) {
+            verified.invalidate(key);
+            // Re-verify so the caller gets the same exception as for an uncached token
+            return verify(token);
+        }
+        return principal;
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parse(token).getEmail();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -36,19 +113,29 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(SECRET_KEY).build().parseClaimsJws(token).getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean validateToken(String token, String email) {
-        final String username = extractUsername(token);
-        return (username.equals(email) && !isTokenExpired(token));
+        final JwtPrincipal principal = parse(token);
+        return (principal.getEmail().equals(email) && !principal.isExpired());
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private JwtPrincipal verify(String token) {
+        Jws<Claims> jws = parser.parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        return new JwtPrincipal(claims.getSubject(), claims.get("role", String.class),
+                claims.getExpiration().toInstant(), jws.getHeader().getKeyId());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
@@ -0,0 +1,77 @@
+package com.Loan.service;
+
+import com.Loan.dto.InstallmentDTO;
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import com.Loan.repository.PaymentJdbcRepository;
+import com.Loan.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Expands a loan into its monthly principal/interest/balance schedule and, on
+ * activation, persists that schedule as PENDING payments.
+ */
+@Service
+public class AmortizationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AmortizationService.class);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentJdbcRepository paymentJdbcRepository;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    public List<InstallmentDTO> buildSchedule(Loan loan) {
+        int months = loan.getTenureMonths();
+        // Same rate rounding as the EMI calculation so the schedule reconciles with the stored EMI
+        BigDecimal monthlyRate = EmiCalculator.monthlyRate(loan.getInterestRate());
+        LocalDate firstDueDate = loan.getStartDate() != null ? loan.getStartDate() : LocalDate.now();
+
+        List<InstallmentDTO> schedule = new ArrayList<>(months);
+        BigDecimal balance = loan.getPrincipal();
+        for (int i = 1; i <= months; i++) {
+            BigDecimal interest = balance.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal principalPart = loan.getEmi().subtract(interest);
+            // The final installment clears whatever rounding has left on the balance
+            if (i == months || principalPart.compareTo(balance) > 0) {
+                principalPart = balance;
+            }
+            balance = balance.subtract(principalPart);
+            schedule.add(new InstallmentDTO(i, firstDueDate.plusMonths(i), principalPart.add(interest),
+                    principalPart, interest, balance));
+            if (balance.signum() == 0) {
+                break;
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * Writes the schedule as payment rows in JDBC batches. A loan that already has
+     * payments is left alone, so re-activating a loan does not duplicate its schedule.
+     */
+    @Transactional
+    public int generatePayments(Loan loan) {
+        if (paymentRepository.existsByLoanId(loan.getId())) {
+            return 0;
+        }
+        int inserted = paymentJdbcRepository.insertSchedule(loan, buildSchedule(loan));
+        dashboardCounters.paymentsCreated(Payment.PaymentStatus.PENDING, inserted);
+        logger.debug("Generated {} scheduled payments for loan {}", inserted, loan.getId());
+        return inserted;
+    }
+}
@@ -0,0 +1,34 @@
+package com.Loan.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * EMI in BigDecimal arithmetic with the intermediate (1+R)^N held to 34
+ * significant digits, instead of the thousands of digits an unbounded pow
+ * produces for long tenures.
+ */
+@Component
+@ConditionalOnProperty(name = "loan.emi.calculator", havingValue = "exact")
+public class BigDecimalEmiCalculator implements EmiCalculator {
+
+    private static final MathContext PRECISION = MathContext.DECIMAL128;
+
+    @Override
+    public BigDecimal calculateEmi(BigDecimal principal, BigDecimal annualRate, int months) {
+        BigDecimal monthlyRate = EmiCalculator.monthlyRate(annualRate);
+        if (monthlyRate.signum() == 0) {
+            return principal.divide(BigDecimal.valueOf(months), 2, RoundingMode.HALF_UP);
+        }
+        BigDecimal onePlusPowerN = monthlyRate.add(BigDecimal.ONE).pow(months, PRECISION);
+
+        BigDecimal numerator = principal.multiply(monthlyRate, PRECISION).multiply(onePlusPowerN, PRECISION);
+        BigDecimal denominator = onePlusPowerN.subtract(BigDecimal.ONE, PRECISION);
+
+        return numerator.divide(denominator, PRECISION).setScale(2, RoundingMode.HALF_UP);
+    }
+}
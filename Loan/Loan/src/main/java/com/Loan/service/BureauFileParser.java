@@ -0,0 +1,87 @@
+package com.Loan.service;
+
+import com.Loan.dto.BureauRecord;
+import com.Loan.entity.CibilImport;
+
+import java.util.UUID;
+
+/**
+ * Parses bureau file lines. Both layouts carry the same fields in the same order:
+ * borrower (user id or email), score, payment history, credit utilization,
+ * credit age, credit mix and recent inquiries. Factors may be left empty.
+ * <ul>
+ *   <li>CSV: comma separated with a header row.</li>
+ *   <li>FIXED_WIDTH: no header; the borrower in columns 1-64, the score in 65-67,
+ *       then each factor in the next three columns.</li>
+ * </ul>
+ */
+public final class BureauFileParser {
+
+    static final int BORROWER_WIDTH = 64;
+    static final int NUMBER_WIDTH = 3;
+    private static final int FIELDS = 7;
+
+    private BureauFileParser() {
+    }
+
+    public static boolean hasHeader(CibilImport.Format format) {
+        return format == CibilImport.Format.CSV;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the line is malformed or the score is outside 300-900
+     */
+    public static BureauRecord parse(String line, CibilImport.Format format) {
+        String[] fields = format == CibilImport.Format.CSV ? splitCsv(line) : splitFixedWidth(line);
+
+        String borrower = fields[0].trim();
+        if (borrower.isEmpty()) {
+            throw new IllegalArgumentException("Missing borrower");
+        }
+        BureauRecord record = new BureauRecord();
+        if (borrower.indexOf('@') >= 0) {
+            record.setEmail(borrower);
+        } else {
+            record.setUserId(UUID.fromString(borrower));
+        }
+
+        Integer score = number(fields[1]);
+        if (score == null || score < 300 || score > 900) {
+            throw new IllegalArgumentException("Score out of range: " + fields[1].trim());
+        }
+        record.setScore(score);
+        record.setPaymentHistory(number(fields[2]));
+        record.setCreditUtilization(number(fields[3]));
+        record.setCreditAge(number(fields[4]));
+        record.setCreditMix(number(fields[5]));
+        record.setRecentInquiries(number(fields[6]));
+        return record;
+    }
+
+    private static String[] splitCsv(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != FIELDS) {
+            throw new IllegalArgumentException("Expected " + FIELDS + " fields but found " + fields.length);
+        }
+        return fields;
+    }
+
+    private static String[] splitFixedWidth(String line) {
+        if (line.length() < BORROWER_WIDTH + NUMBER_WIDTH) {
+            throw new IllegalArgumentException("Line too short: " + line.length());
+        }
+        String[] fields = new String[FIELDS];
+        fields[0] = line.substring(0, BORROWER_WIDTH);
+        for (int i = 1; i < FIELDS; i++) {
+            int start = BORROWER_WIDTH + (i - 1) * NUMBER_WIDTH;
+            // Trailing empty factors may be cut off entirely
+            fields[i] = start >= line.length() ? "" : line.substring(start, Math.min(line.length(), start + NUMBER_WIDTH));
+        }
+        return fields;
+    }
+
+    private static Integer number(String field) {
+        String value = field.trim();
+        return value.isEmpty() ? null : Integer.valueOf(value);
+    }
+}
@@ -0,0 +1,27 @@
+package com.Loan.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@code loan.cache.store=shared} replaces the per-node Caffeine cache with a local
+ * stand-in for a shared store such as Redis. Entries are held serialized and every
+ * read returns a fresh copy, as they would be from a remote store, so the
+ * multi-node setup (and anything cached that does not serialize) can be exercised
+ * on one machine before {@code spring.cache.type} is pointed at the real store.
+ * It has no size bound or TTL; entries only leave through the evictions on write.
+ */
+@Configuration
+@ConditionalOnProperty(name = "loan.cache.store", havingValue = "shared")
+public class CibilCacheConfig {
+
+    @Bean
+    public CacheManager cacheManager() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CibilService.CACHE);
+        cacheManager.setStoreByValue(true);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,458 @@
+package com.Loan.service;
+
+import com.Loan.dto.BureauRecord;
+import com.Loan.entity.CibilImport;
+import com.Loan.repository.CibilImportRepository;
+import com.Loan.repository.CibilScoreJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ingests nightly bureau files dropped into {@code loan.cibil.import.directory}.
+ * The file is streamed line by line and cut into chunks of
+ * {@code loan.cibil.import.chunk-size} lines; up to {@code loan.cibil.import.partitions}
+ * chunks are parsed, resolved and upserted in parallel, each in its own transaction.
+ * <p>
+ * Chunks can finish out of order, so the checkpoint only advances over a contiguous
+ * run of committed chunks. A resumed import re-reads from the checkpoint; chunks that
+ * had committed past it are written again, which the upsert makes harmless.
+ * <p>
+ * Each import is claimed by the node that runs it, which heartbeats it every
+ * {@code loan.jobs.heartbeat-interval}. Any node interrupts imports whose heartbeat is
+ * older than {@code loan.jobs.heartbeat-timeout}, so a node that goes away leaves its
+ * imports resumable without a restart interrupting imports still running elsewhere.
+ */
+@Service
+public class CibilImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CibilImportService.class);
+    private static final Set<CibilImport.Status> ACTIVE = EnumSet.of(CibilImport.Status.QUEUED, CibilImport.Status.RUNNING);
+    private static final Set<CibilImport.Status> RESUMABLE = EnumSet.of(CibilImport.Status.FAILED, CibilImport.Status.INTERRUPTED);
+    private static final Set<CibilImport.Status> STARTABLE = EnumSet.of(CibilImport.Status.QUEUED, CibilImport.Status.FAILED, CibilImport.Status.INTERRUPTED);
+
+    @Autowired
+    private CibilImportRepository cibilImportRepository;
+
+    @Autowired
+    private CibilScoreJdbcRepository cibilScoreJdbcRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NodeIdentity nodeIdentity;
+
+    @Value("${loan.cibil.import.directory:bureau}")
+    private String directory;
+
+    @Value("${loan.cibil.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${loan.cibil.import.partitions:4}")
+    private int partitions;
+
+    @Value("${loan.jobs.heartbeat-timeout:PT2M}")
+    private Duration heartbeatTimeout;
+
+    private TransactionTemplate transactionTemplate;
+    // Imports run one at a time; their chunks fan out to the worker pool
+    private ExecutorService runner;
+    private ExecutorService workers;
+    private Counter rowsUpserted;
+    private Counter rowsUnmatched;
+    private Counter rowsRejected;
+    // Queued or running here, heartbeated until they finish
+    private final Set<UUID> owned = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        runner = Executors.newSingleThreadExecutor(threads("cibil-import-"));
+        workers = Executors.newFixedThreadPool(partitions, threads("cibil-import-worker-"));
+        rowsUpserted = Counter.builder("cibil.import.rows").tag("outcome", "upserted").register(meterRegistry);
+        rowsUnmatched = Counter.builder("cibil.import.rows").tag("outcome", "unmatched").register(meterRegistry);
+        rowsRejected = Counter.builder("cibil.import.rows").tag("outcome", "rejected").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        runner.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${loan.jobs.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!owned.isEmpty()) {
+            cibilImportRepository.heartbeat(List.copyOf(owned), nodeIdentity.getId(), now);
+        }
+        markInterrupted(now.minus(heartbeatTimeout));
+    }
+
+    /**
+     * Interrupts queued or running imports not heartbeated since {@code before}: their
+     * node has gone away, so they can be resumed.
+     */
+    public void markInterrupted(LocalDateTime before) {
+        for (CibilImport stale : cibilImportRepository.findExpired(ACTIVE, before)) {
+            if (cibilImportRepository.interruptIfExpired(stale.getId(), ACTIVE, before) > 0) {
+                logger.warn("CIBIL import {} was interrupted at line {}: node {} stopped heartbeating it",
+                        stale.getId(), stale.getCheckpointLine(), stale.getOwnerNode());
+            }
+        }
+    }
+
+    public List<CibilImport> getImports() {
+        return cibilImportRepository.findTop50ByOrderByCreatedAtDesc();
+    }
+
+    public CibilImport getImport(UUID id) {
+        return cibilImportRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Queues an import of a file in the import directory.
+     * @throws IllegalArgumentException if the name leaves the directory or the file does not exist
+     */
+    public CibilImport submit(String fileName, CibilImport.Format format) {
+        resolve(fileName);
+        CibilImport cibilImport = new CibilImport();
+        cibilImport.setFileName(fileName);
+        cibilImport.setFormat(format);
+        cibilImport.setStatus(CibilImport.Status.QUEUED);
+        cibilImport.setOwnerNode(nodeIdentity.getId());
+        cibilImport.setHeartbeatAt(LocalDateTime.now());
+        cibilImport = cibilImportRepository.save(cibilImport);
+        UUID id = cibilImport.getId();
+        owned.add(id);
+        runner.execute(() -> runImport(id));
+        return cibilImport;
+    }
+
+    /**
+     * Queues a failed or interrupted import to continue from its checkpoint. Only one
+     * node's resume of an import succeeds.
+     * @throws IllegalStateException if the import is not in a resumable state
+     */
+    public CibilImport resume(UUID id) {
+        if (cibilImportRepository.claim(id, RESUMABLE, CibilImport.Status.QUEUED, nodeIdentity.getId(), LocalDateTime.now()) == 0) {
+            CibilImport cibilImport = cibilImportRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Import not found"));
+            throw new IllegalStateException("Import is " + cibilImport.getStatus());
+        }
+        owned.add(id);
+        CibilImport cibilImport = cibilImportRepository.findById(id).orElseThrow();
+        cibilImport.setErrorMessage(null);
+        cibilImport = cibilImportRepository.save(cibilImport);
+        runner.execute(() -> runImport(id));
+        return cibilImport;
+    }
+
+    /**
+     * Runs an import on the calling thread until the file is exhausted or a chunk fails.
+     * An import that is already running (or finished) is returned as it is.
+     */
+    public CibilImport runImport(UUID id) {
+        owned.add(id);
+        try {
+            if (cibilImportRepository.claim(id, STARTABLE, CibilImport.Status.RUNNING, nodeIdentity.getId(), LocalDateTime.now()) == 0) {
+                CibilImport cibilImport = cibilImportRepository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Import not found"));
+                logger.warn("CIBIL import {} not run: it is {} on node {}", id, cibilImport.getStatus(), cibilImport.getOwnerNode());
+                return cibilImport;
+            }
+            return run(cibilImportRepository.findById(id).orElseThrow());
+        } finally {
+            owned.remove(id);
+        }
+    }
+
+    private CibilImport run(CibilImport cibilImport) {
+        cibilImport.setStartedAt(LocalDateTime.now());
+        cibilImport.setFinishedAt(null);
+        cibilImport = cibilImportRepository.save(cibilImport);
+
+        Checkpoint checkpoint = new Checkpoint(cibilImport);
+        Semaphore inFlight = new Semaphore(partitions * 2);
+        long skip = cibilImport.getCheckpointLine();
+        CibilImport.Format format = cibilImport.getFormat();
+        try (BufferedReader reader = Files.newBufferedReader(resolve(cibilImport.getFileName()), StandardCharsets.UTF_8)) {
+            if (BureauFileParser.hasHeader(format)) {
+                reader.readLine();
+            }
+            List<String> lines = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            int sequence = 0;
+            String line;
+            while (checkpoint.failure.get() == null && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= skip) {
+                    continue;
+                }
+                lines.add(line);
+                if (lines.size() == chunkSize) {
+                    dispatch(new Chunk(sequence++, lineNumber, lines, format), checkpoint, inFlight);
+                    lines = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!lines.isEmpty() && checkpoint.failure.get() == null) {
+                dispatch(new Chunk(sequence, lineNumber, lines, format), checkpoint, inFlight);
+            }
+        } catch (IOException | RuntimeException e) {
+            checkpoint.failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            checkpoint.failure.compareAndSet(null, e);
+        }
+        // Wait for the chunks still in flight
+        inFlight.acquireUninterruptibly(partitions * 2);
+        return checkpoint.finish();
+    }
+
+    private void dispatch(Chunk chunk, Checkpoint checkpoint, Semaphore inFlight) throws InterruptedException {
+        // Bounds how far the reader runs ahead of the writers, so memory stays flat on large files
+        inFlight.acquire();
+        workers.execute(() -> {
+            try {
+                if (checkpoint.failure.get() == null) {
+                    checkpoint.complete(chunk, process(chunk));
+                }
+            } catch (RuntimeException e) {
+                checkpoint.failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private ChunkResult process(Chunk chunk) {
+        ChunkResult result = new ChunkResult();
+        List<BureauRecord> records = new ArrayList<>(chunk.lines.size());
+        for (String line : chunk.lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            result.read++;
+            try {
+                records.add(BureauFileParser.parse(line, chunk.format));
+            } catch (IllegalArgumentException e) {
+                result.rejected++;
+            }
+        }
+
+        List<String> emails = new ArrayList<>();
+        List<UUID> userIds = new ArrayList<>();
+        for (BureauRecord record : records) {
+            if (record.getUserId() == null) {
+                emails.add(record.getEmail());
+            } else {
+                userIds.add(record.getUserId());
+            }
+        }
+        Map<String, UUID> idsByEmail = cibilScoreJdbcRepository.findUserIdsByEmail(emails);
+        Set<UUID> knownIds = cibilScoreJdbcRepository.findExistingUserIds(userIds);
+
+        // Last line wins when a borrower appears twice in the same chunk
+        Map<UUID, BureauRecord> matched = new LinkedHashMap<>();
+        for (BureauRecord record : records) {
+            UUID userId = record.getUserId() != null ? record.getUserId() : idsByEmail.get(record.getEmail());
+            if (userId == null || (record.getUserId() != null && !knownIds.contains(userId))) {
+                result.unmatched++;
+                continue;
+            }
+            record.setUserId(userId);
+            matched.put(userId, record);
+        }
+
+        List<BureauRecord> rows = new ArrayList<>(matched.values());
+        try {
+            result.upserted = upsert(rows);
+        } catch (DuplicateKeyException e) {
+            // Another partition inserted one of these borrowers first; the retry updates it instead
+            result.upserted = upsert(rows);
+        }
+
+        Cache cache = cacheManager.getCache(CibilService.CACHE);
+        if (cache != null) {
+            for (UUID userId : matched.keySet()) {
+                cache.evict(userId);
+            }
+        }
+        return result;
+    }
+
+    private int upsert(List<BureauRecord> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        return transactionTemplate.execute(status -> cibilScoreJdbcRepository.upsert(rows));
+    }
+
+    private Path resolve(String fileName) {
+        Path root = Paths.get(directory).toAbsolutePath().normalize();
+        Path file = root.resolve(fileName).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No such bureau file: " + fileName);
+        }
+        return file;
+    }
+
+    private static final class Chunk {
+        final int sequence;
+        final long lastLine;
+        final List<String> lines;
+        final CibilImport.Format format;
+
+        Chunk(int sequence, long lastLine, List<String> lines, CibilImport.Format format) {
+            this.sequence = sequence;
+            this.lastLine = lastLine;
+            this.lines = lines;
+            this.format = format;
+        }
+    }
+
+    private static final class ChunkResult {
+        long read;
+        long upserted;
+        long unmatched;
+        long rejected;
+        long lastLine;
+    }
+
+    /**
+     * Collects chunk results and advances the persisted checkpoint over the
+     * contiguous prefix of finished chunks. Counts are only added to the import
+     * with the checkpoint, so a resumed run does not count a chunk twice.
+     */
+    private final class Checkpoint {
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        // Not synchronized: both methods save while holding the lock, which would pin a virtual thread
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Integer, ChunkResult> finished = new HashMap<>();
+        private final long startNanos = System.nanoTime();
+        private final long rowsAtStart;
+        private CibilImport cibilImport;
+        private int next = 0;
+
+        Checkpoint(CibilImport cibilImport) {
+            this.cibilImport = cibilImport;
+            this.rowsAtStart = cibilImport.getRowsRead();
+        }
+
+        void complete(Chunk chunk, ChunkResult result) {
+            lock.lock();
+            try {
+                result.lastLine = chunk.lastLine;
+                finished.put(chunk.sequence, result);
+                boolean advanced = false;
+                ChunkResult done;
+                while ((done = finished.remove(next)) != null) {
+                    cibilImport.setRowsRead(cibilImport.getRowsRead() + done.read);
+                    cibilImport.setRowsUpserted(cibilImport.getRowsUpserted() + done.upserted);
+                    cibilImport.setRowsUnmatched(cibilImport.getRowsUnmatched() + done.unmatched);
+                    cibilImport.setRowsRejected(cibilImport.getRowsRejected() + done.rejected);
+                    cibilImport.setCheckpointLine(done.lastLine);
+                    rowsUpserted.increment(done.upserted);
+                    rowsUnmatched.increment(done.unmatched);
+                    rowsRejected.increment(done.rejected);
+                    next++;
+                    advanced = true;
+                }
+                if (advanced) {
+                    cibilImport.setRowsPerSecond(throughput());
+                    if (cibilImportRepository.checkpoint(cibilImport, nodeIdentity.getId(), LocalDateTime.now()) == 0) {
+                        failure.compareAndSet(null, new IllegalStateException(
+                                "CIBIL import " + cibilImport.getId() + " is no longer running on this node"));
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        CibilImport finish() {
+            lock.lock();
+            try {
+                Exception e = failure.get();
+                cibilImport.setStatus(e == null ? CibilImport.Status.COMPLETED : CibilImport.Status.FAILED);
+                cibilImport.setErrorMessage(e == null ? null : e.toString());
+                cibilImport.setRowsPerSecond(throughput());
+                cibilImport.setFinishedAt(LocalDateTime.now());
+                if (cibilImportRepository.finish(cibilImport, nodeIdentity.getId()) == 0) {
+                    logger.warn("CIBIL import {} stopped after line {}: it is no longer running on this node",
+                            cibilImport.getId(), cibilImport.getCheckpointLine());
+                    return cibilImportRepository.findById(cibilImport.getId()).orElseThrow();
+                }
+                if (e == null) {
+                    logger.info("CIBIL import {} finished: {} rows, {} upserted, {} unmatched, {} rejected ({} rows/s)",
+                            cibilImport.getId(), cibilImport.getRowsRead(), cibilImport.getRowsUpserted(),
+                            cibilImport.getRowsUnmatched(), cibilImport.getRowsRejected(), Math.round(cibilImport.getRowsPerSecond()));
+                } else {
+                    logger.error("CIBIL import {} failed after line {}", cibilImport.getId(), cibilImport.getCheckpointLine(), e);
+                }
+                return cibilImport;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private double throughput() {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            return seconds > 0 ? (cibilImport.getRowsRead() - rowsAtStart) / seconds : 0;
+        }
+    }
+
+    // Daemon threads: an import cut short by shutdown is swept to INTERRUPTED and resumed from its checkpoint
+    private static ThreadFactory threads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,29 +1,71 @@
 package com.Loan.service;
 
+import com.Loan.dto.CibilScoreDTO;
 import com.Loan.entity.CibilScore;
 import com.Loan.repository.CibilScoreRepository;
+import com.Loan.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Scores are read on every dashboard load but change rarely, so reads go through
+ * the {@code cibilScores} cache (bounds and TTL in {@code spring.cache.caffeine.spec},
+ * or the shared store in {@link CibilCacheConfig}), which holds a {@link CibilScoreDTO}
+ * rather than the entity and its User. Every write here evicts the user's entry;
+ * {@link CibilImportService} upserts scores through JDBC and evicts the entries of
+ * the users in each chunk it writes.
+ */
 @Service
 public class CibilService {
 
+    public static final String CACHE = "cibilScores";
+
     @Autowired
     private CibilScoreRepository cibilScoreRepository;
 
-    public Optional<CibilScore> getCibilScoreByUserId(UUID userId) {
-        return cibilScoreRepository.findByUserId(userId);
+    @Autowired
+    private UserRepository userRepository;
+
+    // Missing scores are not cached
+    @Cacheable(cacheNames = CACHE, key = "#userId", unless = "#result == null")
+    public Optional<CibilScoreDTO> getCibilScoreByUserId(UUID userId) {
+        return cibilScoreRepository.findByUserId(userId).map(score -> new CibilScoreDTO(userId, score.getScore(),
+                score.getLastUpdated(), new CibilScoreDTO.CibilFactors(score.getPaymentHistory(),
+                score.getCreditUtilization(), score.getCreditAge(), score.getCreditMix(), score.getRecentInquiries())));
     }
 
-    public CibilScore updateScore(CibilScore score) {
-        return cibilScoreRepository.save(score);
+    /**
+     * Overwrites the user's score with the values in {@code score}; its id and user
+     * are ignored, so only this user's row (and cache entry) can change.
+     *
+     * @throws java.util.NoSuchElementException if the user has no score yet
+     */
+    @CacheEvict(cacheNames = CACHE, key = "#userId")
+    public CibilScore updateScore(UUID userId, CibilScore score) {
+        CibilScore existing = cibilScoreRepository.findByUserId(userId).orElseThrow();
+        existing.setScore(score.getScore());
+        existing.setPaymentHistory(score.getPaymentHistory());
+        existing.setCreditUtilization(score.getCreditUtilization());
+        existing.setCreditAge(score.getCreditAge());
+        existing.setCreditMix(score.getCreditMix());
+        existing.setRecentInquiries(score.getRecentInquiries());
+        existing.setLastUpdated(LocalDateTime.now());
+        return cibilScoreRepository.save(existing);
     }
 
-    public CibilScore createCibilScore(CibilScore score) {
-        score.setLastUpdated(java.time.LocalDateTime.now());
+    /**
+     * @throws java.util.NoSuchElementException if there is no such user
+     */
+    @CacheEvict(cacheNames = CACHE, key = "#userId")
+    public CibilScore createCibilScore(UUID userId, CibilScore score) {
+        score.setUser(userRepository.findById(userId).orElseThrow());
+        score.setLastUpdated(LocalDateTime.now());
         return cibilScoreRepository.save(score);
     }
 }
@@ -0,0 +1,311 @@
+package com.Loan.service;
+
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory dashboard counters. Seeded once from the aggregate queries when the
+ * application is ready, then kept current by the loan, payment and user write
+ * paths applying deltas. A delta made inside a transaction is applied only once
+ * that transaction commits, so a rollback (or a retried attempt) leaves the counters
+ * alone. A scheduled reconciliation re-reads the database, publishes any drift as a
+ * gauge and resets the counters to the database values.
+ * <p>
+ * Reconciliation holds the write side of {@link #reconcileLock} while it reads and
+ * resets. A transaction holds the read side from just before it commits until its
+ * deltas are applied, so reconciliation never reads a commit whose delta is still to
+ * come, nor overwrites a delta that landed after its read.
+ */
+@Component
+public class DashboardCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardCounters.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLongArray loansByStatus = new AtomicLongArray(Loan.LoanStatus.values().length);
+    private final AtomicLongArray loansByType = new AtomicLongArray(Loan.LoanType.values().length);
+    private final AtomicLongArray paymentsByStatus = new AtomicLongArray(Payment.PaymentStatus.values().length);
+    // Principal is tracked in paise so it can be adjusted atomically without floating point drift
+    private final AtomicLong principalPaise = new AtomicLong();
+
+    private final ReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong lastDrift = new AtomicLong();
+    private final AtomicLong lastPrincipalDriftPaise = new AtomicLong();
+    private Counter reconciliations;
+    private volatile boolean seeded = false;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("dashboard.counters.drift", lastDrift, AtomicLong::get)
+                .description("Sum of count differences between the counters and the database at the last reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("dashboard.counters.principal.drift", lastPrincipalDriftPaise, drift -> drift.get() / 100.0)
+                .description("Difference in total disbursed principal at the last reconciliation")
+                .register(meterRegistry);
+        reconciliations = Counter.builder("dashboard.counters.reconciliations").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+        seeded = true;
+        logger.info("Dashboard counters seeded: {} users, {} loans", users.get(), totalLoans());
+    }
+
+    @Scheduled(fixedDelayString = "${loan.stats.reconcile-interval:PT5M}", initialDelayString = "${loan.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        Lock lock = reconcileLock.writeLock();
+        lock.lock();
+        try {
+            resetToDatabase();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resetToDatabase() {
+        long drift = 0;
+
+        long userCount = userRepository.count();
+        drift += Math.abs(userCount - users.getAndSet(userCount));
+
+        long[] statusCounts = new long[loansByStatus.length()];
+        long paise = 0;
+        for (LoanRepository.StatusTotals totals : loanRepository.sumByStatus()) {
+            statusCounts[totals.getStatus().ordinal()] = totals.getCount();
+            paise += toPaise(totals.getPrincipal());
+        }
+        drift += resetTo(loansByStatus, statusCounts);
+        long principalDrift = Math.abs(paise - principalPaise.getAndSet(paise));
+
+        long[] typeCounts = new long[loansByType.length()];
+        for (LoanRepository.TypeCount typeCount : loanRepository.countByLoanType()) {
+            typeCounts[typeCount.getLoanType().ordinal()] = typeCount.getCount();
+        }
+        drift += resetTo(loansByType, typeCounts);
+
+        long[] paymentCounts = new long[paymentsByStatus.length()];
+        for (PaymentRepository.StatusCount statusCount : paymentRepository.countByStatus()) {
+            paymentCounts[statusCount.getStatus().ordinal()] = statusCount.getCount();
+        }
+        drift += resetTo(paymentsByStatus, paymentCounts);
+
+        lastDrift.set(drift);
+        lastPrincipalDriftPaise.set(principalDrift);
+        reconciliations.increment();
+        if (seeded && (drift > 0 || principalDrift > 0)) {
+            logger.warn("Dashboard counters drifted from the database (counts {}, principal {} paise); counters reset",
+                    drift, principalDrift);
+        }
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public long getLastDrift() {
+        return lastDrift.get();
+    }
+
+    // --- Write path deltas ---
+
+    public void userRegistered() {
+        afterCommit(users::incrementAndGet);
+    }
+
+    public void loanCreated(Loan loan) {
+        int status = loan.getStatus().ordinal();
+        int type = loan.getLoanType().ordinal();
+        long paise = toPaise(loan.getPrincipal());
+        afterCommit(() -> {
+            loansByStatus.incrementAndGet(status);
+            loansByType.incrementAndGet(type);
+            principalPaise.addAndGet(paise);
+        });
+    }
+
+    public void loanStatusChanged(Loan.LoanStatus from, Loan.LoanStatus to) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(() -> {
+            loansByStatus.decrementAndGet(from.ordinal());
+            loansByStatus.incrementAndGet(to.ordinal());
+        });
+    }
+
+    /**
+     * A loan was deleted together with its payments, {@code payments} being how many of
+     * them were in each status.
+     */
+    public void loanDeleted(Loan loan, List<PaymentRepository.StatusCount> payments) {
+        int status = loan.getStatus().ordinal();
+        int type = loan.getLoanType().ordinal();
+        long paise = toPaise(loan.getPrincipal());
+        afterCommit(() -> {
+            loansByStatus.decrementAndGet(status);
+            loansByType.decrementAndGet(type);
+            principalPaise.addAndGet(-paise);
+            for (PaymentRepository.StatusCount count : payments) {
+                paymentsByStatus.addAndGet(count.getStatus().ordinal(), -count.getCount());
+            }
+        });
+    }
+
+    public void paymentCreated(Payment.PaymentStatus status) {
+        paymentsCreated(status, 1);
+    }
+
+    public void paymentsCreated(Payment.PaymentStatus status, int count) {
+        afterCommit(() -> paymentsByStatus.addAndGet(status.ordinal(), count));
+    }
+
+    public void paymentStatusChanged(Payment.PaymentStatus from, Payment.PaymentStatus to) {
+        paymentsStatusChanged(from, to, 1);
+    }
+
+    public void paymentsStatusChanged(Payment.PaymentStatus from, Payment.PaymentStatus to, int count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            paymentsByStatus.addAndGet(from.ordinal(), -count);
+            paymentsByStatus.addAndGet(to.ordinal(), count);
+        });
+    }
+
+    // Outside a transaction the write has already happened, so the delta applies at once
+    private void afterCommit(Runnable delta) {
+        Lock lock = reconcileLock.readLock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.lock();
+            try {
+                delta.run();
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                lock.lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                delta.run();
+            }
+
+            // Also runs after a failed commit, and after a rollback, which never took the lock
+            @Override
+            public void afterCompletion(int status) {
+                if (locked) {
+                    locked = false;
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    // --- O(1) reads in the same shape as DashboardStatsService ---
+
+    public Map<String, Object> getDashboardStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalUsers", users.get());
+        stats.put("activeLoans", loansByStatus.get(Loan.LoanStatus.ACTIVE.ordinal()));
+        stats.put("pendingLoans", loansByStatus.get(Loan.LoanStatus.PENDING.ordinal()));
+        stats.put("rejectedLoans", loansByStatus.get(Loan.LoanStatus.REJECTED.ordinal())
+                + loansByStatus.get(Loan.LoanStatus.DEFAULTED.ordinal()));
+        stats.put("pendingPayments", paymentsByStatus.get(Payment.PaymentStatus.PENDING.ordinal())
+                + paymentsByStatus.get(Payment.PaymentStatus.OVERDUE.ordinal()));
+        stats.put("totalDisbursed", BigDecimal.valueOf(principalPaise.get(), 2).doubleValue());
+
+        // Add total counts for percentage calculations
+        stats.put("totalLoans", totalLoans());
+        stats.put("totalPayments", sum(paymentsByStatus));
+        return stats;
+    }
+
+    public List<Map<String, Object>> getLoanDistribution() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Loan.LoanType loanType : Loan.LoanType.values()) {
+            long count = loansByType.get(loanType.ordinal());
+            if (count > 0) {
+                Map<String, Object> map = new HashMap<>();
+                map.put("name", loanType.name());
+                map.put("value", count);
+                result.add(map);
+            }
+        }
+        return result;
+    }
+
+    private long totalLoans() {
+        return sum(loansByStatus);
+    }
+
+    private static long sum(AtomicLongArray counts) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    private static long resetTo(AtomicLongArray counts, long[] actual) {
+        long drift = 0;
+        for (int i = 0; i < actual.length; i++) {
+            drift += Math.abs(actual[i] - counts.getAndSet(i, actual[i]));
+        }
+        return drift;
+    }
+
+    private static long toPaise(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+}
@@ -0,0 +1,118 @@
+package com.Loan.service;
+
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers the admin dashboard from grouped aggregate queries, so each call costs
+ * one statement per table regardless of how many loans or payments exist.
+ */
+@Service
+public class DashboardStatsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDashboardStats() {
+        long totalUsers = userRepository.count();
+
+        long activeLoans = 0;
+        long pendingLoans = 0;
+        long rejectedLoans = 0;
+        long totalLoans = 0;
+        BigDecimal totalDisbursed = BigDecimal.ZERO;
+        for (LoanRepository.StatusTotals totals : loanRepository.sumByStatus()) {
+            long count = totals.getCount();
+            totalLoans += count;
+            totalDisbursed = totalDisbursed.add(totals.getPrincipal());
+            switch (totals.getStatus()) {
+                case ACTIVE -> activeLoans += count;
+                case PENDING -> pendingLoans += count;
+                case REJECTED, DEFAULTED -> rejectedLoans += count;
+                default -> { }
+            }
+        }
+
+        long pendingPayments = 0;
+        long totalPayments = 0;
+        for (PaymentRepository.StatusCount totals : paymentRepository.countByStatus()) {
+            long count = totals.getCount();
+            totalPayments += count;
+            if (totals.getStatus() == Payment.PaymentStatus.PENDING || totals.getStatus() == Payment.PaymentStatus.OVERDUE) {
+                pendingPayments += count;
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalUsers", totalUsers);
+        stats.put("activeLoans", activeLoans);
+        stats.put("pendingLoans", pendingLoans);
+        stats.put("rejectedLoans", rejectedLoans);
+        stats.put("pendingPayments", pendingPayments);
+        stats.put("totalDisbursed", totalDisbursed.doubleValue());
+
+        // Add total counts for percentage calculations
+        stats.put("totalLoans", totalLoans);
+        stats.put("totalPayments", totalPayments);
+        return stats;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getLoanDistribution() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (LoanRepository.TypeCount typeCount : loanRepository.countByLoanType()) {
+            Loan.LoanType loanType = typeCount.getLoanType();
+            Map<String, Object> map = new HashMap<>();
+            map.put("name", loanType.name());
+            map.put("value", typeCount.getCount());
+            result.add(map);
+        }
+        return result;
+    }
+
+    /**
+     * Principal disbursed in each of the last {@code months} calendar months, oldest
+     * first, labelled by short month name. Months without loans are reported as 0.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getDisbursementTrends(LocalDate today, int months) {
+        YearMonth current = YearMonth.from(today);
+        YearMonth first = current.minusMonths(months - 1);
+        Map<YearMonth, BigDecimal> totals = new HashMap<>();
+        for (LoanRepository.MonthTotal total : loanRepository.sumPrincipalByMonth(first.atDay(1), current.plusMonths(1).atDay(1))) {
+            totals.put(YearMonth.of(total.getYear(), total.getMonth()), total.getPrincipal());
+        }
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM");
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("month", month.format(formatter));
+            map.put("amount", totals.getOrDefault(month, BigDecimal.ZERO).doubleValue());
+            result.add(map);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,214 @@
+package com.Loan.service;
+
+import com.Loan.dto.StoredDocument;
+import com.Loan.dto.StoredFileDTO;
+import com.Loan.entity.StoredFile;
+import com.Loan.repository.StoredFileRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metadata for stored documents, kept in {@code stored_files} so the admin listing is an
+ * indexed, paginated query instead of a directory walk with a stat per file.
+ * <p>
+ * Rows are written at upload time. Because the file is written first, a crash in
+ * between leaves a file without a row; the reconciler walks the storage directory on
+ * {@code loan.documents.reconcile-interval}, adds such files as ORPHANED, marks rows
+ * whose file has disappeared MISSING, and exposes both counts as gauges.
+ */
+@Service
+public class DocumentCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentCatalogService.class);
+    private static final Set<String> SORTABLE = Set.of("uploadedAt", "size", "originalFilename");
+    // Uploads are written to disk just before their row; don't mistake one in flight for an orphan
+    private static final Duration ORPHAN_GRACE = Duration.ofMinutes(5);
+    // Keeps IN lists well below database parameter limits
+    private static final int UPDATE_BATCH = 500;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong orphaned = new AtomicLong();
+    private final AtomicLong missing = new AtomicLong();
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("documents.catalog.orphaned", orphaned, AtomicLong::get)
+                .description("Stored files with no upload record, as of the last reconcile")
+                .register(meterRegistry);
+        Gauge.builder("documents.catalog.missing", missing, AtomicLong::get)
+                .description("Upload records whose file is gone, as of the last reconcile")
+                .register(meterRegistry);
+    }
+
+    public StoredFile catalog(StoredDocument document, UUID loanId, UUID userId) {
+        StoredFile file = new StoredFile();
+        file.setName(document.getName());
+        file.setContentHash(document.getName());
+        file.setOriginalFilename(document.getOriginalFilename());
+        file.setSize(document.getSize());
+        file.setLoanId(loanId);
+        file.setUserId(userId);
+        file.setUploadedAt(LocalDateTime.now());
+        file.setStatus(StoredFile.Status.PRESENT);
+        return storedFileRepository.save(file);
+    }
+
+    /**
+     * @param sort one of uploadedAt, size or originalFilename
+     * @throws IllegalArgumentException for any other sort property
+     */
+    public List<StoredFileDTO> list(String sort, Sort.Direction direction, int page, int size) {
+        if (!SORTABLE.contains(sort)) {
+            throw new IllegalArgumentException("Cannot sort files by " + sort);
+        }
+        PageRequest request = PageRequest.of(page, size, Sort.by(direction, sort, "id"));
+        return storedFileRepository.findBy(request).stream().map(DocumentCatalogService::toDto).toList();
+    }
+
+    /**
+     * The documents uploaded by or for a user, newest first.
+     */
+    public List<StoredFileDTO> listForUser(UUID userId, int limit) {
+        return storedFileRepository.findByUserIdOrderByUploadedAtDesc(userId, Limit.of(limit)).stream()
+                .map(DocumentCatalogService::toDto).toList();
+    }
+
+    public boolean isOwner(String name, UUID userId) {
+        return storedFileRepository.existsByNameAndUserId(name, userId);
+    }
+
+    /**
+     * Deletes one catalog row, and its file once no other row names it: identical
+     * uploads share a file, so the other uploads of the same content stay readable.
+     * An identical upload racing the delete can lose its file; the reconciler then
+     * reports its row MISSING.
+     *
+     * @return false if there was no such row
+     */
+    public boolean delete(UUID id) throws IOException {
+        StoredFile file = storedFileRepository.findById(id).orElse(null);
+        if (file == null) {
+            return false;
+        }
+        storedFileRepository.delete(file);
+        if (!storedFileRepository.existsByName(file.getName())) {
+            documentStorageService.delete(file.getName());
+        }
+        return true;
+    }
+
+    /**
+     * Deletes the file of an upload that will not be cataloged after all, e.g. because
+     * the loan decision it came with failed, unless a row already names the same
+     * content. A failure is only logged; the reconciler will report the file ORPHANED.
+     */
+    public void discard(StoredDocument document) {
+        try {
+            if (!storedFileRepository.existsByName(document.getName())) {
+                documentStorageService.delete(document.getName());
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not discard uploaded file {}", document.getName(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${loan.documents.reconcile-interval:PT1H}", initialDelayString = "${loan.documents.reconcile-interval:PT1H}")
+    public void reconcile() {
+        try {
+            Map<String, Path> onDisk = new HashMap<>();
+            for (Path path : documentStorageService.list()) {
+                onDisk.put(path.getFileName().toString(), path);
+            }
+            Set<String> cataloged = new HashSet<>(storedFileRepository.findAllNames());
+            Set<String> missingBefore = new HashSet<>(storedFileRepository.findNamesByStatus(StoredFile.Status.MISSING));
+            LocalDateTime now = LocalDateTime.now();
+
+            Instant graceStart = Instant.now().minus(ORPHAN_GRACE);
+            List<StoredFile> orphans = new ArrayList<>();
+            for (Map.Entry<String, Path> entry : onDisk.entrySet()) {
+                if (!cataloged.contains(entry.getKey())
+                        && Files.getLastModifiedTime(entry.getValue()).toInstant().isBefore(graceStart)) {
+                    orphans.add(orphan(entry.getKey(), entry.getValue(), now));
+                }
+            }
+            storedFileRepository.saveAll(orphans);
+
+            List<String> gone = new ArrayList<>();
+            List<String> found = new ArrayList<>();
+            for (String name : cataloged) {
+                boolean wasMissing = missingBefore.contains(name);
+                if (!onDisk.containsKey(name) && !wasMissing) {
+                    gone.add(name);
+                } else if (onDisk.containsKey(name) && wasMissing) {
+                    found.add(name);
+                }
+            }
+            for (int i = 0; i < gone.size(); i += UPDATE_BATCH) {
+                storedFileRepository.markMissing(gone.subList(i, Math.min(i + UPDATE_BATCH, gone.size())), now);
+            }
+            for (int i = 0; i < found.size(); i += UPDATE_BATCH) {
+                storedFileRepository.markFound(found.subList(i, Math.min(i + UPDATE_BATCH, found.size())), now);
+            }
+
+            orphaned.set(storedFileRepository.countByStatus(StoredFile.Status.ORPHANED));
+            missing.set(storedFileRepository.countByStatus(StoredFile.Status.MISSING));
+            if (!orphans.isEmpty() || !gone.isEmpty()) {
+                logger.warn("Document catalog reconciled: {} new orphaned files, {} files missing from disk, {} restored",
+                        orphans.size(), gone.size(), found.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Document catalog reconcile failed", e);
+        }
+    }
+
+    private static StoredFile orphan(String name, Path path, LocalDateTime now) throws IOException {
+        StoredFile file = new StoredFile();
+        file.setName(name);
+        file.setContentHash(DocumentStorageService.isContentHash(name) ? name : null);
+        file.setOriginalFilename(name);
+        file.setSize(Files.size(path));
+        file.setUploadedAt(LocalDateTime.ofInstant(Files.getLastModifiedTime(path).toInstant(), ZoneId.systemDefault()));
+        file.setStatus(StoredFile.Status.ORPHANED);
+        file.setCheckedAt(now);
+        return file;
+    }
+
+    private static StoredFileDTO toDto(StoredFile file) {
+        Instant uploaded = file.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant();
+        return new StoredFileDTO(file.getId(), file.getName(), file.getOriginalFilename(), file.getSize(), uploaded.toEpochMilli(),
+                file.getLoanId(), file.getUserId(), file.getUploadedAt(), file.getStatus().name());
+    }
+}
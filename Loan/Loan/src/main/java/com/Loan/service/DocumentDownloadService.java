@@ -0,0 +1,188 @@
+package com.Loan.service;
+
+import com.Loan.entity.StoredFile;
+import com.Loan.repository.StoredFileRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves stored documents with conditional GET and single byte ranges.
+ * <p>
+ * Content-addressed documents get a strong ETag (their hash) and may be cached
+ * indefinitely; legacy flat files get a weak ETag from size and modification time. The
+ * body is handed to Tomcat's sendfile when the connector supports it, so the bytes go
+ * from the page cache to the socket without passing through the JVM; otherwise it is
+ * copied with {@link FileChannel#transferTo}. Requests for several ranges are answered
+ * with the whole document, which HTTP allows.
+ */
+@Service
+public class DocumentDownloadService {
+
+    // Request attributes of Tomcat's sendfile support (as used by its DefaultServlet)
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Writes the document, or a 304/404/412/416 status, to the response. With sendfile
+     * the body is sent after this returns, so {@code documents.download.duration}
+     * covers the time to the hand-off.
+     */
+    public void serve(String name, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long start = System.nanoTime();
+        write(name, request, response);
+        Timer.builder("documents.download.duration")
+                .tag("status", String.valueOf(response.getStatus()))
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void write(String name, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = documentStorageService.resolve(name);
+        if (file == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        boolean immutable = DocumentStorageService.isContentHash(name);
+        String etag = immutable ? "\"" + name + "\"" : "W/\"" + length + "-" + lastModified + "\"";
+
+        // Sets ETag and Last-Modified, and answers If-None-Match / If-Modified-Since with 304
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? "private, max-age=31536000, immutable" : "private, no-cache");
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(downloadName(name, immutable)).build().toString());
+
+        long from = 0;
+        long to = length - 1;
+        HttpRange range = singleRange(request, etag, lastModified);
+        if (range != null) {
+            try {
+                from = range.getRangeStart(length);
+                to = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                from = length;
+            }
+            if (from >= length || from > to) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + from + "-" + to + "/" + length);
+        }
+
+        long count = to - from + 1;
+        response.setContentLengthLong(count);
+        if (count == 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, from);
+            request.setAttribute(SENDFILE_END, to + 1);
+            recordBytes("sendfile", count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = from;
+            while (position <= to) {
+                position += channel.transferTo(position, to + 1 - position, out);
+            }
+        }
+        recordBytes("channel", count);
+    }
+
+    /**
+     * The uploaded file name for a content-addressed document, which is stored under its
+     * hash; a legacy flat file is already stored under its own name.
+     */
+    private String downloadName(String name, boolean contentHash) {
+        if (!contentHash) {
+            return name;
+        }
+        return storedFileRepository.findFirstByNameOrderByUploadedAtAsc(name)
+                .map(StoredFile::getOriginalFilename)
+                .orElse(name);
+    }
+
+    /**
+     * @return the requested range, or null to send the whole document
+     */
+    private static HttpRange singleRange(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || !ifRangeMatches(request, etag, lastModified)) {
+            return null;
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            // A malformed Range header is ignored rather than rejected
+            return null;
+        }
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range needs a strong match; a weak ETag never qualifies
+            return !etag.startsWith("W/") && ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void recordBytes(String transfer, long count) {
+        DistributionSummary.builder("documents.download.bytes")
+                .baseUnit("bytes")
+                .tag("transfer", transfer)
+                .register(meterRegistry)
+                .record(count);
+    }
+}
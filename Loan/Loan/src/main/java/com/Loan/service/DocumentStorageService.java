@@ -0,0 +1,139 @@
+package com.Loan.service;
+
+import com.Loan.dto.StoredDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores uploaded loan documents under {@code loan.documents.directory}.
+ * <p>
+ * Uploads are streamed to a temporary file while their SHA-256 is computed, then moved
+ * to {@code <directory>/<h0h1>/<h2h3>/<hash>}. Two levels of 256 shards keep every
+ * directory small however many documents accumulate, and identical uploads land on the
+ * same file. Files written flat into the directory before sharding are still served by
+ * their old name.
+ */
+@Service
+public class DocumentStorageService {
+
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final String TEMP_DIRECTORY = ".incoming";
+    private static final long TRANSFER_CHUNK = 1 << 20;
+
+    @Value("${loan.documents.directory:uploads}")
+    private String directory;
+
+    public StoredDocument store(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return store(in, file.getOriginalFilename());
+        }
+    }
+
+    public StoredDocument store(InputStream in, String originalFilename) throws IOException {
+        Path root = root();
+        Path incoming = Files.createDirectories(root.resolve(TEMP_DIRECTORY));
+        Path temp = Files.createTempFile(incoming, "upload", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(in, digest));
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long transferred;
+                while ((transferred = target.transferFrom(source, size, TRANSFER_CHUNK)) > 0) {
+                    size += transferred;
+                }
+            }
+
+            String name = HexFormat.of().formatHex(digest.digest());
+            Path path = shardPath(root, name);
+            Files.createDirectories(path.getParent());
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content already stored
+            }
+            return new StoredDocument(name, path, size, originalFilename);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static boolean isContentHash(String name) {
+        return CONTENT_HASH.matcher(name).matches();
+    }
+
+    /**
+     * @return the stored file for a content hash or a legacy flat file name, or null if there is none
+     */
+    public Path resolve(String name) {
+        Path root = root();
+        Path path;
+        if (isContentHash(name)) {
+            path = shardPath(root, name);
+        } else {
+            path = root.resolve(name).normalize();
+            // Legacy names come from the URL; only plain files directly under the root qualify
+            if (!root.equals(path.getParent())) {
+                return null;
+            }
+        }
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /**
+     * Every stored file, sharded and legacy.
+     */
+    public List<Path> list() throws IOException {
+        Path root = root();
+        if (!Files.exists(root)) {
+            return List.of();
+        }
+        Path incoming = root.resolve(TEMP_DIRECTORY);
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            return files.filter(path -> !path.startsWith(incoming))
+                    .filter(Files::isRegularFile)
+                    .toList();
+        }
+    }
+
+    public boolean delete(String name) throws IOException {
+        Path path = resolve(name);
+        return path != null && Files.deleteIfExists(path);
+    }
+
+    private Path root() {
+        return Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    private static Path shardPath(Path root, String name) {
+        return root.resolve(name.substring(0, 2)).resolve(name.substring(2, 4)).resolve(name);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
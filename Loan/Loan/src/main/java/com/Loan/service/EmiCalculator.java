@@ -0,0 +1,17 @@
+package com.Loan.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Computes the equated monthly instalment EMI = [P x R x (1+R)^N]/[(1+R)^N-1],
+ * where R is the annual rate divided by 1200 and rounded to 10 decimal places.
+ * Results are rounded HALF_UP to the paisa.
+ */
+public interface EmiCalculator {
+
+    BigDecimal calculateEmi(BigDecimal principal, BigDecimal annualRate, int months);
+
+    static BigDecimal monthlyRate(BigDecimal annualRate) {
+        return annualRate.divide(BigDecimal.valueOf(1200), 10, java.math.RoundingMode.HALF_UP);
+    }
+}
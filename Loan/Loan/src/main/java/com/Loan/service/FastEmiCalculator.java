@@ -0,0 +1,44 @@
+package com.Loan.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * EMI in double arithmetic. The result is only trusted when it is clear of a
+ * half-paisa rounding boundary by more than the accumulated floating point
+ * error; anything closer, or outside the range the error bound was checked for,
+ * falls back to {@link BigDecimalEmiCalculator}.
+ */
+@Component
+@ConditionalOnProperty(name = "loan.emi.calculator", havingValue = "fast", matchIfMissing = true)
+public class FastEmiCalculator implements EmiCalculator {
+
+    // Principal above this (10,000 crore) is rare enough to always take the exact path
+    private static final double MAX_FAST_PRINCIPAL = 1e11;
+    // Relative error allowance for Math.pow over up to a few thousand periods plus the surrounding arithmetic
+    private static final double RELATIVE_ERROR = 1e-11;
+
+    private final BigDecimalEmiCalculator exact = new BigDecimalEmiCalculator();
+
+    @Override
+    public BigDecimal calculateEmi(BigDecimal principal, BigDecimal annualRate, int months) {
+        double p = principal.doubleValue();
+        // The rate is rounded exactly as the BigDecimal path does before leaving decimal arithmetic
+        double r = EmiCalculator.monthlyRate(annualRate).doubleValue();
+        if (r <= 0 || months <= 0 || p > MAX_FAST_PRINCIPAL || months > 1200) {
+            return exact.calculateEmi(principal, annualRate, months);
+        }
+
+        double onePlusPowerN = Math.pow(1 + r, months);
+        double paise = p * r * onePlusPowerN / (onePlusPowerN - 1) * 100;
+
+        // Only the half-paisa boundary changes the HALF_UP result, so only that needs a guard band
+        double fraction = paise - Math.floor(paise);
+        if (Math.abs(fraction - 0.5) <= Math.max(paise * RELATIVE_ERROR, 1e-6)) {
+            return exact.calculateEmi(principal, annualRate, months);
+        }
+        return BigDecimal.valueOf(Math.round(paise), 2);
+    }
+}
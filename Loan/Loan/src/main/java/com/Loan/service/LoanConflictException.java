@@ -0,0 +1,17 @@
+package com.Loan.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a loan update is not allowed from the loan's current state: the status
+ * change is not a legal transition, or the client edited a version that has since
+ * been changed by someone else. The client should reload the loan.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class LoanConflictException extends RuntimeException {
+
+    public LoanConflictException(String message) {
+        super(message);
+    }
+}
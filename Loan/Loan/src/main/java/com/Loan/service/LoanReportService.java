@@ -0,0 +1,98 @@
+package com.Loan.service;
+
+import com.Loan.dto.LoanReportRow;
+import com.Loan.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.stream.Stream;
+
+/**
+ * Writes the admin loan report as CSV straight to an output stream. Rows are read
+ * through a forward-only cursor and written as they arrive, so memory use does
+ * not depend on how many loans the report covers.
+ */
+@Service
+public class LoanReportService {
+
+    static final String HEADER = "Loan ID,User,Type,Principal,Status,Date\n";
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    /**
+     * @param period {@code YYYY-MM} for one month, {@code YYYY} for a year, or null/blank for every loan
+     * @throws java.time.format.DateTimeParseException if the period is not in either format
+     */
+    @Transactional(readOnly = true)
+    public void writeCsv(String period, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<LoanReportRow> rows = openRows(period)) {
+            writer.write(HEADER);
+            rows.forEach(row -> writeRow(writer, row));
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses the period up front so a bad value can be rejected before the response starts.
+     */
+    public LocalDate[] parsePeriod(String period) {
+        if (period == null || period.isBlank()) {
+            return null;
+        }
+        if (period.length() == 4) {
+            LocalDate from = Year.parse(period).atDay(1);
+            return new LocalDate[] { from, from.plusYears(1) };
+        }
+        LocalDate from = YearMonth.parse(period).atDay(1);
+        return new LocalDate[] { from, from.plusMonths(1) };
+    }
+
+    private Stream<LoanReportRow> openRows(String period) {
+        LocalDate[] range = parsePeriod(period);
+        return range == null
+                ? loanRepository.streamReportRows()
+                : loanRepository.streamReportRows(range[0], range[1]);
+    }
+
+    private static void writeRow(Writer writer, LoanReportRow row) {
+        try {
+            writer.write(String.valueOf(row.getLoanId()));
+            writer.write(',');
+            writer.write(escape(row.getUserName() != null ? row.getUserName() : "Unknown"));
+            writer.write(',');
+            writer.write(String.valueOf(row.getLoanType()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getPrincipal()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getStatus()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getStartDate()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Names are free text; quote them when they would otherwise break the column layout
+    private static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
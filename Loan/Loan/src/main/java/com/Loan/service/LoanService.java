@@ -1,17 +1,24 @@
 package com.Loan.service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.Loan.dto.InstallmentDTO;
+import com.Loan.dto.LoanDTO;
 import com.Loan.entity.Loan;
 import com.Loan.entity.User;
+import com.Loan.repository.ListingSpecifications;
 import com.Loan.repository.LoanRepository;
+import com.Loan.repository.PaymentRepository;
 import com.Loan.repository.UserRepository;
 
 @Service
@@ -23,8 +30,23 @@ public class LoanService {
     @Autowired
     private UserRepository userRepository;
 
-    public List<Loan> getLoansByUserId(UUID userId) {
-        return loanRepository.findByUserId(userId);
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private AmortizationService amortizationService;
+
+    @Autowired
+    private EmiCalculator emiCalculator;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    public List<LoanDTO> getLoansByUserId(UUID userId) {
+        return loanRepository.findDtosByUserId(userId);
     }
 
     public Loan applyForLoan(UUID userId, Loan loan) {
@@ -41,38 +63,61 @@ public class LoanService {
             loan.setEmi(calculateEmi(loan.getPrincipal(), loan.getInterestRate(), loan.getTenureMonths()));
         }
 
-        return loanRepository.save(loan);
+        Loan savedLoan = loanRepository.save(loan);
+        dashboardCounters.loanCreated(savedLoan);
+        return savedLoan;
     }
 
     private BigDecimal calculateEmi(BigDecimal principal, BigDecimal annualRate, Integer months) {
-        // EMI = [P x R x (1+R)^N]/[(1+R)^N-1]
-        BigDecimal monthlyRate = annualRate.divide(BigDecimal.valueOf(1200), 10, RoundingMode.HALF_UP);
-        BigDecimal onePlusPowerN = monthlyRate.add(BigDecimal.ONE).pow(months);
-        
-        BigDecimal numerator = principal.multiply(monthlyRate).multiply(onePlusPowerN);
-        BigDecimal denominator = onePlusPowerN.subtract(BigDecimal.ONE);
-        
-        return numerator.divide(denominator, 2, RoundingMode.HALF_UP);
+        return emiCalculator.calculateEmi(principal, annualRate, months);
     }
 
     public List<Loan> getAllLoans() {
         return loanRepository.findAll();
     }
 
+    public List<LoanDTO> getRecentLoans(int limit) {
+        return loanRepository.findRecentDtos(Limit.of(limit));
+    }
+
+    /**
+     * One keyset page of loans, newest first. Filters left null are not applied.
+     */
+    public Window<Loan> scrollLoans(Loan.LoanStatus status, Loan.LoanType loanType, LocalDate from, LocalDate to, String cursor, int size) {
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        return loanRepository.findBy(ListingSpecifications.loans(status, loanType, from, to),
+                query -> query.sortBy(KeysetCursor.SORT).limit(size).scroll(position));
+    }
+
     public Loan getLoanById(UUID id) {
         return loanRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Applies an edit from the loan form. A status change must be a legal transition
+     * (see {@link Loan.LoanStatus#next()}), and when the client sends the version it
+     * edited, the edit is refused if the loan has changed since.
+     *
+     * @throws LoanConflictException if the transition is illegal or the version is stale
+     */
     public Loan updateLoan(UUID id, Loan loanDetails) {
+        return optimisticRetry.inTransaction("loan.update", () -> applyUpdate(id, loanDetails));
+    }
+
+    private Loan applyUpdate(UUID id, Loan loanDetails) {
         Loan loan = loanRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Loan not found"));
+        if (loanDetails.getVersion() != null && !loanDetails.getVersion().equals(loan.getVersion())) {
+            throw new LoanConflictException("Loan " + id + " has changed since version " + loanDetails.getVersion());
+        }
+        Loan.LoanStatus previousStatus = loan.getStatus();
         
         if (loanDetails.getStatus() != null) {
+            transition(loan, loanDetails.getStatus());
             // If loan is being activated, update the start date to today
-            if (loanDetails.getStatus() == Loan.LoanStatus.ACTIVE && loan.getStatus() != Loan.LoanStatus.ACTIVE) {
+            if (loanDetails.getStatus() == Loan.LoanStatus.ACTIVE && previousStatus != Loan.LoanStatus.ACTIVE) {
                 loan.setStartDate(LocalDate.now());
             }
-            loan.setStatus(loanDetails.getStatus());
         }
         if (loanDetails.getOutstandingBalance() != null) {
             loan.setOutstandingBalance(loanDetails.getOutstandingBalance());
@@ -87,10 +132,74 @@ public class LoanService {
             loan.setUploadedFilePath(loanDetails.getUploadedFilePath());
         }
         
-        return loanRepository.save(loan);
+        return saveTransition(loan, previousStatus);
+    }
+
+    /**
+     * Applies an admin approve/reject decision. The loan is read here rather than
+     * mutated by the caller, so the previous status is still known when the
+     * transition is recorded. Repeating a decision already made is a no-op; reversing
+     * one is a conflict.
+     *
+     * @throws LoanConflictException if the loan is no longer awaiting this decision
+     */
+    public Loan decideLoan(UUID id, boolean approve, String rejectionReason, String uploadedFileName, String uploadedFilePath) {
+        return optimisticRetry.inTransaction("loan.decide",
+                () -> applyDecision(id, approve, rejectionReason, uploadedFileName, uploadedFilePath));
+    }
+
+    private Loan applyDecision(UUID id, boolean approve, String rejectionReason, String uploadedFileName, String uploadedFilePath) {
+        Loan loan = loanRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Loan not found"));
+        Loan.LoanStatus previousStatus = loan.getStatus();
+
+        if (approve) {
+            transition(loan, Loan.LoanStatus.ACTIVE);
+            if (previousStatus != Loan.LoanStatus.ACTIVE) {
+                loan.setStartDate(LocalDate.now());
+            }
+            loan.setRejectionReason(null);
+        } else {
+            transition(loan, Loan.LoanStatus.REJECTED);
+            loan.setRejectionReason(rejectionReason);
+        }
+        if (uploadedFileName != null) {
+            loan.setUploadedFileName(uploadedFileName);
+            loan.setUploadedFilePath(uploadedFilePath);
+        }
+
+        return saveTransition(loan, previousStatus);
+    }
+
+    private static void transition(Loan loan, Loan.LoanStatus target) {
+        if (!loan.getStatus().canTransitionTo(target)) {
+            throw new LoanConflictException("Loan " + loan.getId() + " cannot go from " + loan.getStatus() + " to " + target);
+        }
+        loan.setStatus(target);
+    }
+
+    private Loan saveTransition(Loan loan, Loan.LoanStatus previousStatus) {
+        // Flushed here so a lost version race fails (and is retried) before any side effects
+        Loan savedLoan = loanRepository.saveAndFlush(loan);
+        dashboardCounters.loanStatusChanged(previousStatus, savedLoan.getStatus());
+        if (previousStatus != Loan.LoanStatus.ACTIVE && savedLoan.getStatus() == Loan.LoanStatus.ACTIVE) {
+            amortizationService.generatePayments(savedLoan);
+        }
+        return savedLoan;
+    }
+
+    public List<InstallmentDTO> getSchedule(Loan loan) {
+        return amortizationService.buildSchedule(loan);
     }
 
+    // The loan's payments go with it; without the loan they are a schedule for nothing
+    @Transactional
     public void deleteLoan(UUID id) {
-        loanRepository.deleteById(id);
+        loanRepository.findById(id).ifPresent(loan -> {
+            List<PaymentRepository.StatusCount> payments = paymentRepository.countByStatusForLoan(id);
+            paymentRepository.deleteByLoanId(id);
+            loanRepository.delete(loan);
+            dashboardCounters.loanDeleted(loan, payments);
+        });
     }
 }
@@ -0,0 +1,37 @@
+package com.Loan.service;
+
+import com.Loan.dto.OutboxMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for the email/SMS providers: logs each delivery. The latency and
+ * failure rate can be turned up to exercise the dispatcher's backpressure and retries.
+ */
+@Component
+public class LoggingNotificationChannel implements NotificationChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingNotificationChannel.class);
+
+    @Value("${loan.notifications.stub.latency:PT0S}")
+    private Duration latency;
+
+    @Value("${loan.notifications.stub.failure-rate:0}")
+    private double failureRate;
+
+    @Override
+    public void send(OutboxMessage message) throws Exception {
+        if (!latency.isZero()) {
+            Thread.sleep(latency.toMillis());
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Simulated delivery failure");
+        }
+        logger.debug("Delivered {} notification {} to user {}", message.getType(), message.getId(), message.getUserId());
+    }
+}
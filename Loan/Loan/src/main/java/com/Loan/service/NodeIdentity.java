@@ -0,0 +1,41 @@
+package com.Loan.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Names this process to the other nodes, for background runs that record which
+ * node owns them. {@code loan.node-id} overrides the default of host name and pid.
+ */
+@Component
+public class NodeIdentity {
+
+    @Value("${loan.node-id:}")
+    private String configured;
+
+    private String id;
+
+    @PostConstruct
+    void resolve() {
+        if (!configured.isBlank()) {
+            id = configured;
+            return;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        // The pid tells a restarted process apart from the one that went away
+        id = host + "-" + ProcessHandle.current().pid();
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,17 @@
+package com.Loan.service;
+
+import com.Loan.dto.OutboxMessage;
+
+/**
+ * An external delivery channel (email, SMS, push) for notifications drained from the outbox.
+ * Implementations are called from the dispatcher's worker threads, never from a request.
+ */
+public interface NotificationChannel {
+
+    /**
+     * Delivers one notification. Throwing schedules a retry; a delivery may be repeated
+     * after a crash, so providers that support it should be given the outbox id as an
+     * idempotency key.
+     */
+    void send(OutboxMessage message) throws Exception;
+}
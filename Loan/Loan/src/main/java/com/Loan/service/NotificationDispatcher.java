@@ -0,0 +1,244 @@
+package com.Loan.service;
+
+import com.Loan.dto.OutboxMessage;
+import com.Loan.entity.NotificationOutbox;
+import com.Loan.repository.NotificationOutboxJdbcRepository;
+import com.Loan.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the notification outbox to the {@link NotificationChannel} in the background,
+ * so nothing that writes a notification waits on its delivery.
+ * <p>
+ * Each poll claims due deliveries in batches: one short transaction locks a batch and
+ * leases it (pushes its {@code next_attempt_at} out by {@code lease}), then the batch is
+ * handed to a fixed pool of workers. At most {@code max-in-flight} deliveries are
+ * claimed but unfinished at a time; when the channel is slower than the outbox fills,
+ * the dispatcher stops claiming and the backlog waits in the table rather than in memory.
+ * <p>
+ * A failed delivery is retried with exponential back-off and jitter, and given up
+ * (status DEAD) after {@code max-attempts}. Delivery is at least once: a delivery cut
+ * off by a crash is claimed again when its lease runs out.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    @Autowired
+    private NotificationOutboxJdbcRepository outboxJdbcRepository;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private NotificationChannel channel;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${loan.notifications.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${loan.notifications.outbox.workers:4}")
+    private int workers;
+
+    @Value("${loan.notifications.outbox.max-in-flight:400}")
+    private int maxInFlight;
+
+    @Value("${loan.notifications.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${loan.notifications.outbox.retry-delay:PT10S}")
+    private Duration retryDelay;
+
+    @Value("${loan.notifications.outbox.max-retry-delay:PT30M}")
+    private Duration maxRetryDelay;
+
+    @Value("${loan.notifications.outbox.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${loan.notifications.outbox.retention:P7D}")
+    private Duration retention;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService pool;
+    private Semaphore inFlight;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong backlog = new AtomicLong();
+    private Timer deliveries;
+    private Counter sent;
+    private Counter retried;
+    private Counter dead;
+    private Counter throttled;
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        inFlight = new Semaphore(maxInFlight);
+        AtomicInteger count = new AtomicInteger();
+        // The permits keep the queue from ever filling, so the pool never has to reject
+        pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(maxInFlight),
+                r -> {
+                    Thread thread = new Thread(r, "notification-dispatch-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        deliveries = Timer.builder("notifications.outbox.delivery")
+                .description("Time taken by each delivery attempt")
+                .register(meterRegistry);
+        sent = Counter.builder("notifications.outbox.sent").register(meterRegistry);
+        retried = Counter.builder("notifications.outbox.retried").register(meterRegistry);
+        dead = Counter.builder("notifications.outbox.dead").register(meterRegistry);
+        throttled = Counter.builder("notifications.outbox.throttled")
+                .description("Polls that stopped claiming because max-in-flight deliveries were unfinished")
+                .register(meterRegistry);
+        Gauge.builder("notifications.outbox.in-flight", inFlight, permits -> maxInFlight - permits.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("notifications.outbox.backlog", backlog, AtomicLong::get)
+                .description("PENDING deliveries at the last cleanup")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        pool.shutdown();
+        // Anything still unfinished is delivered again once its lease runs out
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${loan.notifications.outbox.poll-interval:PT1S}")
+    public void poll() {
+        drain();
+    }
+
+    /**
+     * Claims due deliveries and hands them to the workers until none are due or
+     * max-in-flight is reached. Does not wait for the deliveries to finish.
+     *
+     * @return how many deliveries were claimed, or -1 if a drain was already running
+     */
+    public int drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return -1;
+        }
+        int claimed = 0;
+        try {
+            while (true) {
+                int room = Math.min(batchSize, inFlight.availablePermits());
+                if (room == 0) {
+                    throttled.increment();
+                    break;
+                }
+                List<OutboxMessage> batch = transactionTemplate.execute(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    List<OutboxMessage> due = outboxJdbcRepository.lockDue(now, room);
+                    outboxJdbcRepository.lease(due, now.plus(lease));
+                    return due;
+                });
+                for (OutboxMessage message : batch) {
+                    // Only this thread acquires, and room was taken from the permits left
+                    inFlight.acquireUninterruptibly();
+                    pool.execute(() -> {
+                        try {
+                            deliver(message);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                claimed += batch.size();
+                if (batch.size() < room) {
+                    break;
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+        return claimed;
+    }
+
+    /**
+     * Waits until every claimed delivery has finished.
+     *
+     * @return false if some were still running when the timeout ran out
+     */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        if (!inFlight.tryAcquire(maxInFlight, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        inFlight.release(maxInFlight);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${loan.notifications.outbox.cleanup-interval:PT10M}")
+    public void cleanup() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int purged;
+        while ((purged = outboxJdbcRepository.purgeSent(before, 1000)) > 0) {
+            logger.debug("Purged {} delivered notifications from the outbox", purged);
+        }
+        backlog.set(outboxRepository.countByStatus(NotificationOutbox.Status.PENDING));
+    }
+
+    private void deliver(OutboxMessage message) {
+        long started = System.nanoTime();
+        try {
+            channel.send(message);
+            outboxJdbcRepository.markSent(message.getId(), LocalDateTime.now());
+            sent.increment();
+        } catch (Exception e) {
+            int attempts = message.getAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                outboxJdbcRepository.markDead(message.getId(), e.toString());
+                dead.increment();
+                logger.warn("Gave up delivering notification {} to user {} after {} attempts",
+                        message.getNotificationId(), message.getUserId(), attempts, e);
+            } else {
+                outboxJdbcRepository.retryAt(message.getId(), LocalDateTime.now().plus(backoff(attempts)), e.toString());
+                retried.increment();
+            }
+        } finally {
+            deliveries.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // retry-delay doubled per failed attempt, capped, with up to half of it again as jitter
+    private Duration backoff(int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (delay.compareTo(maxRetryDelay) > 0) {
+            delay = maxRetryDelay;
+        }
+        long jitter = ThreadLocalRandom.current().nextLong(delay.toMillis() / 2 + 1);
+        return delay.plusMillis(jitter);
+    }
+}
@@ -1,9 +1,14 @@
 package com.Loan.service;
 
+import com.Loan.dto.NotificationDTO;
 import com.Loan.entity.Notification;
+import com.Loan.repository.NotificationJdbcRepository;
+import com.Loan.repository.NotificationOutboxJdbcRepository;
 import com.Loan.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -14,8 +19,14 @@ public class NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
 
-    public List<Notification> getUserNotifications(UUID userId) {
-        return notificationRepository.findByUserId(userId);
+    @Autowired
+    private NotificationJdbcRepository notificationJdbcRepository;
+
+    @Autowired
+    private NotificationOutboxJdbcRepository notificationOutboxJdbcRepository;
+
+    public List<NotificationDTO> getUserNotifications(UUID userId) {
+        return notificationRepository.findDtosByUserId(userId);
     }
 
     public Notification markAsRead(UUID notificationId) {
@@ -25,14 +36,39 @@ public class NotificationService {
         return notificationRepository.save(notification);
     }
 
+    /**
+     * Saves the notification and queues its delivery in the same transaction;
+     * {@link NotificationDispatcher} delivers it afterwards.
+     */
+    @Transactional
     public Notification createNotification(Notification notification) {
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        notificationOutboxJdbcRepository.enqueue(saved.getType(), List.of(
+                new NotificationJdbcRepository.Message(saved.getId(), saved.getUser().getId(), saved.getMessage())));
+        return saved;
+    }
+
+    /**
+     * Batched form of {@link #createNotification} for jobs that notify many users at once.
+     */
+    @Transactional
+    public int notifyAll(String type, List<NotificationJdbcRepository.Message> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        int inserted = notificationJdbcRepository.insertAll(type, messages);
+        notificationOutboxJdbcRepository.enqueue(type, messages);
+        return inserted;
     }
 
     public List<Notification> getAllNotifications() {
         return notificationRepository.findAll();
     }
 
+    public List<NotificationDTO> getRecentNotifications(int limit) {
+        return notificationRepository.findRecentDtos(Limit.of(limit));
+    }
+
     public void deleteNotification(UUID id) {
         notificationRepository.deleteById(id);
     }
@@ -0,0 +1,100 @@
+package com.Loan.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.retry.RetryException;
+import org.springframework.core.retry.RetryListener;
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.core.retry.Retryable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write in its own transaction and, when it loses an optimistic
+ * lock race ({@code @Version} mismatch), runs it again on fresh data a bounded number
+ * of times with a short jittered back-off. Each attempt re-reads the rows, so checks
+ * such as the loan state machine are made against what the winner committed. When the
+ * retries run out the last {@link OptimisticLockingFailureException} is rethrown.
+ * <p>
+ * Must not be called inside an existing transaction: the retry has to start a new one
+ * to see the other writer's commit.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${loan.concurrency.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${loan.concurrency.retry-delay:PT0.02S}")
+    private Duration delay;
+
+    private TransactionTemplate transactionTemplate;
+    private RetryTemplate retryTemplate;
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        retryTemplate = new RetryTemplate(RetryPolicy.builder()
+                .includes(OptimisticLockingFailureException.class)
+                .maxRetries(maxRetries)
+                .delay(delay)
+                .multiplier(2)
+                .jitter(delay.dividedBy(2))
+                .build());
+        retryTemplate.setRetryListener(new RetryListener() {
+            @Override
+            public void beforeRetry(RetryPolicy retryPolicy, Retryable<?> retryable) {
+                meterRegistry.counter("optimistic.lock.retries", "operation", retryable.getName()).increment();
+            }
+
+            @Override
+            public void onRetryPolicyExhaustion(RetryPolicy retryPolicy, Retryable<?> retryable, RetryException exception) {
+                meterRegistry.counter("optimistic.lock.exhausted", "operation", retryable.getName()).increment();
+                logger.warn("{} still conflicting after {} retries", retryable.getName(), exception.getRetryCount());
+            }
+        });
+    }
+
+    /**
+     * @param operation names the work in logs and in the optimistic.lock.* metrics
+     */
+    public <T> T inTransaction(String operation, Supplier<T> work) {
+        try {
+            return retryTemplate.execute(new Retryable<T>() {
+                @Override
+                public T execute() {
+                    return transactionTemplate.execute(status -> work.get());
+                }
+
+                @Override
+                public String getName() {
+                    return operation;
+                }
+            });
+        } catch (RetryException e) {
+            // Only optimistic lock failures are retried, so anything else arrives here on the first attempt
+            if (e.getLastException() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getLastException());
+        }
+    }
+}
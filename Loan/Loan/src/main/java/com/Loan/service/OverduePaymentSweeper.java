@@ -0,0 +1,146 @@
+package com.Loan.service;
+
+import com.Loan.dto.OverduePayment;
+import com.Loan.entity.Payment;
+import com.Loan.repository.NotificationJdbcRepository;
+import com.Loan.repository.PaymentJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Marks PENDING payments whose due date has passed as OVERDUE and notifies their users.
+ * <p>
+ * Works through the due rows in chunks, each in its own transaction: lock the next
+ * chunk of due rows, flip it with one UPDATE and insert its notifications (and
+ * their outbox deliveries) in JDBC batches. No entities are loaded, so the run time grows with the number of
+ * chunks rather than with per-row round trips, and a failed run leaves every
+ * committed chunk done for the next run to continue from. The row locks let
+ * several nodes run the sweep at once without double-notifying anyone.
+ */
+@Component
+public class OverduePaymentSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverduePaymentSweeper.class);
+    static final String NOTIFICATION_TYPE = "payment_overdue";
+
+    @Autowired
+    private PaymentJdbcRepository paymentJdbcRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${loan.payments.overdue.chunk-size:1000}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastRunMarked = new AtomicLong();
+    private Timer sweepTimer;
+    private Counter marked;
+    private Counter notified;
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        sweepTimer = Timer.builder("payments.overdue.sweep.duration")
+                .description("Time taken by each overdue sweep")
+                .register(meterRegistry);
+        marked = Counter.builder("payments.overdue.marked").register(meterRegistry);
+        notified = Counter.builder("payments.overdue.notifications").register(meterRegistry);
+        Gauge.builder("payments.overdue.sweep.last", lastRunMarked, AtomicLong::get)
+                .description("Payments marked overdue by the last sweep")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${loan.payments.overdue.cron:0 30 1 * * *}")
+    public void sweep() {
+        sweep(LocalDate.now());
+    }
+
+    /**
+     * Marks every payment due before {@code today} that is still PENDING.
+     *
+     * @return how many payments were marked overdue, or -1 if a sweep was already running
+     */
+    public long sweep(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Overdue sweep already running; skipped");
+            return -1;
+        }
+        long started = System.nanoTime();
+        long total = 0;
+        int chunks = 0;
+        try {
+            while (true) {
+                Integer count = transactionTemplate.execute(status -> sweepChunk(today));
+                total += count;
+                chunks++;
+                if (count < chunkSize) {
+                    break;
+                }
+            }
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            sweepTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            lastRunMarked.set(total);
+            running.set(false);
+            double seconds = elapsed / 1e9;
+            logger.info("Overdue sweep marked {} payments in {} chunks, {} ms ({} rows/s)",
+                    total, chunks, elapsed / 1_000_000, seconds > 0 ? Math.round(total / seconds) : total);
+        }
+        return total;
+    }
+
+    private int sweepChunk(LocalDate today) {
+        List<OverduePayment> due = paymentJdbcRepository.lockOverdue(today, chunkSize);
+        if (due.isEmpty()) {
+            return 0;
+        }
+        int updated = paymentJdbcRepository.markOverdue(due);
+
+        List<NotificationJdbcRepository.Message> messages = new ArrayList<>(due.size());
+        for (OverduePayment payment : due) {
+            if (payment.getUserId() != null) {
+                messages.add(new NotificationJdbcRepository.Message(payment.getUserId(), message(payment)));
+            }
+        }
+        int inserted = notificationService.notifyAll(NOTIFICATION_TYPE, messages);
+
+        marked.increment(updated);
+        notified.increment(inserted);
+        dashboardCounters.paymentsStatusChanged(Payment.PaymentStatus.PENDING, Payment.PaymentStatus.OVERDUE, updated);
+        return due.size();
+    }
+
+    private static String message(OverduePayment payment) {
+        return "Your EMI payment of ₹" + payment.getAmount().toPlainString() + " was due on "
+                + payment.getDueDate() + " and is now overdue. Please pay it as soon as possible.";
+    }
+}
@@ -0,0 +1,116 @@
+package com.Loan.service;
+
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import com.Loan.repository.LoanJdbcRepository;
+import com.Loan.repository.PaymentJdbcRepository;
+import com.Loan.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Posts installment payments against their loan's outstanding balance.
+ * <p>
+ * A posting is one short transaction: lock the payment row, mark it PAID, take its
+ * principal off the loan with a relative UPDATE, and complete the loan when nothing
+ * is left owing. Rows are always locked payment first, then loan, so concurrent
+ * postings (of one installment or of many on the same loan) serialize on those
+ * locks rather than deadlocking, and no paid principal is lost or counted twice.
+ */
+@Service
+public class PaymentPostingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentPostingService.class);
+
+    @Autowired
+    private PaymentJdbcRepository paymentJdbcRepository;
+
+    @Autowired
+    private LoanJdbcRepository loanJdbcRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter posted;
+    private Counter completed;
+
+    @PostConstruct
+    void start() {
+        posted = Counter.builder("payments.posted").register(meterRegistry);
+        completed = Counter.builder("loans.completed").register(meterRegistry);
+    }
+
+    /**
+     * Marks the payment PAID and reduces the loan's outstanding balance by its principal.
+     * Posting a payment that is already PAID changes nothing.
+     *
+     * @throws LoanConflictException if the loan is not ACTIVE or DEFAULTED
+     */
+    @Transactional
+    public Payment post(UUID paymentId) {
+        PaymentJdbcRepository.Posting posting = paymentJdbcRepository.lockForPosting(paymentId);
+        if (posting == null) {
+            throw new RuntimeException("Payment not found");
+        }
+        if (posting.getStatus() == Payment.PaymentStatus.PAID
+                || !paymentJdbcRepository.markPaid(paymentId, LocalDate.now())) {
+            return paymentRepository.findById(paymentId).orElseThrow();
+        }
+        if (!loanJdbcRepository.decrementBalance(posting.getLoanId(), posting.getPrincipal())) {
+            // Rolls the payment back too
+            throw new LoanConflictException("Loan " + posting.getLoanId() + " is not being repaid");
+        }
+        Loan.LoanStatus completedFrom = loanJdbcRepository.completeIfRepaid(posting.getLoanId());
+
+        dashboardCounters.paymentStatusChanged(posting.getStatus(), Payment.PaymentStatus.PAID);
+        posted.increment();
+        if (completedFrom != null) {
+            dashboardCounters.loanStatusChanged(completedFrom, Loan.LoanStatus.COMPLETED);
+            completed.increment();
+            logger.info("Loan {} repaid in full and completed", posting.getLoanId());
+        }
+        return paymentRepository.findById(paymentId).orElseThrow();
+    }
+
+    /**
+     * Undoes the posting of a PAID payment, for example one recorded against the wrong
+     * installment: it goes back to {@code status} and its principal is owed again.
+     * Does nothing if the payment is not PAID.
+     *
+     * @throws LoanConflictException if the loan is no longer being repaid (a completed loan stays closed)
+     */
+    @Transactional
+    public Payment reverse(UUID paymentId, Payment.PaymentStatus status) {
+        PaymentJdbcRepository.Posting posting = paymentJdbcRepository.lockForPosting(paymentId);
+        if (posting == null) {
+            throw new RuntimeException("Payment not found");
+        }
+        Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+        if (posting.getStatus() != Payment.PaymentStatus.PAID || status == Payment.PaymentStatus.PAID) {
+            return payment;
+        }
+        if (!loanJdbcRepository.incrementBalance(posting.getLoanId(), posting.getPrincipal())) {
+            throw new LoanConflictException("Loan " + posting.getLoanId() + " is not being repaid");
+        }
+        payment.setStatus(status);
+        payment.setPaidDate(null);
+        Payment savedPayment = paymentRepository.saveAndFlush(payment);
+        dashboardCounters.paymentStatusChanged(Payment.PaymentStatus.PAID, status);
+        return savedPayment;
+    }
+}
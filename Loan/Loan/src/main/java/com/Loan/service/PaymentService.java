@@ -1,46 +1,97 @@
 package com.Loan.service;
 
+import com.Loan.dto.PaymentDTO;
 import com.Loan.entity.Payment;
+import com.Loan.repository.ListingSpecifications;
 import com.Loan.repository.PaymentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class PaymentService {
 
+    private static final Set<Payment.PaymentStatus> UNPAID = EnumSet.of(Payment.PaymentStatus.PENDING, Payment.PaymentStatus.OVERDUE);
+
     @Autowired
     private PaymentRepository paymentRepository;
 
-    public List<Payment> getPaymentsByUserId(UUID userId) {
-        return paymentRepository.findByUserId(userId);
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private PaymentPostingService paymentPostingService;
+
+    public List<PaymentDTO> getPaymentsByUserId(UUID userId) {
+        return paymentRepository.findDtosByUserId(userId);
     }
 
-    public List<Payment> getPendingPayments(UUID userId) {
-        return paymentRepository.findByUserIdAndStatus(userId, Payment.PaymentStatus.PENDING);
+    /**
+     * Payments still to be paid, including those the overdue sweep has marked OVERDUE.
+     */
+    public List<PaymentDTO> getPendingPayments(UUID userId) {
+        return paymentRepository.findDtosByUserIdAndStatusIn(userId, UNPAID);
     }
 
     public List<Payment> getAllPayments() {
         return paymentRepository.findAll();
     }
 
-    public List<Payment> getPaymentsByLoanId(UUID loanId) {
-        return paymentRepository.findByLoanId(loanId);
+    public List<PaymentDTO> getRecentPayments(int limit) {
+        return paymentRepository.findRecentDtos(Limit.of(limit));
+    }
+
+    /**
+     * One keyset page of payments, newest first. Filters left null are not applied.
+     */
+    public Window<Payment> scrollPayments(Payment.PaymentStatus status, LocalDate from, LocalDate to, String cursor, int size) {
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        return paymentRepository.findBy(ListingSpecifications.payments(status, from, to),
+                query -> query.sortBy(KeysetCursor.SORT).limit(size).scroll(position));
+    }
+
+    public List<PaymentDTO> getPaymentsByLoanId(UUID loanId) {
+        return paymentRepository.findDtosByLoanId(loanId);
     }
 
+    /**
+     * Sets the status. Paying posts the payment against the loan's balance, and moving
+     * a PAID payment back puts its principal on the balance again (see
+     * {@link PaymentPostingService}). Other changes retry on fresh data if the payment
+     * changes underneath (for example the overdue sweep marking it OVERDUE at the same moment).
+     */
     public Payment updatePaymentStatus(UUID id, Payment.PaymentStatus status) {
-        Payment payment = paymentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Payment not found"));
-        payment.setStatus(status);
         if (status == Payment.PaymentStatus.PAID) {
-            payment.setPaidDate(java.time.LocalDate.now());
+            return paymentPostingService.post(id);
         }
-        return paymentRepository.save(payment);
+        return optimisticRetry.inTransaction("payment.status", () -> {
+            Payment payment = paymentRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Payment not found"));
+            Payment.PaymentStatus previousStatus = payment.getStatus();
+            if (previousStatus == Payment.PaymentStatus.PAID) {
+                return paymentPostingService.reverse(id, status);
+            }
+            payment.setStatus(status);
+            Payment savedPayment = paymentRepository.saveAndFlush(payment);
+            dashboardCounters.paymentStatusChanged(previousStatus, status);
+            return savedPayment;
+        });
     }
 
     public Payment createPayment(Payment payment) {
-        return paymentRepository.save(payment);
+        Payment savedPayment = paymentRepository.save(payment);
+        dashboardCounters.paymentCreated(savedPayment.getStatus());
+        return savedPayment;
     }
 }
@@ -0,0 +1,44 @@
+package com.Loan.service;
+
+import com.Loan.dto.SettlementRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Parses bank settlement file lines: comma separated with a header row, one EMI
+ * credit per line as loan id, installment due date (ISO), amount credited and the
+ * bank's reference. The reference may be left empty.
+ */
+public final class SettlementFileParser {
+
+    private static final int FIELDS = 4;
+
+    private SettlementFileParser() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the line is malformed or the amount is not positive
+     */
+    public static SettlementRecord parse(long lineNumber, String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != FIELDS) {
+            throw new IllegalArgumentException("Expected " + FIELDS + " fields but found " + fields.length);
+        }
+        UUID loanId = UUID.fromString(fields[0].trim());
+        LocalDate dueDate;
+        try {
+            dueDate = LocalDate.parse(fields[1].trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Bad due date: " + fields[1].trim());
+        }
+        BigDecimal amount = new BigDecimal(fields[2].trim());
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + amount.toPlainString());
+        }
+        String reference = fields[3].trim();
+        return new SettlementRecord(lineNumber, loanId, dueDate, amount, reference.isEmpty() ? null : reference);
+    }
+}
@@ -0,0 +1,486 @@
+package com.Loan.service;
+
+import com.Loan.dto.SettlementRecord;
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import com.Loan.entity.SettlementRun;
+import com.Loan.repository.LoanJdbcRepository;
+import com.Loan.repository.PaymentJdbcRepository;
+import com.Loan.repository.SettlementRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles bank settlement files dropped into {@code loan.payments.settlement.directory}
+ * against the payment schedule, posting each EMI credit to the installment of the same
+ * loan and due date.
+ * <p>
+ * The file is streamed in chunks of {@code loan.payments.settlement.chunk-size} lines,
+ * each reconciled in one transaction: the installments the chunk refers to are locked
+ * with one range query and indexed in memory by loan and due date, the matches are
+ * marked PAID and their principal taken off the loan balances in JDBC batches, and
+ * the checkpoint advances with them. Chunks run one after another, so a loan's balance
+ * is only ever written by one chunk at a time.
+ * <p>
+ * Credits that cannot be posted are written to an exceptions report (CSV, one row per
+ * credit with the data line number and reason) for manual follow-up; see {@link Reason}.
+ * <p>
+ * Runs are claimed and heartbeated by the node that runs them, as in {@link CibilImportService}.
+ */
+@Service
+public class SettlementReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SettlementReconciliationService.class);
+    static final String REPORT_HEADER = "line,reason,loan_id,due_date,amount,reference,detail";
+    private static final Set<Loan.LoanStatus> REPAYING = EnumSet.of(Loan.LoanStatus.ACTIVE, Loan.LoanStatus.DEFAULTED);
+    private static final Set<SettlementRun.Status> ACTIVE = EnumSet.of(SettlementRun.Status.QUEUED, SettlementRun.Status.RUNNING);
+    private static final Set<SettlementRun.Status> RESUMABLE = EnumSet.of(SettlementRun.Status.FAILED, SettlementRun.Status.INTERRUPTED);
+    private static final Set<SettlementRun.Status> STARTABLE = EnumSet.of(SettlementRun.Status.QUEUED, SettlementRun.Status.FAILED, SettlementRun.Status.INTERRUPTED);
+
+    public enum Reason {
+        /** The line could not be parsed. */
+        REJECTED,
+        /** No installment of that loan is due on that date. */
+        UNMATCHED,
+        /** The installment is already paid, or credited twice in the file. */
+        ALREADY_PAID,
+        /** The credit is not the installment amount. */
+        AMOUNT_MISMATCH,
+        /** The loan is not ACTIVE or DEFAULTED. */
+        LOAN_NOT_REPAYING
+    }
+
+    @Autowired
+    private SettlementRunRepository settlementRunRepository;
+
+    @Autowired
+    private PaymentJdbcRepository paymentJdbcRepository;
+
+    @Autowired
+    private LoanJdbcRepository loanJdbcRepository;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NodeIdentity nodeIdentity;
+
+    @Value("${loan.payments.settlement.directory:settlements}")
+    private String directory;
+
+    @Value("${loan.payments.settlement.report-directory:settlements/reports}")
+    private String reportDirectory;
+
+    @Value("${loan.payments.settlement.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${loan.jobs.heartbeat-timeout:PT2M}")
+    private Duration heartbeatTimeout;
+
+    private TransactionTemplate transactionTemplate;
+    // Runs one at a time, so no two chunks write the same loan's balance at once
+    private ExecutorService runner;
+    // Queued or running here, heartbeated until they finish
+    private final Set<UUID> owned = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger count = new AtomicInteger();
+        runner = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "settlement-reconciliation-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        runner.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${loan.jobs.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!owned.isEmpty()) {
+            settlementRunRepository.heartbeat(List.copyOf(owned), nodeIdentity.getId(), now);
+        }
+        markInterrupted(now.minus(heartbeatTimeout));
+    }
+
+    /**
+     * Interrupts queued or running runs not heartbeated since {@code before}: their
+     * node has gone away, so they can be resumed.
+     */
+    public void markInterrupted(LocalDateTime before) {
+        for (SettlementRun stale : settlementRunRepository.findExpired(ACTIVE, before)) {
+            if (settlementRunRepository.interruptIfExpired(stale.getId(), ACTIVE, before) > 0) {
+                logger.warn("Settlement run {} was interrupted at line {}: node {} stopped heartbeating it",
+                        stale.getId(), stale.getCheckpointLine(), stale.getOwnerNode());
+            }
+        }
+    }
+
+    public List<SettlementRun> getRuns() {
+        return settlementRunRepository.findTop50ByOrderByCreatedAtDesc();
+    }
+
+    public SettlementRun getRun(UUID id) {
+        return settlementRunRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * @return the run's exceptions report, or null if the run has not written one
+     */
+    public Path getReport(UUID id) {
+        Path report = reportPath(id);
+        return Files.isRegularFile(report) ? report : null;
+    }
+
+    /**
+     * Queues reconciliation of a file in the settlement directory.
+     * @throws IllegalArgumentException if the name leaves the directory or the file does not exist
+     */
+    public SettlementRun submit(String fileName) {
+        resolve(fileName);
+        SettlementRun run = new SettlementRun();
+        run.setFileName(fileName);
+        run.setStatus(SettlementRun.Status.QUEUED);
+        run.setOwnerNode(nodeIdentity.getId());
+        run.setHeartbeatAt(LocalDateTime.now());
+        run = settlementRunRepository.save(run);
+        UUID id = run.getId();
+        owned.add(id);
+        runner.execute(() -> runReconciliation(id));
+        return run;
+    }
+
+    /**
+     * Queues a failed or interrupted run to continue from its checkpoint. Only one
+     * node's resume of a run succeeds.
+     * @throws IllegalStateException if the run is not in a resumable state
+     */
+    public SettlementRun resume(UUID id) {
+        if (settlementRunRepository.claim(id, RESUMABLE, SettlementRun.Status.QUEUED, nodeIdentity.getId(), LocalDateTime.now()) == 0) {
+            SettlementRun run = settlementRunRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Settlement run not found"));
+            throw new IllegalStateException("Settlement run is " + run.getStatus());
+        }
+        owned.add(id);
+        SettlementRun run = settlementRunRepository.findById(id).orElseThrow();
+        run.setErrorMessage(null);
+        run = settlementRunRepository.save(run);
+        runner.execute(() -> runReconciliation(id));
+        return run;
+    }
+
+    /**
+     * Runs a reconciliation on the calling thread until the file is exhausted or a chunk fails.
+     * A run that is already running (or finished) is returned as it is.
+     */
+    public SettlementRun runReconciliation(UUID id) {
+        owned.add(id);
+        try {
+            if (settlementRunRepository.claim(id, STARTABLE, SettlementRun.Status.RUNNING, nodeIdentity.getId(), LocalDateTime.now()) == 0) {
+                SettlementRun run = settlementRunRepository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Settlement run not found"));
+                logger.warn("Settlement run {} not run: it is {} on node {}", id, run.getStatus(), run.getOwnerNode());
+                return run;
+            }
+            return run(settlementRunRepository.findById(id).orElseThrow());
+        } finally {
+            owned.remove(id);
+        }
+    }
+
+    private SettlementRun run(SettlementRun run) {
+        UUID id = run.getId();
+        run.setStartedAt(LocalDateTime.now());
+        run.setFinishedAt(null);
+        run = settlementRunRepository.save(run);
+
+        Throughput throughput = new Throughput(run.getRowsRead());
+        long skip = run.getCheckpointLine();
+        Exception failure = null;
+        try (BufferedReader reader = Files.newBufferedReader(resolve(run.getFileName()), StandardCharsets.UTF_8);
+             BufferedWriter report = openReport(run.getId(), skip)) {
+            reader.readLine();
+            List<String> lines = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= skip) {
+                    continue;
+                }
+                lines.add(line);
+                if (lines.size() == chunkSize) {
+                    reconcile(id, lineNumber, lines, report, throughput);
+                    lines = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!lines.isEmpty()) {
+                reconcile(id, lineNumber, lines, report, throughput);
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        }
+
+        run = settlementRunRepository.findById(id).orElseThrow();
+        run.setStatus(failure == null ? SettlementRun.Status.COMPLETED : SettlementRun.Status.FAILED);
+        run.setErrorMessage(failure == null ? null : failure.toString());
+        run.setRowsPerSecond(throughput.rowsPerSecond(run.getRowsRead()));
+        run.setFinishedAt(LocalDateTime.now());
+        run = settlementRunRepository.save(run);
+        if (failure == null) {
+            logger.info("Settlement run {} finished: {} rows, {} posted (₹{}), {} exceptions ({} rows/s)",
+                    run.getId(), run.getRowsRead(), run.getRowsPosted(), run.getAmountPosted().toPlainString(),
+                    run.getRowsExceptions(), Math.round(run.getRowsPerSecond()));
+        } else {
+            logger.error("Settlement run {} failed after line {}", run.getId(), run.getCheckpointLine(), failure);
+        }
+        return run;
+    }
+
+    private void reconcile(UUID runId, long lastLine, List<String> lines, BufferedWriter report, Throughput throughput) {
+        ChunkResult result = transactionTemplate.execute(status -> {
+            ChunkResult chunk = reconcileChunk(lastLine - lines.size() + 1, lines);
+
+            SettlementRun run = settlementRunRepository.findById(runId).orElseThrow();
+            run.setRowsRead(run.getRowsRead() + chunk.read);
+            run.setRowsPosted(run.getRowsPosted() + chunk.posted);
+            run.setRowsExceptions(run.getRowsExceptions() + chunk.exceptions.size());
+            run.setAmountPosted(run.getAmountPosted().add(chunk.amountPosted));
+            run.setCheckpointLine(lastLine);
+            run.setRowsPerSecond(throughput.rowsPerSecond(run.getRowsRead()));
+            settlementRunRepository.save(run);
+
+            // Written before the commit: a resumed run drops report rows past the checkpoint
+            try {
+                for (String exception : chunk.exceptions.values()) {
+                    report.write(exception);
+                    report.newLine();
+                }
+                report.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return chunk;
+        });
+
+        dashboardCounters.paymentsStatusChanged(Payment.PaymentStatus.PENDING, Payment.PaymentStatus.PAID, result.paidFromPending);
+        dashboardCounters.paymentsStatusChanged(Payment.PaymentStatus.OVERDUE, Payment.PaymentStatus.PAID, result.paidFromOverdue);
+        for (Loan.LoanStatus from : result.completedFrom) {
+            dashboardCounters.loanStatusChanged(from, Loan.LoanStatus.COMPLETED);
+        }
+        meterRegistry.counter("settlement.rows", "outcome", "posted").increment(result.posted);
+        for (Map.Entry<Reason, Integer> reason : result.reasons.entrySet()) {
+            meterRegistry.counter("settlement.rows", "outcome", reason.getKey().name().toLowerCase()).increment(reason.getValue());
+        }
+        meterRegistry.counter("loans.completed").increment(result.completedFrom.size());
+    }
+
+    private ChunkResult reconcileChunk(long firstLine, List<String> lines) {
+        ChunkResult result = new ChunkResult();
+        List<SettlementRecord> records = new ArrayList<>(lines.size());
+        long lineNumber = firstLine;
+        for (String line : lines) {
+            long current = lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.read++;
+            try {
+                records.add(SettlementFileParser.parse(current, line));
+            } catch (IllegalArgumentException e) {
+                result.rejected(current, e.getMessage() + ": " + line);
+            }
+        }
+        if (records.isEmpty()) {
+            return result;
+        }
+
+        // The in-memory index: every installment the chunk can refer to, by loan and due date
+        Set<UUID> loanIds = new HashSet<>();
+        LocalDate from = records.get(0).getDueDate();
+        LocalDate to = from;
+        for (SettlementRecord record : records) {
+            loanIds.add(record.getLoanId());
+            from = record.getDueDate().isBefore(from) ? record.getDueDate() : from;
+            to = record.getDueDate().isAfter(to) ? record.getDueDate() : to;
+        }
+        Map<UUID, Map<LocalDate, PaymentJdbcRepository.Posting>> installments = new HashMap<>();
+        for (PaymentJdbcRepository.Posting installment : paymentJdbcRepository.lockForPosting(loanIds, from, to)) {
+            installments.computeIfAbsent(installment.getLoanId(), loanId -> new HashMap<>())
+                    .put(installment.getDueDate(), installment);
+        }
+        // Payments first, then loans: the same lock order as PaymentPostingService
+        Map<UUID, Loan.LoanStatus> loanStatuses = loanJdbcRepository.lockStatuses(installments.keySet());
+
+        List<UUID> toPay = new ArrayList<>();
+        Set<UUID> paidInChunk = new HashSet<>();
+        Map<UUID, BigDecimal> principalByLoan = new HashMap<>();
+        for (SettlementRecord record : records) {
+            PaymentJdbcRepository.Posting installment = installments.getOrDefault(record.getLoanId(), Map.of()).get(record.getDueDate());
+            Loan.LoanStatus loanStatus = installment == null ? null : loanStatuses.get(installment.getLoanId());
+            if (installment == null) {
+                result.exception(record, Reason.UNMATCHED, null);
+            } else if (installment.getStatus() == Payment.PaymentStatus.PAID) {
+                result.exception(record, Reason.ALREADY_PAID, null);
+            } else if (record.getAmount().compareTo(installment.getAmount()) != 0) {
+                result.exception(record, Reason.AMOUNT_MISMATCH, "Installment is " + installment.getAmount().toPlainString());
+            } else if (!REPAYING.contains(loanStatus)) {
+                result.exception(record, Reason.LOAN_NOT_REPAYING, "Loan is " + loanStatus);
+            } else if (!paidInChunk.add(installment.getId())) {
+                result.exception(record, Reason.ALREADY_PAID, "Credited more than once in this file");
+            } else {
+                toPay.add(installment.getId());
+                principalByLoan.merge(installment.getLoanId(), installment.getPrincipal(), BigDecimal::add);
+                result.amountPosted = result.amountPosted.add(record.getAmount());
+                if (installment.getStatus() == Payment.PaymentStatus.OVERDUE) {
+                    result.paidFromOverdue++;
+                } else {
+                    result.paidFromPending++;
+                }
+            }
+        }
+        if (toPay.isEmpty()) {
+            return result;
+        }
+
+        result.posted = paymentJdbcRepository.markPaid(toPay, LocalDate.now());
+        loanJdbcRepository.decrementBalances(principalByLoan);
+        Map<UUID, Loan.LoanStatus> touched = new HashMap<>();
+        for (UUID loanId : principalByLoan.keySet()) {
+            touched.put(loanId, loanStatuses.get(loanId));
+        }
+        for (UUID loanId : loanJdbcRepository.completeRepaid(touched)) {
+            result.completedFrom.add(touched.get(loanId));
+        }
+        return result;
+    }
+
+    private BufferedWriter openReport(UUID runId, long checkpointLine) throws IOException {
+        Path report = reportPath(runId);
+        Files.createDirectories(report.getParent());
+        List<String> kept = new ArrayList<>();
+        kept.add(REPORT_HEADER);
+        if (checkpointLine > 0 && Files.exists(report)) {
+            // Rows past the checkpoint came from a chunk that rolled back; it is reconciled again
+            try (Stream<String> rows = Files.lines(report, StandardCharsets.UTF_8)) {
+                rows.skip(1)
+                        .filter(row -> Long.parseLong(row.substring(0, row.indexOf(','))) <= checkpointLine)
+                        .forEach(kept::add);
+            }
+        }
+        Files.write(report, kept, StandardCharsets.UTF_8);
+        return Files.newBufferedWriter(report, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private Path reportPath(UUID runId) {
+        return Paths.get(reportDirectory).toAbsolutePath().normalize().resolve(runId + "-exceptions.csv");
+    }
+
+    private Path resolve(String fileName) {
+        Path root = Paths.get(directory).toAbsolutePath().normalize();
+        Path file = root.resolve(fileName).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No such settlement file: " + fileName);
+        }
+        return file;
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static final class ChunkResult {
+        long read;
+        int posted;
+        int paidFromPending;
+        int paidFromOverdue;
+        BigDecimal amountPosted = BigDecimal.ZERO;
+        final List<Loan.LoanStatus> completedFrom = new ArrayList<>();
+        // By line, so the report follows the file
+        final Map<Long, String> exceptions = new TreeMap<>();
+        final Map<Reason, Integer> reasons = new HashMap<>();
+
+        void exception(SettlementRecord record, Reason reason, String detail) {
+            add(record.getLine(), reason, csv(record.getLoanId()) + "," + csv(record.getDueDate()) + ","
+                    + csv(record.getAmount().toPlainString()) + "," + csv(record.getReference()) + "," + csv(detail));
+        }
+
+        void rejected(long line, String detail) {
+            add(line, Reason.REJECTED, ",,,," + csv(detail));
+        }
+
+        private void add(long line, Reason reason, String fields) {
+            exceptions.put(line, line + "," + reason + "," + fields);
+            reasons.merge(reason, 1, Integer::sum);
+        }
+    }
+
+    private static final class Throughput {
+        private final long startNanos = System.nanoTime();
+        private final long rowsAtStart;
+
+        Throughput(long rowsAtStart) {
+            this.rowsAtStart = rowsAtStart;
+        }
+
+        double rowsPerSecond(long rowsRead) {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            return seconds > 0 ? (rowsRead - rowsAtStart) / seconds : 0;
+        }
+    }
+}
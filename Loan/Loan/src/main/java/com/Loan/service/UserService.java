@@ -2,13 +2,17 @@ package com.Loan.service;
 
 import com.Loan.entity.User;
 import com.Loan.repository.UserRepository;
+import com.Loan.security.PasswordHashingExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class UserService {
@@ -19,21 +23,38 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashing;
 
-    public User registerUser(User user) {
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    // Blocking work after a hash runs here, so the hashing threads only ever hash
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    /**
+     * Hashes on the password hashing pool and saves on the application task executor;
+     * the caller's thread is free once this returns.
+     *
+     * @throws com.Loan.security.PasswordHashingBusyException if the pool is saturated
+     */
+    public CompletableFuture<User> registerUser(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
-        // Hash password before saving
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        
         // Set default role if not provided
         if (user.getRole() == null) {
             user.setRole(User.Role.USER);
         }
-        
-        return userRepository.save(user);
+
+        // Hash password before saving
+        return passwordHashing.encode(user.getPassword()).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+            User savedUser = userRepository.save(user);
+            dashboardCounters.userRegistered();
+            return savedUser;
+        }, taskExecutor);
     }
 
     public Optional<User> findByEmail(String email) {
@@ -44,7 +65,13 @@ public class UserService {
         return userRepository.findById(id);
     }
 
-    public User authenticate(String email, String password) {
+    /**
+     * Checks the password on the password hashing pool; the returned future fails with
+     * "Invalid credentials" on a mismatch.
+     *
+     * @throws com.Loan.security.PasswordHashingBusyException if the pool is saturated
+     */
+    public CompletableFuture<User> authenticate(String email, String password) {
         logger.debug("Login attempt for email: {}", email);
         
         Optional<User> userOptional = userRepository.findByEmail(email);
@@ -55,13 +82,14 @@ public class UserService {
         }
         
         User user = userOptional.get();
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-             logger.warn("Authentication failed: Password mismatch for email {}", email);
-             throw new RuntimeException("Invalid credentials");
-        }
-        
-        logger.info("Authentication successful for email: {}", email);
-        return user;
+        return passwordHashing.matches(password, user.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                logger.warn("Authentication failed: Password mismatch for email {}", email);
+                throw new RuntimeException("Invalid credentials");
+            }
+            logger.info("Authentication successful for email: {}", email);
+            return user;
+        });
     }
 
     public java.util.List<User> getAllUsers() {
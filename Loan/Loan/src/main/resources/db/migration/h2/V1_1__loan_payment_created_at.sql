@@ -0,0 +1,3 @@
+-- Creation time on loans and payments, for the keyset listings; existing rows are backfilled by V3
+ALTER TABLE loans ADD COLUMN created_at timestamp(6);
+ALTER TABLE payments ADD COLUMN created_at timestamp(6);
@@ -0,0 +1,3 @@
+-- Principal/interest split of each scheduled installment; NULL for older and ad-hoc payments
+ALTER TABLE payments ADD COLUMN principal_component numeric(38,2);
+ALTER TABLE payments ADD COLUMN interest_component numeric(38,2);
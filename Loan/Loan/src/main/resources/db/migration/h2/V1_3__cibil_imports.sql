@@ -0,0 +1,18 @@
+-- Bureau score file imports (CibilImportService)
+create table cibil_imports (
+    rows_per_second float(53),
+    checkpoint_line bigint not null,
+    created_at timestamp(6),
+    finished_at timestamp(6),
+    rows_read bigint not null,
+    rows_rejected bigint not null,
+    rows_unmatched bigint not null,
+    rows_upserted bigint not null,
+    started_at timestamp(6),
+    id uuid not null,
+    error_message TEXT,
+    file_name varchar(255) not null,
+    format enum ('CSV','FIXED_WIDTH') not null,
+    status enum ('COMPLETED','FAILED','INTERRUPTED','QUEUED','RUNNING') not null,
+    primary key (id)
+);
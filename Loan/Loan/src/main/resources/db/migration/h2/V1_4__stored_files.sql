@@ -0,0 +1,14 @@
+-- Catalog of uploaded documents (DocumentCatalogService)
+create table stored_files (
+    checked_at timestamp(6),
+    size_bytes bigint not null,
+    uploaded_at timestamp(6) not null,
+    id uuid not null,
+    loan_id uuid,
+    user_id uuid,
+    content_hash varchar(64),
+    name varchar(255) not null,
+    original_filename varchar(255),
+    status enum ('MISSING','ORPHANED','PRESENT') not null,
+    primary key (id)
+);
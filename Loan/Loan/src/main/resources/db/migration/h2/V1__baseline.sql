@@ -0,0 +1,84 @@
+-- The production schema before migrations were introduced: tables, primary keys and
+-- unique constraints. Databases that already have these tables are baselined at this
+-- version (spring.flyway.baseline-on-migrate) and skip it, so everything added since is
+-- created by a later version. Secondary indexes are created by V2
+-- (com.Loan.repository.QueryIndexMigration), which skips any that exist.
+
+create table cibil_scores (
+    credit_age integer,
+    credit_mix integer,
+    credit_utilization integer,
+    payment_history integer,
+    recent_inquiries integer,
+    score integer not null,
+    last_updated timestamp(6) not null,
+    id uuid not null,
+    user_id uuid not null,
+    primary key (id)
+);
+
+create table jobs (
+    created_at timestamp(6),
+    id uuid not null,
+    company varchar(255) not null,
+    description TEXT not null,
+    location varchar(255) not null,
+    requirements TEXT not null,
+    salary varchar(255) not null,
+    title varchar(255) not null,
+    job_type enum ('CONTRACT','FULL_TIME','PART_TIME') not null,
+    primary key (id)
+);
+
+create table loans (
+    emi numeric(38,2) not null,
+    interest_rate numeric(38,2) not null,
+    outstanding_balance numeric(38,2) not null,
+    principal numeric(38,2) not null,
+    start_date date not null,
+    tenure_months integer not null,
+    id uuid not null,
+    user_id uuid,
+    loan_type varchar(255) not null,
+    rejection_reason varchar(255),
+    status varchar(255) not null,
+    uploaded_file_name varchar(255),
+    uploaded_file_path varchar(255),
+    primary key (id)
+);
+
+create table notifications (
+    is_read boolean,
+    created_at timestamp(6),
+    id uuid not null,
+    user_id uuid,
+    message TEXT not null,
+    type varchar(255) not null,
+    primary key (id)
+);
+
+create table payments (
+    amount numeric(38,2) not null,
+    due_date date not null,
+    paid_date date,
+    id uuid not null,
+    loan_id uuid,
+    user_id uuid,
+    status enum ('OVERDUE','PAID','PENDING') not null,
+    primary key (id)
+);
+
+create table users (
+    created_at timestamp(6),
+    id uuid not null,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    phone varchar(255),
+    role enum ('ADMIN','USER') not null,
+    primary key (id)
+);
+
+alter table cibil_scores add constraint uk_cibil_scores_user unique (user_id);
+
+alter table users add constraint uk_users_email unique (email);
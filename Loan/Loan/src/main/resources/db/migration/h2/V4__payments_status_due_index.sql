@@ -0,0 +1,2 @@
+-- Overdue sweep: PENDING payments in due-date order (OverduePaymentSweeper)
+CREATE INDEX idx_payments_status_due ON payments (status, due_date, id);
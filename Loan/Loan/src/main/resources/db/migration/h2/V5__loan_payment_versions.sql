@@ -0,0 +1,3 @@
+-- Optimistic locking (@Version) on loans and payments; existing rows start at 0
+ALTER TABLE loans ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE payments ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
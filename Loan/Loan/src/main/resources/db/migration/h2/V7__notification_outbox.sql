@@ -0,0 +1,17 @@
+-- Transactional outbox for notification delivery (NotificationDispatcher)
+create table notification_outbox (
+    attempts integer not null,
+    created_at timestamp(6),
+    next_attempt_at timestamp(6) not null,
+    sent_at timestamp(6),
+    id uuid not null,
+    notification_id uuid,
+    user_id uuid not null,
+    last_error varchar(1000),
+    message TEXT not null,
+    type varchar(255) not null,
+    status enum ('DEAD','PENDING','SENT') not null,
+    primary key (id)
+);
+
+create index idx_notification_outbox_status_next on notification_outbox (status, next_attempt_at);
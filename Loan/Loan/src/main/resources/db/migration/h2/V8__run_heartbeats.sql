@@ -0,0 +1,5 @@
+-- Owner node and heartbeat on background runs; existing rows have none and count as expired
+ALTER TABLE cibil_imports ADD COLUMN owner_node VARCHAR(255);
+ALTER TABLE cibil_imports ADD COLUMN heartbeat_at TIMESTAMP(6);
+ALTER TABLE settlement_runs ADD COLUMN owner_node VARCHAR(255);
+ALTER TABLE settlement_runs ADD COLUMN heartbeat_at TIMESTAMP(6);
@@ -0,0 +1,2 @@
+-- A user's own documents, newest first (GET /api/documents)
+CREATE INDEX idx_stored_files_user ON stored_files (user_id, uploaded_at);
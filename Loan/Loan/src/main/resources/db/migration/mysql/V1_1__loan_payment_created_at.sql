@@ -0,0 +1,4 @@
+-- Creation time on loans and payments, for the keyset listings. Existing rows get NULL
+-- here and are backfilled by V3 (com.Loan.repository.CreatedAtBackfillMigration).
+ALTER TABLE loans ADD COLUMN created_at datetime(6), ALGORITHM=INSTANT;
+ALTER TABLE payments ADD COLUMN created_at datetime(6), ALGORITHM=INSTANT;
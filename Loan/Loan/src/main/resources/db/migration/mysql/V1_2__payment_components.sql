@@ -0,0 +1,3 @@
+-- Principal/interest split of each scheduled installment; NULL for payments recorded before
+-- schedules were generated, and for ad-hoc payments
+ALTER TABLE payments ADD COLUMN principal_component decimal(38,2), ADD COLUMN interest_component decimal(38,2), ALGORITHM=INSTANT;
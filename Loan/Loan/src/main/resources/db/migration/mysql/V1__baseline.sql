@@ -0,0 +1,84 @@
+-- The production schema before migrations were introduced: tables, primary keys and
+-- unique constraints. Databases that already have these tables are baselined at this
+-- version (spring.flyway.baseline-on-migrate) and skip it, so everything added since is
+-- created by a later version. Secondary indexes are created by V2
+-- (com.Loan.repository.QueryIndexMigration), which skips any that exist.
+
+create table cibil_scores (
+    credit_age integer,
+    credit_mix integer,
+    credit_utilization integer,
+    payment_history integer,
+    recent_inquiries integer,
+    score integer not null,
+    last_updated datetime(6) not null,
+    id binary(16) not null,
+    user_id binary(16) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table jobs (
+    created_at datetime(6),
+    id binary(16) not null,
+    company varchar(255) not null,
+    description TEXT not null,
+    location varchar(255) not null,
+    requirements TEXT not null,
+    salary varchar(255) not null,
+    title varchar(255) not null,
+    job_type enum ('CONTRACT','FULL_TIME','PART_TIME') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table loans (
+    emi decimal(38,2) not null,
+    interest_rate decimal(38,2) not null,
+    outstanding_balance decimal(38,2) not null,
+    principal decimal(38,2) not null,
+    start_date date not null,
+    tenure_months integer not null,
+    id binary(16) not null,
+    user_id binary(16),
+    loan_type varchar(255) not null,
+    rejection_reason varchar(255),
+    status varchar(255) not null,
+    uploaded_file_name varchar(255),
+    uploaded_file_path varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table notifications (
+    is_read bit,
+    created_at datetime(6),
+    id binary(16) not null,
+    user_id binary(16),
+    message TEXT not null,
+    type varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table payments (
+    amount decimal(38,2) not null,
+    due_date date not null,
+    paid_date date,
+    id binary(16) not null,
+    loan_id binary(16),
+    user_id binary(16),
+    status enum ('OVERDUE','PAID','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    created_at datetime(6),
+    id binary(16) not null,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    phone varchar(255),
+    role enum ('ADMIN','USER') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table cibil_scores add constraint uk_cibil_scores_user unique (user_id);
+
+alter table users add constraint uk_users_email unique (email);
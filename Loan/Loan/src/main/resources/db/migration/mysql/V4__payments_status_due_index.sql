@@ -0,0 +1,3 @@
+-- Overdue sweep: PENDING payments in due-date order (OverduePaymentSweeper). Built in place,
+-- without blocking writes to payments.
+CREATE INDEX idx_payments_status_due ON payments (status, due_date, id) ALGORITHM=INPLACE LOCK=NONE;
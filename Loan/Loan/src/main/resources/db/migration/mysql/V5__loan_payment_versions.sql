@@ -0,0 +1,4 @@
+-- Optimistic locking (@Version) on loans and payments. Existing rows start at 0; INSTANT only
+-- touches the table metadata, so this is immediate however many rows there are.
+ALTER TABLE loans ADD COLUMN version BIGINT NOT NULL DEFAULT 0, ALGORITHM=INSTANT;
+ALTER TABLE payments ADD COLUMN version BIGINT NOT NULL DEFAULT 0, ALGORITHM=INSTANT;
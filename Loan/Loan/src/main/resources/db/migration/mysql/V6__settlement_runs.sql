@@ -0,0 +1,20 @@
+-- Bank settlement file reconciliations (SettlementReconciliationService)
+create table settlement_runs (
+    amount_posted decimal(38,2) not null,
+    rows_per_second float(53),
+    checkpoint_line bigint not null,
+    created_at datetime(6),
+    finished_at datetime(6),
+    rows_exceptions bigint not null,
+    rows_posted bigint not null,
+    rows_read bigint not null,
+    started_at datetime(6),
+    id binary(16) not null,
+    error_message TEXT,
+    file_name varchar(255) not null,
+    status enum ('COMPLETED','FAILED','INTERRUPTED','QUEUED','RUNNING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_settlement_runs_status on settlement_runs (status);
+create index idx_settlement_runs_created on settlement_runs (created_at);
@@ -0,0 +1,18 @@
+-- Transactional outbox for notification delivery (NotificationDispatcher). Rows are written in the
+-- same transaction as the notification and drained in next_attempt_at order.
+create table notification_outbox (
+    attempts integer not null,
+    created_at datetime(6),
+    next_attempt_at datetime(6) not null,
+    sent_at datetime(6),
+    id binary(16) not null,
+    notification_id binary(16),
+    user_id binary(16) not null,
+    last_error varchar(1000),
+    message TEXT not null,
+    type varchar(255) not null,
+    status enum ('DEAD','PENDING','SENT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_notification_outbox_status_next on notification_outbox (status, next_attempt_at);
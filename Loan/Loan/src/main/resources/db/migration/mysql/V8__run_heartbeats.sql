@@ -0,0 +1,4 @@
+-- Owner node and heartbeat on background runs, so a restarting node only interrupts runs whose
+-- owner has stopped sending heartbeats. Existing rows have none and count as expired.
+ALTER TABLE cibil_imports ADD COLUMN owner_node VARCHAR(255), ADD COLUMN heartbeat_at DATETIME(6), ALGORITHM=INSTANT;
+ALTER TABLE settlement_runs ADD COLUMN owner_node VARCHAR(255), ADD COLUMN heartbeat_at DATETIME(6), ALGORITHM=INSTANT;
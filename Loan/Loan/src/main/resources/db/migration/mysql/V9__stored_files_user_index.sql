@@ -0,0 +1,3 @@
+-- A user's own documents, newest first (GET /api/documents). Built in place, without blocking
+-- uploads.
+CREATE INDEX idx_stored_files_user ON stored_files (user_id, uploaded_at) ALGORITHM=INPLACE LOCK=NONE;
@@ -0,0 +1,57 @@
+package com.Loan;
+
+import com.Loan.entity.Loan;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.UserRepository;
+import com.Loan.service.LoanService;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Borrower and loan fixtures shared by the service tests. Each test class passes its
+ * own label, so classes that share a Spring context never collide on the email.
+ */
+public final class Borrowers {
+
+    private Borrowers() {
+    }
+
+    /**
+     * Saves a USER named "{label} Borrower" with the email "{label}-borrower@loan.com".
+     */
+    public static User create(UserRepository userRepository, String label) {
+        User borrower = new User();
+        borrower.setEmail(label.toLowerCase(Locale.ROOT).replace(' ', '-') + "-borrower@loan.com");
+        borrower.setPassword("secret");
+        borrower.setName(label + " Borrower");
+        borrower.setRole(User.Role.USER);
+        return userRepository.save(borrower);
+    }
+
+    /**
+     * A 12-month PERSONAL loan of 120000 at 12%, applied for and approved, so its
+     * payment schedule exists.
+     */
+    public static Loan activeLoan(LoanService loanService, User borrower) {
+        Loan loan = new Loan();
+        loan.setLoanType(Loan.LoanType.PERSONAL);
+        loan.setPrincipal(new BigDecimal("120000"));
+        loan.setInterestRate(new BigDecimal("12"));
+        loan.setTenureMonths(12);
+        loan = loanService.applyForLoan(borrower.getId(), loan);
+        return loanService.decideLoan(loan.getId(), true, null, null, null);
+    }
+
+    /**
+     * Deletes every payment and loan, then the borrower.
+     */
+    public static void delete(PaymentRepository paymentRepository, LoanRepository loanRepository,
+                              UserRepository userRepository, User borrower) {
+        paymentRepository.deleteAll();
+        loanRepository.deleteAll();
+        userRepository.delete(borrower);
+    }
+}
@@ -0,0 +1,87 @@
+package com.Loan;
+
+import com.Loan.entity.Loan;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.UserRepository;
+import com.Loan.service.DashboardCounters;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boots the application without a web server against a private in-memory H2
+ * database and seeds it with loans, for benchmarks that need real repositories.
+ * {@link #startServer} does the same with the web server on a random port.
+ */
+public final class SeededDatabase {
+
+    private SeededDatabase() {
+    }
+
+    public static ConfigurableApplicationContext start(int loanCount) {
+        return seed(run("--spring.main.web-application-type=none"), loanCount);
+    }
+
+    public static ConfigurableApplicationContext startServer(int loanCount, String... args) {
+        String[] serverArgs = new String[args.length + 1];
+        serverArgs[0] = "--server.port=0";
+        System.arraycopy(args, 0, serverArgs, 1, args.length);
+        return seed(run(serverArgs), loanCount);
+    }
+
+    private static ConfigurableApplicationContext run(String... args) {
+        List<String> allArgs = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.Loan=WARN"));
+        allArgs.addAll(List.of(args));
+        return new SpringApplication(LoanApplication.class).run(allArgs.toArray(new String[0]));
+    }
+
+    private static ConfigurableApplicationContext seed(ConfigurableApplicationContext context, int loanCount) {
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        LoanRepository loanRepository = context.getBean(LoanRepository.class);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, loanCount / 10); i++) {
+            User user = new User();
+            user.setEmail("bench" + i + "@loan.com");
+            user.setPassword("not-a-real-hash");
+            user.setName("Bench User " + i);
+            user.setRole(User.Role.USER);
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+
+        Random random = new Random(42);
+        Loan.LoanType[] types = Loan.LoanType.values();
+        Loan.LoanStatus[] statuses = Loan.LoanStatus.values();
+        List<Loan> loans = new ArrayList<>(loanCount);
+        for (int i = 0; i < loanCount; i++) {
+            Loan loan = new Loan();
+            loan.setUser(users.get(i % users.size()));
+            loan.setLoanType(types[random.nextInt(types.length)]);
+            loan.setPrincipal(BigDecimal.valueOf(50_000 + random.nextInt(5_000_000)));
+            loan.setInterestRate(new BigDecimal("9.25"));
+            loan.setTenureMonths(12 * (1 + random.nextInt(20)));
+            loan.setStartDate(LocalDate.now().minusDays(random.nextInt(240)));
+            loan.setEmi(new BigDecimal("12345.67"));
+            loan.setStatus(statuses[random.nextInt(statuses.length)]);
+            loan.setOutstandingBalance(loan.getPrincipal());
+            loans.add(loan);
+        }
+        loanRepository.saveAll(loans);
+
+        // Seeding bypassed the write paths, so bring the counters in line with the table
+        context.getBean(DashboardCounters.class).reconcile();
+        return context;
+    }
+}
@@ -0,0 +1,72 @@
+package com.Loan.controller;
+
+import com.Loan.SeededDatabase;
+import com.Loan.service.DashboardStatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin dashboard endpoints over a seeded H2 database: the in-memory counters,
+ * the aggregate-query fallback and the trends stream pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdminControllerBenchmark {
+
+    @Param({"1000", "10000"})
+    private int loans;
+
+    private ConfigurableApplicationContext context;
+    private AdminController adminController;
+    private DashboardStatsService dashboardStatsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SeededDatabase.start(loans);
+        adminController = context.getBean(AdminController.class);
+        dashboardStatsService = context.getBean(DashboardStatsService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object loanDistribution() {
+        return adminController.getLoanDistribution().getBody();
+    }
+
+    @Benchmark
+    public Object loanDistributionQuery() {
+        return dashboardStatsService.getLoanDistribution();
+    }
+
+    @Benchmark
+    public Object dashboardStatsQuery() {
+        return dashboardStatsService.getDashboardStats();
+    }
+
+    @Benchmark
+    public Object disbursementTrends() {
+        return adminController.getDisbursementTrends().getBody();
+    }
+}
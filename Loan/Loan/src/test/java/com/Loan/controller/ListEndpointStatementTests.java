@@ -0,0 +1,167 @@
+package com.Loan.controller;
+
+import com.Loan.entity.Loan;
+import com.Loan.entity.Notification;
+import com.Loan.entity.Payment;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.NotificationRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every list endpoint must answer in a single statement however many users the
+ * rows belong to, i.e. without resolving each row's user or loan separately.
+ */
+@SpringBootTest
+class ListEndpointStatementTests {
+
+    private static final int BORROWERS = 4;
+
+    @Autowired
+    private LoanController loanController;
+
+    @Autowired
+    private PaymentController paymentController;
+
+    @Autowired
+    private NotificationController notificationController;
+
+    @Autowired
+    private AdminController adminController;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<User> borrowers = new ArrayList<>();
+    private Loan firstLoan;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < BORROWERS; i++) {
+            User user = new User();
+            user.setEmail("list-borrower-" + i + "@loan.com");
+            user.setPassword("secret");
+            user.setName("List Borrower " + i);
+            user.setRole(User.Role.USER);
+            user = userRepository.save(user);
+            borrowers.add(user);
+
+            Loan loan = new Loan();
+            loan.setUser(user);
+            loan.setLoanType(Loan.LoanType.PERSONAL);
+            loan.setPrincipal(new BigDecimal("50000"));
+            loan.setInterestRate(new BigDecimal("12"));
+            loan.setTenureMonths(12);
+            loan.setStartDate(LocalDate.now());
+            loan.setEmi(new BigDecimal("4442.44"));
+            loan.setStatus(Loan.LoanStatus.ACTIVE);
+            loan.setOutstandingBalance(loan.getPrincipal());
+            loan = loanRepository.save(loan);
+            if (firstLoan == null) {
+                firstLoan = loan;
+            }
+
+            for (int j = 0; j < 2; j++) {
+                Payment payment = new Payment();
+                payment.setLoan(loan);
+                payment.setUser(user);
+                payment.setAmount(loan.getEmi());
+                payment.setDueDate(LocalDate.now().plusMonths(j + 1));
+                payment.setStatus(Payment.PaymentStatus.PENDING);
+                paymentRepository.save(payment);
+            }
+
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setType("INFO");
+            notification.setMessage("Loan approved");
+            notificationRepository.save(notification);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAllInBatch();
+        paymentRepository.deleteAll();
+        loanRepository.deleteAll();
+        userRepository.deleteAll(borrowers);
+    }
+
+    @Test
+    void loanListingsRunOneStatement() {
+        assertSingleStatement(() -> loanController.getAllLoans(), BORROWERS);
+        assertSingleStatement(() -> loanController.getUserLoans(borrowers.get(0).getId()), 1);
+    }
+
+    @Test
+    void paymentListingsRunOneStatement() {
+        assertSingleStatement(() -> paymentController.getAllPayments(), BORROWERS * 2);
+        assertSingleStatement(() -> paymentController.getUserPayments(borrowers.get(0).getId()), 2);
+        assertSingleStatement(() -> paymentController.getPendingPayments(borrowers.get(0).getId()), 2);
+        assertSingleStatement(() -> paymentController.getPaymentsByLoan(firstLoan.getId()), 2);
+    }
+
+    @Test
+    void notificationListingsRunOneStatement() {
+        assertSingleStatement(() -> notificationController.getUserNotifications(borrowers.get(0).getId()), 1);
+        assertSingleStatement(() -> adminController.getRecentLogs(), BORROWERS);
+    }
+
+    @Test
+    void keysetPagesRunOneStatement() {
+        Statistics statistics = statistics();
+        statistics.clear();
+        assertThat(loanController.getLoansPage(null, null, null, null, null, 50).getBody().getItems())
+                .hasSize(BORROWERS)
+                .allSatisfy(loan -> assertThat(loan.getUserId()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(paymentController.getPaymentsPage(null, null, null, null, 50).getBody().getItems())
+                .hasSize(BORROWERS * 2)
+                .allSatisfy(payment -> assertThat(payment.getLoanId()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void assertSingleStatement(Supplier<? extends ResponseEntity<? extends Collection<?>>> endpoint, int expectedRows) {
+        Statistics statistics = statistics();
+        statistics.clear();
+        assertThat(endpoint.get().getBody()).hasSize(expectedRows);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
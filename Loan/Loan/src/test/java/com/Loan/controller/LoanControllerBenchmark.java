@@ -0,0 +1,74 @@
+package com.Loan.controller;
+
+import com.Loan.SeededDatabase;
+import com.Loan.dto.LoanDTO;
+import com.Loan.entity.Loan;
+import com.Loan.service.LoanService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity-to-DTO mapping and JSON serialization cost of the loan listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanControllerBenchmark {
+
+    @Param({"1000", "10000"})
+    private int loans;
+
+    private ConfigurableApplicationContext context;
+    private LoanController loanController;
+    private JsonMapper jsonMapper;
+    private List<Loan> loanEntities;
+    private List<LoanDTO> loanDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SeededDatabase.start(loans);
+        loanController = context.getBean(LoanController.class);
+        jsonMapper = context.getBean(JsonMapper.class);
+        loanEntities = context.getBean(LoanService.class).getAllLoans();
+        loanDtos = mapAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<LoanDTO> mapToDto() {
+        return mapAll();
+    }
+
+    @Benchmark
+    public byte[] serializeLoanDtos() {
+        return jsonMapper.writeValueAsBytes(loanDtos);
+    }
+
+    private List<LoanDTO> mapAll() {
+        return loanEntities.stream().map(loanController::mapToDTO).collect(Collectors.toList());
+    }
+}
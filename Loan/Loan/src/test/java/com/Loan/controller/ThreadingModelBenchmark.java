@@ -0,0 +1,168 @@
+package com.Loan.controller;
+
+import com.Loan.SeededDatabase;
+import com.Loan.entity.User;
+import com.Loan.repository.UserRepository;
+import com.Loan.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Throughput of GET /api/loans/user/{id} with {@value #CONCURRENT_REQUESTS} requests in
+ * flight, on Tomcat's platform thread pool versus virtual threads. Every query is held
+ * for {@value #QUERY_LATENCY_MS} ms to stand in for the round trip to a real database,
+ * which the in-memory H2 used here does not have.
+ * <p>
+ * With the default pool of 20 connections both models are limited by the pool; the
+ * larger pool shows what virtual threads gain once the 200 Tomcat threads are the limit.
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.args="ThreadingModelBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadingModelBenchmark {
+
+    static final int CONCURRENT_REQUESTS = 1000;
+    static final long QUERY_LATENCY_MS = 20;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"20", "400"})
+    private int connectionPoolSize;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private List<HttpRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SeededDatabase.startServer(10_000,
+                "--spring.main.sources=" + SimulatedQueryLatency.class.getName(),
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.hikari.maximum-pool-size=" + connectionPoolSize,
+                "--spring.datasource.hikari.connection-timeout=30000");
+        SimulatedQueryLatency.enabled = true;
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String token = context.getBean(JwtUtil.class).generateToken("bench@loan.com", "USER");
+
+        requests = context.getBean(UserRepository.class).findAll().stream()
+                .map(User::getId)
+                .map(id -> HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/loans/user/" + id))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build())
+                .toList();
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().executor(clientExecutor).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SimulatedQueryLatency.enabled = false;
+        clientExecutor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENT_REQUESTS)
+    public int concurrentRequests() {
+        CompletableFuture<?>[] inFlight = new CompletableFuture<?>[CONCURRENT_REQUESTS];
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            inFlight[i] = client.sendAsync(requests.get(i % requests.size()), HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("HTTP " + response.statusCode());
+                        }
+                    });
+        }
+        CompletableFuture.allOf(inFlight).join();
+        return inFlight.length;
+    }
+
+    /**
+     * Holds the connection for {@link #QUERY_LATENCY_MS} on every statement execution,
+     * once enabled after seeding.
+     */
+    public static class SimulatedQueryLatency implements BeanPostProcessor {
+
+        static volatile boolean enabled;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource dataSource
+                    ? delegate(DataSource.class, dataSource, SimulatedQueryLatency::slowConnection)
+                    : bean;
+        }
+
+        private static Object slowConnection(Object result) {
+            return result instanceof Connection connection
+                    ? delegate(Connection.class, connection, SimulatedQueryLatency::slowStatement)
+                    : result;
+        }
+
+        private static Object slowStatement(Object result) {
+            if (!(result instanceof PreparedStatement statement)) {
+                return result;
+            }
+            return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (enabled && method.getName().startsWith("execute")) {
+                            Thread.sleep(QUERY_LATENCY_MS);
+                        }
+                        return invoke(method, statement, args);
+                    });
+        }
+
+        private static <T> T delegate(Class<T> type, T target, UnaryOperator<Object> wrapResult) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                    (proxy, method, args) -> wrapResult.apply(invoke(method, target, args))));
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.Loan.repository;
+
+import com.Loan.entity.CibilImport;
+import com.Loan.entity.Loan;
+import com.Loan.entity.NotificationOutbox;
+import com.Loan.entity.Payment;
+import com.Loan.entity.SettlementRun;
+import com.Loan.entity.StoredFile;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every repository query method, captures the SQL Hibernate issues and asks H2 for
+ * its plan; a plan that scans a whole table fails the test. New query methods must be
+ * added to {@link #finders} (or, if they are meant to read the whole table, to
+ * {@link #WHOLE_TABLE}) or the coverage check fails.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.Loan.repository.QueryPlanTests$RecordingInspector")
+class QueryPlanTests {
+
+    // Aggregates and maintenance reads over every row, where a scan is the right plan
+    private static final Set<String> WHOLE_TABLE = Set.of(
+            "LoanRepository.sumByStatus",
+            "LoanRepository.countByLoanType",
+            "LoanRepository.streamReportRows/0",
+            "PaymentRepository.countByStatus",
+            "StoredFileRepository.findAllNames");
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private CibilScoreRepository cibilScoreRepository;
+
+    @Autowired
+    private CibilImportRepository cibilImportRepository;
+
+    @Autowired
+    private SettlementRunRepository settlementRunRepository;
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void hotFindersUseAnIndex() {
+        Map<String, String> scans = new LinkedHashMap<>();
+        finders().forEach((finder, query) -> {
+            RecordingInspector.SQL.clear();
+            transactionTemplate.executeWithoutResult(status -> query.run());
+            for (String sql : RecordingInspector.SQL) {
+                String plan = explain(sql);
+                if (plan.contains(".tableScan")) {
+                    scans.put(finder, plan);
+                }
+            }
+        });
+
+        assertThat(scans).isEmpty();
+    }
+
+    @Test
+    void everyQueryMethodIsChecked() {
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : List.of(LoanRepository.class, PaymentRepository.class, NotificationRepository.class,
+                CibilScoreRepository.class, CibilImportRepository.class, SettlementRunRepository.class, StoredFileRepository.class,
+                NotificationOutboxRepository.class, UserRepository.class)) {
+            assertThat(Repository.class).isAssignableFrom(repository);
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isSynthetic()) {
+                    declared.add(key(repository, method));
+                }
+            }
+        }
+        Set<String> checked = new TreeSet<>(finders().keySet());
+        checked.addAll(WHOLE_TABLE);
+
+        assertThat(checked).containsAll(declared);
+    }
+
+    private Map<String, Runnable> finders() {
+        UUID id = UUID.randomUUID();
+        Map<String, Runnable> finders = new LinkedHashMap<>();
+        finders.put("LoanRepository.findByUserId", () -> loanRepository.findByUserId(id));
+        finders.put("LoanRepository.findByUserIdAndStatus", () -> loanRepository.findByUserIdAndStatus(id, Loan.LoanStatus.ACTIVE));
+        finders.put("LoanRepository.findDtosByUserId", () -> loanRepository.findDtosByUserId(id));
+        finders.put("LoanRepository.findRecentDtos", () -> loanRepository.findRecentDtos(Limit.of(10)));
+        finders.put("LoanRepository.streamReportRows/2", () -> loanRepository
+                .streamReportRows(LocalDate.now().withDayOfMonth(1), LocalDate.now().plusMonths(1).withDayOfMonth(1)).count());
+        finders.put("LoanRepository.sumPrincipalByMonth", () -> loanRepository.sumPrincipalByMonth(LocalDate.now().minusMonths(5).withDayOfMonth(1),
+                LocalDate.now().plusMonths(1).withDayOfMonth(1)));
+        finders.put("PaymentRepository.findByUserId", () -> paymentRepository.findByUserId(id));
+        finders.put("PaymentRepository.findByLoanId", () -> paymentRepository.findByLoanId(id));
+        finders.put("PaymentRepository.existsByLoanId", () -> paymentRepository.existsByLoanId(id));
+        finders.put("PaymentRepository.findByUserIdAndStatus", () -> paymentRepository.findByUserIdAndStatus(id, Payment.PaymentStatus.PENDING));
+        finders.put("PaymentRepository.findDtosByUserId", () -> paymentRepository.findDtosByUserId(id));
+        finders.put("PaymentRepository.findDtosByUserIdAndStatusIn", () -> paymentRepository.findDtosByUserIdAndStatusIn(id,
+                EnumSet.of(Payment.PaymentStatus.PENDING, Payment.PaymentStatus.OVERDUE)));
+        finders.put("PaymentRepository.findDtosByLoanId", () -> paymentRepository.findDtosByLoanId(id));
+        finders.put("PaymentRepository.findRecentDtos", () -> paymentRepository.findRecentDtos(Limit.of(10)));
+        finders.put("PaymentRepository.countByStatusForLoan", () -> paymentRepository.countByStatusForLoan(id));
+        finders.put("PaymentRepository.deleteByLoanId", () -> paymentRepository.deleteByLoanId(id));
+        finders.put("NotificationRepository.findByUserId", () -> notificationRepository.findByUserId(id));
+        finders.put("NotificationRepository.findByUserIdAndReadFalse", () -> notificationRepository.findByUserIdAndReadFalse(id));
+        finders.put("NotificationRepository.findDtosByUserId", () -> notificationRepository.findDtosByUserId(id));
+        finders.put("NotificationRepository.findRecentDtos", () -> notificationRepository.findRecentDtos(Limit.of(10)));
+        finders.put("CibilScoreRepository.findByUserId", () -> cibilScoreRepository.findByUserId(id));
+        finders.put("CibilImportRepository.findTop50ByOrderByCreatedAtDesc", () -> cibilImportRepository.findTop50ByOrderByCreatedAtDesc());
+        finders.put("CibilImportRepository.claim", () -> cibilImportRepository.claim(id, List.of(CibilImport.Status.FAILED),
+                CibilImport.Status.QUEUED, "node", LocalDateTime.now()));
+        finders.put("CibilImportRepository.heartbeat", () -> cibilImportRepository.heartbeat(List.of(id), "node", LocalDateTime.now()));
+        finders.put("CibilImportRepository.checkpoint", () -> cibilImportRepository.checkpoint(importRun(id), "node", LocalDateTime.now()));
+        finders.put("CibilImportRepository.finish", () -> cibilImportRepository.finish(importRun(id), "node"));
+        finders.put("CibilImportRepository.findExpired", () -> cibilImportRepository.findExpired(List.of(CibilImport.Status.RUNNING), LocalDateTime.now()));
+        finders.put("CibilImportRepository.interruptIfExpired", () -> cibilImportRepository.interruptIfExpired(id,
+                List.of(CibilImport.Status.RUNNING), LocalDateTime.now()));
+        finders.put("SettlementRunRepository.findTop50ByOrderByCreatedAtDesc", () -> settlementRunRepository.findTop50ByOrderByCreatedAtDesc());
+        finders.put("SettlementRunRepository.claim", () -> settlementRunRepository.claim(id, List.of(SettlementRun.Status.FAILED),
+                SettlementRun.Status.QUEUED, "node", LocalDateTime.now()));
+        finders.put("SettlementRunRepository.heartbeat", () -> settlementRunRepository.heartbeat(List.of(id), "node", LocalDateTime.now()));
+        finders.put("SettlementRunRepository.findExpired", () -> settlementRunRepository.findExpired(List.of(SettlementRun.Status.RUNNING), LocalDateTime.now()));
+        finders.put("SettlementRunRepository.interruptIfExpired", () -> settlementRunRepository.interruptIfExpired(id,
+                List.of(SettlementRun.Status.RUNNING), LocalDateTime.now()));
+        finders.put("NotificationOutboxRepository.countByStatus", () -> notificationOutboxRepository.countByStatus(NotificationOutbox.Status.PENDING));
+        finders.put("StoredFileRepository.findBy", () -> storedFileRepository.findBy(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "uploadedAt", "id"))));
+        finders.put("StoredFileRepository.findNamesByStatus", () -> storedFileRepository.findNamesByStatus(StoredFile.Status.MISSING));
+        finders.put("StoredFileRepository.findFirstByNameOrderByUploadedAtAsc", () -> storedFileRepository.findFirstByNameOrderByUploadedAtAsc("a"));
+        finders.put("StoredFileRepository.findByUserIdOrderByUploadedAtDesc", () -> storedFileRepository.findByUserIdOrderByUploadedAtDesc(id, Limit.of(100)));
+        finders.put("StoredFileRepository.existsByNameAndUserId", () -> storedFileRepository.existsByNameAndUserId("a", id));
+        finders.put("StoredFileRepository.countByStatus", () -> storedFileRepository.countByStatus(StoredFile.Status.ORPHANED));
+        finders.put("StoredFileRepository.markMissing", () -> storedFileRepository.markMissing(List.of("a"), LocalDateTime.now()));
+        finders.put("StoredFileRepository.markFound", () -> storedFileRepository.markFound(List.of("a"), LocalDateTime.now()));
+        finders.put("StoredFileRepository.existsByName", () -> storedFileRepository.existsByName("a"));
+        finders.put("UserRepository.findByEmail", () -> userRepository.findByEmail("nobody@loan.com"));
+        finders.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("nobody@loan.com"));
+        return finders;
+    }
+
+    private static CibilImport importRun(UUID id) {
+        CibilImport run = new CibilImport();
+        run.setId(id);
+        run.setStatus(CibilImport.Status.COMPLETED);
+        return run;
+    }
+
+    private String explain(String sql) {
+        // H2 plans at prepare time, so unbound (null) parameters do not change the plan
+        return jdbcTemplate.query("EXPLAIN " + sql, ps -> {
+            for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                ps.setObject(i, null);
+            }
+        }, (rs, row) -> rs.getString(1)).get(0);
+    }
+
+    private static String key(Class<?> repository, Method method) {
+        long overloads = Arrays.stream(repository.getDeclaredMethods()).filter(m -> m.getName().equals(method.getName())).count();
+        String name = repository.getSimpleName() + "." + method.getName();
+        return overloads > 1 ? name + "/" + method.getParameterCount() : name;
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.Loan.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SchemaMigrationTests {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QueryIndexMigration queryIndexMigration;
+
+    @Autowired
+    private CreatedAtBackfillMigration createdAtBackfillMigration;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void everyMigrationIsApplied() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().applied()).allMatch(migration -> migration.getState().isApplied()
+                && !migration.getState().isFailed());
+    }
+
+    @Test
+    void productionDatabaseBaselinedAtV1MigratesToTheCurrentSchema() throws Exception {
+        // A database created before Flyway: the V1 tables, some rows, and no history table
+        DataSource legacy = new DriverManagerDataSource("jdbc:h2:mem:legacy" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = legacy.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/h2/V1__baseline.sql"));
+        }
+        JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+        UUID loanId = UUID.randomUUID();
+        legacyJdbc.update("INSERT INTO loans (id, loan_type, principal, interest_rate, tenure_months, emi, status, " +
+                "outstanding_balance, start_date) VALUES (?, 'personal', 1000, 10, 12, 90, 'active', 1000, ?)",
+                loanId, Date.valueOf(LocalDate.of(2020, 1, 1)));
+
+        Flyway.configure()
+                .dataSource(legacy)
+                .locations("classpath:db/migration/h2")
+                .javaMigrations(queryIndexMigration, createdAtBackfillMigration)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertThat(legacyJdbc.queryForObject("SELECT created_at FROM loans WHERE id = ?", Timestamp.class, loanId))
+                .isEqualTo(Timestamp.valueOf(LocalDate.of(2020, 1, 1).atStartOfDay()));
+        assertThat(legacyJdbc.queryForObject("SELECT COUNT(*) FROM payments WHERE principal_component IS NULL", Long.class)).isZero();
+        assertThat(legacyJdbc.queryForObject("SELECT COUNT(*) FROM cibil_imports", Long.class)).isZero();
+        assertThat(legacyJdbc.queryForObject("SELECT COUNT(*) FROM stored_files", Long.class)).isZero();
+        try (Connection connection = legacy.getConnection()) {
+            assertThat(QueryIndexMigration.exists(connection.getMetaData(), connection,
+                    new QueryIndexMigration.IndexDefinition("stored_files", "idx_stored_files_name", "name"))).isTrue();
+        }
+    }
+
+    @Test
+    void everyIndexDeclaredOnAnEntityIsCreatedByAMigration() throws Exception {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                Table table = entity.getJavaType().getAnnotation(Table.class);
+                if (table == null) {
+                    continue;
+                }
+                for (Index index : table.indexes()) {
+                    QueryIndexMigration.IndexDefinition definition =
+                            new QueryIndexMigration.IndexDefinition(table.name(), index.name(), index.columnList());
+                    if (!QueryIndexMigration.exists(metaData, connection, definition)) {
+                        missing.add(table.name() + "." + index.name());
+                    }
+                }
+            }
+        }
+        assertThat(missing).as("entity indexes with no migration creating them").isEmpty();
+    }
+
+    @Test
+    void indexMigrationOnlyBuildsMissingIndexes() throws Exception {
+        jdbcTemplate.execute("DROP INDEX idx_loans_start_date");
+
+        run(queryIndexMigration);
+        // An already migrated schema is left alone rather than failing on duplicates
+        run(queryIndexMigration);
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(QueryIndexMigration.exists(connection.getMetaData(), connection,
+                    new QueryIndexMigration.IndexDefinition("loans", "idx_loans_start_date", "start_date"))).isTrue();
+        }
+    }
+
+    @Test
+    void backfillSetsCreatedAtFromTheStartAndDueDates() throws Exception {
+        LocalDate start = LocalDate.of(2019, 4, 1);
+        int rows = CreatedAtBackfillMigration.BATCH_SIZE + 5;
+        List<UUID> loanIds = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            UUID loanId = UUID.randomUUID();
+            loanIds.add(loanId);
+            jdbcTemplate.update("INSERT INTO loans (id, loan_type, principal, interest_rate, tenure_months, emi, status, " +
+                            "outstanding_balance, start_date) VALUES (?, 'personal', 1000, 10, 12, 90, 'active', 1000, ?)",
+                    loanId, Date.valueOf(start));
+        }
+        UUID paymentId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO payments (id, loan_id, amount, due_date, status) VALUES (?, ?, 90, ?, 'PENDING')",
+                paymentId, loanIds.get(0), Date.valueOf(start.plusMonths(1)));
+
+        run(createdAtBackfillMigration);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans WHERE created_at IS NULL", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT created_at FROM loans WHERE id = ?", Timestamp.class, loanIds.get(rows - 1)))
+                .isEqualTo(Timestamp.valueOf(start.atStartOfDay()));
+        assertThat(jdbcTemplate.queryForObject("SELECT created_at FROM payments WHERE id = ?", Timestamp.class, paymentId))
+                .isEqualTo(Timestamp.valueOf(start.plusMonths(1).atStartOfDay()));
+
+        jdbcTemplate.update("DELETE FROM payments WHERE id = ?", paymentId);
+        for (UUID loanId : loanIds) {
+            jdbcTemplate.update("DELETE FROM loans WHERE id = ?", loanId);
+        }
+    }
+
+    private void run(JavaMigration migration) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            migration.migrate(new Context() {
+                @Override
+                public Configuration getConfiguration() {
+                    return null;
+                }
+
+                @Override
+                public Connection getConnection() {
+                    return connection;
+                }
+            });
+        }
+    }
+}
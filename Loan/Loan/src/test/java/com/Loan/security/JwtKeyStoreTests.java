@@ -0,0 +1,111 @@
+package com.Loan.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.KeyGenerator;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyStoreTests {
+
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void nodesSharingTheKeystoreAcceptEachOthersTokens() throws Exception {
+        Path file = dir.resolve("jwt-keys.p12");
+        KeyStore keys = newKeyStore();
+        addKey(keys, "2026-01");
+        save(keys, file, 1_000);
+
+        JwtUtil first = new JwtUtil(load(file), 100);
+        JwtUtil second = new JwtUtil(load(file), 100);
+
+        String token = first.generateToken("node@loan.com", "USER");
+        assertThat(second.parse(token).getEmail()).isEqualTo("node@loan.com");
+        assertThat(second.parse(token).getKeyId()).isEqualTo("2026-01");
+    }
+
+    @Test
+    void rotatedKeysKeepVerifyingUntilRetired() throws Exception {
+        Path file = dir.resolve("jwt-keys.p12");
+        KeyStore keys = newKeyStore();
+        addKey(keys, "2026-01");
+        save(keys, file, 1_000);
+        JwtKeyStore store = load(file);
+        JwtUtil jwtUtil = new JwtUtil(store, 100);
+        String oldToken = jwtUtil.generateToken("rotate@loan.com", "USER");
+
+        addKey(keys, "2026-10");
+        save(keys, file, 2_000);
+        store.reloadIfChanged();
+        String newToken = jwtUtil.generateToken("rotate@loan.com", "USER");
+
+        assertThat(jwtUtil.parse(newToken).getKeyId()).isEqualTo("2026-10");
+        assertThat(jwtUtil.parse(oldToken).getKeyId()).isEqualTo("2026-01");
+
+        keys.deleteEntry("2026-01");
+        save(keys, file, 3_000);
+        store.reloadIfChanged();
+
+        // Already cached, but the key behind it is gone
+        assertThatThrownBy(() -> jwtUtil.parse(oldToken)).isInstanceOf(JwtException.class);
+        assertThat(jwtUtil.parse(newToken).getEmail()).isEqualTo("rotate@loan.com");
+    }
+
+    @Test
+    void brokenReloadKeepsTheCurrentKeys() throws Exception {
+        Path file = dir.resolve("jwt-keys.p12");
+        KeyStore keys = newKeyStore();
+        addKey(keys, "2026-01");
+        save(keys, file, 1_000);
+        JwtKeyStore store = load(file);
+
+        Files.write(file, List.of("not a keystore"));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000));
+        store.reloadIfChanged();
+
+        assertThat(store.getSigningKid()).isEqualTo("2026-01");
+    }
+
+    private static JwtKeyStore load(Path file) throws Exception {
+        JwtKeyStore store = new JwtKeyStore();
+        ReflectionTestUtils.setField(store, "path", file.toString());
+        ReflectionTestUtils.setField(store, "password", PASSWORD);
+        ReflectionTestUtils.setField(store, "activeKid", "");
+        store.load();
+        return store;
+    }
+
+    private static KeyStore newKeyStore() throws Exception {
+        KeyStore keys = KeyStore.getInstance("PKCS12");
+        keys.load(null, PASSWORD.toCharArray());
+        return keys;
+    }
+
+    private static void addKey(KeyStore keys, String alias) throws Exception {
+        KeyGenerator generator = KeyGenerator.getInstance("HmacSHA256");
+        generator.init(256);
+        keys.setEntry(alias, new KeyStore.SecretKeyEntry(generator.generateKey()),
+                new KeyStore.PasswordProtection(PASSWORD.toCharArray()));
+    }
+
+    private static void save(KeyStore keys, Path file, long modified) throws Exception {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            keys.store(out, PASSWORD.toCharArray());
+        }
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified));
+    }
+}
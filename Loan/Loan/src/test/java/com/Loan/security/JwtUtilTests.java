@@ -0,0 +1,46 @@
+package com.Loan.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTests {
+
+    private final JwtUtil jwtUtil = new JwtUtil(100);
+
+    @Test
+    void parsesTheTokenIntoAPrincipal() {
+        String token = jwtUtil.generateToken("jwt@loan.com", "ADMIN");
+
+        JwtPrincipal principal = jwtUtil.parse(token);
+
+        assertThat(principal.getEmail()).isEqualTo("jwt@loan.com");
+        assertThat(principal.getRole()).isEqualTo("ADMIN");
+        assertThat(principal.isExpired()).isFalse();
+        assertThat(jwtUtil.validateToken(token, "jwt@loan.com")).isTrue();
+        assertThat(jwtUtil.validateToken(token, "someone@loan.com")).isFalse();
+    }
+
+    @Test
+    void repeatedTokensAreServedFromTheCache() {
+        String token = jwtUtil.generateToken("jwt@loan.com", "USER");
+
+        assertThat(jwtUtil.parse(token)).isSameAs(jwtUtil.parse(token));
+
+        JwtUtil uncached = new JwtUtil(0);
+        String uncachedToken = uncached.generateToken("jwt@loan.com", "USER");
+        assertThat(uncached.parse(uncachedToken)).isNotSameAs(uncached.parse(uncachedToken));
+    }
+
+    @Test
+    void tamperedAndForeignTokensAreRejected() {
+        String token = jwtUtil.generateToken("jwt@loan.com", "USER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String foreign = new JwtUtil().generateToken("jwt@loan.com", "USER");
+
+        assertThatThrownBy(() -> jwtUtil.parse(tampered)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtUtil.parse(foreign)).isInstanceOf(JwtException.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.Loan.security;
+
+import com.Loan.entity.User;
+import com.Loan.repository.UserRepository;
+import com.Loan.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "loan.security.bcrypt.strength=4",
+        "loan.security.hashing.threads=1",
+        "loan.security.hashing.queue-capacity=1"
+})
+class PasswordHashingExecutorTests {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashing;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void hashesWithTheConfiguredStrength() {
+        String hash = passwordHashing.encode("secret").join();
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(passwordHashing.matches("secret", hash).join()).isTrue();
+        assertThat(passwordHashing.matches("wrong", hash).join()).isFalse();
+    }
+
+    @Test
+    void loginRunsOnTheHashingPool() throws Exception {
+        assertThat(login("admin@loan.com", "admin123")).isEqualTo(200);
+        assertThat(login("admin@loan.com", "wrong")).isEqualTo(500);
+    }
+
+    @Test
+    void registrationSavesOffTheHashingPool() {
+        Executor taskExecutor = (Executor) ReflectionTestUtils.getField(userService, "taskExecutor");
+        StringBuilder savedOn = new StringBuilder();
+        ReflectionTestUtils.setField(userService, "taskExecutor", (Executor) command -> taskExecutor.execute(() -> {
+            savedOn.append(Thread.currentThread().getName());
+            command.run();
+        }));
+        User user = new User();
+        user.setEmail("hashing-pool@loan.com");
+        user.setPassword("secret");
+        user.setName("Hashing Pool");
+        try {
+            User saved = userService.registerUser(user).join();
+
+            assertThat(userRepository.findById(saved.getId()).orElseThrow().getPassword()).startsWith("$2a$04$");
+            assertThat(savedOn.toString()).isNotEmpty().doesNotStartWith("password-hashing-");
+        } finally {
+            ReflectionTestUtils.setField(userService, "taskExecutor", taskExecutor);
+            userRepository.findByEmail("hashing-pool@loan.com").ifPresent(userRepository::delete);
+        }
+    }
+
+    @Test
+    void saturatedPoolAnswersTooManyRequests() throws Exception {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(passwordHashing, "executor");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Occupy the only worker and the only queue slot
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        started.await();
+        executor.execute(() -> { });
+        try {
+            assertThatThrownBy(() -> passwordHashing.encode("secret"))
+                    .isInstanceOf(PasswordHashingBusyException.class);
+            assertThat(login("admin@loan.com", "admin123")).isEqualTo(429);
+        } finally {
+            release.countDown();
+        }
+        while (executor.getQueue().size() + executor.getActiveCount() > 0) {
+            Thread.sleep(10);
+        }
+        assertThat(passwordHashing.encode("secret").join()).isNotBlank();
+    }
+
+    private int login(String email, String password) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
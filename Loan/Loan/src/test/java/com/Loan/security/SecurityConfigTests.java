@@ -0,0 +1,159 @@
+package com.Loan.security;
+
+import com.Loan.dto.StoredDocument;
+import com.Loan.entity.User;
+import com.Loan.repository.StoredFileRepository;
+import com.Loan.repository.UserRepository;
+import com.Loan.service.DocumentCatalogService;
+import com.Loan.service.DocumentStorageService;
+import com.Loan.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "loan.documents.directory=target/security-documents-test",
+        "loan.security.bcrypt.strength=4"
+})
+class SecurityConfigTests {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private DocumentCatalogService documentCatalogService;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Test
+    void apiRequiresAValidBearerToken() throws Exception {
+        assertThat(get("/api/loans", null)).isEqualTo(401);
+        assertThat(get("/api/loans", "not-a-jwt")).isEqualTo(401);
+        assertThat(get("/api/loans", new JwtUtil().generateToken("user@loan.com", "USER"))).isEqualTo(401);
+        assertThat(get("/api/loans", jwtUtil.generateToken("user@loan.com", "USER"))).isEqualTo(200);
+    }
+
+    @Test
+    void adminEndpointsRequireTheAdminRole() throws Exception {
+        assertThat(get("/api/admin/stats", jwtUtil.generateToken("user@loan.com", "USER"))).isEqualTo(403);
+        assertThat(get("/api/admin/stats", jwtUtil.generateToken("admin@loan.com", "ADMIN"))).isEqualTo(200);
+    }
+
+    @Test
+    void usersReachTheirOwnDocumentsButNotTheAdminFiles() throws Exception {
+        User owner = register("documents-owner@loan.com");
+        User other = register("documents-other@loan.com");
+        try {
+            StoredDocument own = store("own payslip", "payslip.pdf", owner);
+            StoredDocument others = store("someone else's payslip", "other.pdf", other);
+            String token = login("documents-owner@loan.com");
+
+            HttpResponse<String> listing = client.send(HttpRequest.newBuilder(uri("/api/documents"))
+                    .header("Authorization", "Bearer " + token).GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(listing.statusCode()).isEqualTo(200);
+            assertThat(listing.body()).contains(own.getName(), "payslip.pdf").doesNotContain(others.getName());
+
+            assertThat(get("/api/documents/" + own.getName(), token)).isEqualTo(200);
+            assertThat(get("/api/documents/" + others.getName(), token)).isEqualTo(404);
+            assertThat(get("/api/admin/files", token)).isEqualTo(403);
+            assertThat(get("/api/admin/files/" + own.getName(), token)).isEqualTo(403);
+
+            String boundary = "----" + UUID.randomUUID();
+            String body = "--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"correction.docx\"\r\n"
+                    + "Content-Type: application/octet-stream\r\n\r\n"
+                    + "corrected figures\r\n"
+                    + "--" + boundary + "--\r\n";
+            HttpResponse<Void> upload = client.send(HttpRequest.newBuilder(uri("/api/documents"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.discarding());
+            assertThat(upload.statusCode()).isEqualTo(200);
+            assertThat(documentCatalogService.listForUser(owner.getId(), 10)).hasSize(2);
+        } finally {
+            storedFileRepository.deleteAllInBatch();
+            userRepository.delete(owner);
+            userRepository.delete(other);
+        }
+    }
+
+    @Test
+    void publicEndpointsAndPreflightNeedNoToken() throws Exception {
+        assertThat(get("/actuator/health", null)).isEqualTo(200);
+
+        HttpResponse<Void> preflight = client.send(HttpRequest.newBuilder(uri("/api/loans"))
+                .method("OPTIONS", HttpRequest.BodyPublishers.noBody())
+                .header("Origin", "http://localhost:3000")
+                .header("Access-Control-Request-Method", "GET")
+                .header("Access-Control-Request-Headers", "authorization")
+                .build(), HttpResponse.BodyHandlers.discarding());
+        assertThat(preflight.statusCode()).isEqualTo(200);
+        assertThat(preflight.headers().firstValue("Access-Control-Allow-Origin")).isPresent();
+    }
+
+    private User register(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setName(email);
+        return userService.registerUser(user).join();
+    }
+
+    private String login(String email) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + email + "\",\"password\":\"secret\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return jsonMapper.readTree(response.body()).get("token").asString();
+    }
+
+    private StoredDocument store(String content, String originalFilename, User owner) throws Exception {
+        StoredDocument document = documentStorageService.store(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), originalFilename);
+        documentCatalogService.catalog(document, null, owner.getId());
+        return document;
+    }
+
+    private int get(String path, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
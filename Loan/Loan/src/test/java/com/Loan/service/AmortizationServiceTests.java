@@ -0,0 +1,109 @@
+package com.Loan.service;
+
+import com.Loan.Borrowers;
+import com.Loan.dto.InstallmentDTO;
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AmortizationServiceTests {
+
+    @Autowired
+    private AmortizationService amortizationService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = Borrowers.create(userRepository, "Schedule");
+    }
+
+    @AfterEach
+    void tearDown() {
+        Borrowers.delete(paymentRepository, loanRepository, userRepository, borrower);
+    }
+
+    @Test
+    void scheduleRepaysPrincipalExactly() {
+        Loan loan = loanService.applyForLoan(borrower.getId(), homeLoan());
+
+        List<InstallmentDTO> schedule = amortizationService.buildSchedule(loan);
+
+        assertThat(schedule).hasSize(360);
+        BigDecimal repaid = schedule.stream().map(InstallmentDTO::getPrincipal).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(repaid).isEqualByComparingTo(loan.getPrincipal());
+        assertThat(schedule.get(359).getBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(schedule.get(0).getPayment()).isEqualByComparingTo(loan.getEmi());
+        assertThat(schedule.get(0).getDueDate()).isEqualTo(loan.getStartDate().plusMonths(1));
+    }
+
+    @Test
+    void activationWritesScheduleOnce() {
+        Loan loan = loanService.applyForLoan(borrower.getId(), homeLoan());
+
+        loanService.decideLoan(loan.getId(), true, null, null, null);
+        List<Payment> payments = paymentRepository.findByLoanId(loan.getId());
+        assertThat(payments).hasSize(360);
+        assertThat(payments).allMatch(payment -> payment.getStatus() == Payment.PaymentStatus.PENDING);
+        assertThat(paymentRepository.findByUserIdAndStatus(borrower.getId(), Payment.PaymentStatus.PENDING)).hasSize(360);
+
+        // Re-activating the same loan must not duplicate the schedule
+        Loan defaulted = new Loan();
+        defaulted.setStatus(Loan.LoanStatus.DEFAULTED);
+        loanService.updateLoan(loan.getId(), defaulted);
+        Loan active = new Loan();
+        active.setStatus(Loan.LoanStatus.ACTIVE);
+        loanService.updateLoan(loan.getId(), active);
+        assertThat(paymentRepository.findByLoanId(loan.getId())).hasSize(360);
+    }
+
+    @Test
+    void scheduleIsWrittenForALoanWhoseUserIsGone() {
+        Loan loan = loanService.applyForLoan(borrower.getId(), homeLoan());
+        // What @NotFound(IGNORE) leaves on a loan whose user row was deleted
+        loan.setUser(null);
+
+        try {
+            assertThat(amortizationService.generatePayments(loan)).isEqualTo(360);
+            assertThat(paymentRepository.findByLoanId(loan.getId())).allMatch(payment -> payment.getUser() == null);
+        } finally {
+            // deleteAll would load these payments and trip over their missing user
+            paymentRepository.deleteAllInBatch();
+        }
+    }
+
+    private static Loan homeLoan() {
+        Loan loan = new Loan();
+        loan.setLoanType(Loan.LoanType.HOME);
+        loan.setPrincipal(new BigDecimal("5000000"));
+        loan.setInterestRate(new BigDecimal("8.5"));
+        loan.setTenureMonths(360);
+        return loan;
+    }
+}
@@ -0,0 +1,206 @@
+package com.Loan.service;
+
+import com.Loan.entity.CibilImport;
+import com.Loan.entity.CibilScore;
+import com.Loan.entity.User;
+import com.Loan.repository.CibilImportRepository;
+import com.Loan.repository.CibilScoreRepository;
+import com.Loan.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "loan.cibil.import.directory=target/bureau-test",
+        "loan.cibil.import.chunk-size=2",
+        "loan.cibil.import.partitions=2"
+})
+class CibilImportServiceTests {
+
+    @Autowired
+    private CibilImportService cibilImportService;
+
+    @Autowired
+    private CibilImportRepository cibilImportRepository;
+
+    @Autowired
+    private CibilScoreRepository cibilScoreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User first;
+    private User second;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(Paths.get("target/bureau-test"));
+        first = userRepository.save(user("bureau-first@loan.com"));
+        second = userRepository.save(user("bureau-second@loan.com"));
+
+        CibilScore existing = new CibilScore();
+        existing.setUser(second);
+        existing.setScore(610);
+        existing.setLastUpdated(LocalDateTime.now().minusDays(30));
+        cibilScoreRepository.save(existing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cibilImportRepository.deleteAll();
+        cibilScoreRepository.deleteAll();
+        userRepository.deleteAll(List.of(first, second));
+    }
+
+    @Test
+    void csvRowsAreResolvedAndUpserted() throws IOException {
+        CibilImport cibilImport = run("nightly.csv", CibilImport.Format.CSV, List.of(
+                "borrower,score,payment_history,credit_utilization,credit_age,credit_mix,recent_inquiries",
+                "bureau-first@loan.com,745,95,30,60,70,2",
+                second.getId() + ",702,,,,,",
+                "nobody@loan.com,680,1,2,3,4,5",
+                "",
+                "bureau-first@loan.com,1200,1,2,3,4,5"));
+
+        assertThat(cibilImport.getStatus()).isEqualTo(CibilImport.Status.COMPLETED);
+        assertThat(cibilImport.getRowsRead()).isEqualTo(4);
+        assertThat(cibilImport.getRowsUpserted()).isEqualTo(2);
+        assertThat(cibilImport.getRowsUnmatched()).isEqualTo(1);
+        assertThat(cibilImport.getRowsRejected()).isEqualTo(1);
+        assertThat(cibilImport.getCheckpointLine()).isEqualTo(5);
+        assertThat(cibilImport.getRowsPerSecond()).isNotNull();
+
+        CibilScore inserted = cibilScoreRepository.findByUserId(first.getId()).orElseThrow();
+        assertThat(inserted.getScore()).isEqualTo(745);
+        assertThat(inserted.getCreditUtilization()).isEqualTo(30);
+        CibilScore updated = cibilScoreRepository.findByUserId(second.getId()).orElseThrow();
+        assertThat(updated.getScore()).isEqualTo(702);
+        assertThat(updated.getPaymentHistory()).isNull();
+        assertThat(cibilScoreRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void resumedImportStartsAfterTheCheckpoint() throws IOException {
+        Path file = write("resume.txt", List.of(
+                fixedWidth("bureau-first@loan.com", "500"),
+                fixedWidth("bureau-second@loan.com", "510"),
+                fixedWidth("bureau-first@loan.com", "777")));
+        CibilImport interrupted = new CibilImport();
+        interrupted.setFileName(file.getFileName().toString());
+        interrupted.setFormat(CibilImport.Format.FIXED_WIDTH);
+        interrupted.setStatus(CibilImport.Status.INTERRUPTED);
+        interrupted.setCheckpointLine(2);
+        interrupted = cibilImportRepository.save(interrupted);
+
+        CibilImport resumed = cibilImportService.runImport(interrupted.getId());
+
+        assertThat(resumed.getStatus()).isEqualTo(CibilImport.Status.COMPLETED);
+        assertThat(resumed.getRowsRead()).isEqualTo(1);
+        assertThat(resumed.getCheckpointLine()).isEqualTo(3);
+        assertThat(cibilScoreRepository.findByUserId(first.getId()).orElseThrow().getScore()).isEqualTo(777);
+        // Line 2 was before the checkpoint, so the existing score is untouched
+        assertThat(cibilScoreRepository.findByUserId(second.getId()).orElseThrow().getScore()).isEqualTo(610);
+    }
+
+    @Test
+    void missingFileFailsTheImport() {
+        CibilImport cibilImport = queue("gone.csv", CibilImport.Format.CSV);
+
+        CibilImport failed = cibilImportService.runImport(cibilImport.getId());
+
+        assertThat(failed.getStatus()).isEqualTo(CibilImport.Status.FAILED);
+        assertThat(failed.isResumable()).isTrue();
+    }
+
+    @Test
+    void onlyImportsWhoseHeartbeatExpiredAreInterrupted() {
+        CibilImport live = running("other-node", LocalDateTime.now());
+        CibilImport abandoned = running("gone-node", LocalDateTime.now().minusMinutes(10));
+
+        cibilImportService.markInterrupted(LocalDateTime.now().minusMinutes(2));
+
+        assertThat(cibilImportRepository.findById(live.getId()).orElseThrow().getStatus()).isEqualTo(CibilImport.Status.RUNNING);
+        assertThat(cibilImportRepository.findById(abandoned.getId()).orElseThrow().getStatus()).isEqualTo(CibilImport.Status.INTERRUPTED);
+
+        // Running elsewhere, so this node does not start a second runner on it
+        CibilImport untouched = cibilImportService.runImport(live.getId());
+        assertThat(untouched.getStatus()).isEqualTo(CibilImport.Status.RUNNING);
+        assertThat(untouched.getOwnerNode()).isEqualTo("other-node");
+
+        // Two nodes resuming the same import: only the first claim wins
+        List<CibilImport.Status> resumable = List.of(CibilImport.Status.FAILED, CibilImport.Status.INTERRUPTED);
+        assertThat(cibilImportRepository.claim(abandoned.getId(), resumable, CibilImport.Status.QUEUED, "node-a", LocalDateTime.now())).isEqualTo(1);
+        assertThat(cibilImportRepository.claim(abandoned.getId(), resumable, CibilImport.Status.QUEUED, "node-b", LocalDateTime.now())).isZero();
+        assertThat(cibilImportRepository.findById(abandoned.getId()).orElseThrow().getOwnerNode()).isEqualTo("node-a");
+    }
+
+    @Test
+    void checkpointsStopOnceTheRunIsInterruptedElsewhere() {
+        CibilImport mine = running("this-node", LocalDateTime.now().minusMinutes(10));
+        mine.setCheckpointLine(40);
+        assertThat(cibilImportRepository.checkpoint(mine, "this-node", LocalDateTime.now())).isEqualTo(1);
+        assertThat(cibilImportRepository.checkpoint(mine, "other-node", LocalDateTime.now())).isZero();
+
+        // Another node's sweep saw a stale heartbeat before this node's next checkpoint
+        cibilImportRepository.interruptIfExpired(mine.getId(), List.of(CibilImport.Status.RUNNING), LocalDateTime.now().plusMinutes(1));
+        mine.setCheckpointLine(60);
+        assertThat(cibilImportRepository.checkpoint(mine, "this-node", LocalDateTime.now())).isZero();
+        mine.setStatus(CibilImport.Status.COMPLETED);
+        assertThat(cibilImportRepository.finish(mine, "this-node")).isZero();
+
+        CibilImport stored = cibilImportRepository.findById(mine.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(CibilImport.Status.INTERRUPTED);
+        assertThat(stored.getCheckpointLine()).isEqualTo(40);
+    }
+
+    private CibilImport running(String node, LocalDateTime heartbeatAt) {
+        CibilImport cibilImport = new CibilImport();
+        cibilImport.setFileName("elsewhere.csv");
+        cibilImport.setFormat(CibilImport.Format.CSV);
+        cibilImport.setStatus(CibilImport.Status.RUNNING);
+        cibilImport.setOwnerNode(node);
+        cibilImport.setHeartbeatAt(heartbeatAt);
+        return cibilImportRepository.save(cibilImport);
+    }
+
+    private CibilImport run(String name, CibilImport.Format format, List<String> lines) throws IOException {
+        write(name, lines);
+        return cibilImportService.runImport(queue(name, format).getId());
+    }
+
+    private CibilImport queue(String name, CibilImport.Format format) {
+        CibilImport cibilImport = new CibilImport();
+        cibilImport.setFileName(name);
+        cibilImport.setFormat(format);
+        cibilImport.setStatus(CibilImport.Status.QUEUED);
+        return cibilImportRepository.save(cibilImport);
+    }
+
+    private static Path write(String name, List<String> lines) throws IOException {
+        return Files.write(Paths.get("target/bureau-test", name), lines);
+    }
+
+    private static String fixedWidth(String borrower, String score) {
+        return String.format("%-64s%3s", borrower, score);
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setName(email);
+        user.setRole(User.Role.USER);
+        return user;
+    }
+}
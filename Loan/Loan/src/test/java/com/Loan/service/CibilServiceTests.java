@@ -0,0 +1,109 @@
+package com.Loan.service;
+
+import com.Loan.Borrowers;
+import com.Loan.dto.CibilScoreDTO;
+import com.Loan.entity.CibilScore;
+import com.Loan.entity.User;
+import com.Loan.repository.CibilScoreRepository;
+import com.Loan.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CibilServiceTests {
+
+    @Autowired
+    private CibilService cibilService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CibilScoreRepository cibilScoreRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CibilService.CACHE).clear();
+        borrower = Borrowers.create(userRepository, "Cibil");
+    }
+
+    @AfterEach
+    void tearDown() {
+        cibilScoreRepository.deleteAll();
+        userRepository.delete(borrower);
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCacheUntilAWrite() {
+        CibilScore created = cibilService.createCibilScore(borrower.getId(), score(720));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        double hitsBefore = hits();
+
+        assertThat(cibilService.getCibilScoreByUserId(borrower.getId())).map(CibilScoreDTO::getScore).contains(720);
+        statistics.clear();
+        assertThat(cibilService.getCibilScoreByUserId(borrower.getId())).map(CibilScoreDTO::getScore).contains(720);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(hits() - hitsBefore).isEqualTo(1);
+
+        created.setScore(650);
+        cibilService.updateScore(borrower.getId(), created);
+        assertThat(cibilService.getCibilScoreByUserId(borrower.getId())).map(CibilScoreDTO::getScore).contains(650);
+    }
+
+    @Test
+    void updateEvictsThePathUserWhateverTheBodySays() {
+        cibilService.createCibilScore(borrower.getId(), score(720));
+        assertThat(cibilService.getCibilScoreByUserId(borrower.getId())).map(CibilScoreDTO::getScore).contains(720);
+
+        // No user and no id in the body: the path user's row is still the one updated and evicted
+        CibilScore body = new CibilScore();
+        body.setScore(600);
+        cibilService.updateScore(borrower.getId(), body);
+
+        assertThat(cibilService.getCibilScoreByUserId(borrower.getId())).map(CibilScoreDTO::getScore).contains(600);
+        assertThat(cibilScoreRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void missingScoreIsNotCached() {
+        assertThat(cibilService.getCibilScoreByUserId(borrower.getId())).isEmpty();
+        cibilScoreRepository.save(score(700));
+        assertThat(cibilService.getCibilScoreByUserId(borrower.getId())).map(CibilScoreDTO::getScore).contains(700);
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", CibilService.CACHE).tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    private CibilScore score(int value) {
+        CibilScore score = new CibilScore();
+        score.setUser(borrower);
+        score.setScore(value);
+        score.setLastUpdated(LocalDateTime.now());
+        return score;
+    }
+}
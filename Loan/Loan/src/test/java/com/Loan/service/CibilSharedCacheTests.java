@@ -0,0 +1,80 @@
+package com.Loan.service;
+
+import com.Loan.Borrowers;
+import com.Loan.dto.CibilScoreDTO;
+import com.Loan.entity.CibilScore;
+import com.Loan.entity.User;
+import com.Loan.repository.CibilScoreRepository;
+import com.Loan.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "loan.cache.store=shared")
+class CibilSharedCacheTests {
+
+    @Autowired
+    private CibilService cibilService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CibilScoreRepository cibilScoreRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = Borrowers.create(userRepository, "Shared Cache");
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.getCache(CibilService.CACHE).clear();
+        cibilScoreRepository.deleteAll();
+        userRepository.delete(borrower);
+    }
+
+    @Test
+    void entriesAreStoredByValueAndEvictedOnWrite() {
+        assertThat(cacheManager).isInstanceOfSatisfying(ConcurrentMapCacheManager.class,
+                manager -> assertThat(manager.isStoreByValue()).isTrue());
+        CibilScore score = new CibilScore();
+        score.setScore(720);
+        cibilService.createCibilScore(borrower.getId(), score);
+
+        CibilScoreDTO first = cibilService.getCibilScoreByUserId(borrower.getId()).orElseThrow();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CibilScoreDTO second = cibilService.getCibilScoreByUserId(borrower.getId()).orElseThrow();
+
+        // Served from the store, as a copy that changing the first read does not touch
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getUserId()).isEqualTo(borrower.getId());
+        assertThat(second.getFactors()).isNotNull();
+        first.setScore(1);
+        assertThat(cibilService.getCibilScoreByUserId(borrower.getId())).map(CibilScoreDTO::getScore).contains(720);
+
+        CibilScore update = new CibilScore();
+        update.setScore(650);
+        cibilService.updateScore(borrower.getId(), update);
+        assertThat(cibilService.getCibilScoreByUserId(borrower.getId())).map(CibilScoreDTO::getScore).contains(650);
+    }
+}
@@ -0,0 +1,166 @@
+package com.Loan.service;
+
+import com.Loan.Borrowers;
+import com.Loan.entity.Loan;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DashboardCountersTests {
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = Borrowers.create(userRepository, "Counters");
+        dashboardCounters.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Borrowers.delete(paymentRepository, loanRepository, userRepository, borrower);
+    }
+
+    @Test
+    void writePathsApplyDeltasWithoutDrift() {
+        Map<String, Object> before = dashboardCounters.getDashboardStats();
+
+        Loan first = loanService.applyForLoan(borrower.getId(), newLoan("50000"));
+        Loan second = loanService.applyForLoan(borrower.getId(), newLoan("25000"));
+        loanService.decideLoan(first.getId(), true, null, null, null);
+        loanService.decideLoan(second.getId(), false, "Insufficient income", null, null);
+
+        Map<String, Object> after = dashboardCounters.getDashboardStats();
+        assertThat(delta(before, after, "activeLoans")).isEqualTo(1);
+        assertThat(delta(before, after, "rejectedLoans")).isEqualTo(1);
+        assertThat(delta(before, after, "pendingLoans")).isEqualTo(0);
+        assertThat(delta(before, after, "totalLoans")).isEqualTo(2);
+        assertThat((Double) after.get("totalDisbursed") - (Double) before.get("totalDisbursed")).isEqualTo(75000.0);
+
+        dashboardCounters.reconcile();
+        assertThat(dashboardCounters.getLastDrift()).isZero();
+    }
+
+    @Test
+    void rolledBackWritesLeaveTheCountersAlone() {
+        Map<String, Object> before = dashboardCounters.getDashboardStats();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            loanService.applyForLoan(borrower.getId(), newLoan("50000"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(dashboardCounters.getDashboardStats()).isEqualTo(before);
+        dashboardCounters.reconcile();
+        assertThat(dashboardCounters.getLastDrift()).isZero();
+    }
+
+    @Test
+    void deletingALoanTakesItsPaymentsOffTheCounters() {
+        Loan loan = loanService.applyForLoan(borrower.getId(), newLoan("50000"));
+        loanService.decideLoan(loan.getId(), true, null, null, null);
+        Map<String, Object> before = dashboardCounters.getDashboardStats();
+
+        loanService.deleteLoan(loan.getId());
+
+        Map<String, Object> after = dashboardCounters.getDashboardStats();
+        assertThat(delta(before, after, "activeLoans")).isEqualTo(-1);
+        assertThat(delta(before, after, "totalPayments")).isEqualTo(-24);
+        assertThat(delta(before, after, "pendingPayments")).isEqualTo(-24);
+        assertThat(paymentRepository.existsByLoanId(loan.getId())).isFalse();
+        dashboardCounters.reconcile();
+        assertThat(dashboardCounters.getLastDrift()).isZero();
+    }
+
+    @Test
+    void reconciliationWaitsForACommitToApplyItsDelta() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            loanService.applyForLoan(borrower.getId(), newLoan("50000"));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    // Committed, but the counter delta has not been applied yet
+                    committing.countDown();
+                    await(release);
+                }
+            });
+        }));
+        writer.start();
+        assertThat(committing.await(10, TimeUnit.SECONDS)).isTrue();
+
+        Thread reconciler = new Thread(dashboardCounters::reconcile);
+        reconciler.start();
+        reconciler.join(200);
+        assertThat(reconciler.isAlive()).isTrue();
+
+        release.countDown();
+        writer.join(10_000);
+        reconciler.join(10_000);
+        assertThat(dashboardCounters.getLastDrift()).isZero();
+        dashboardCounters.reconcile();
+        assertThat(dashboardCounters.getLastDrift()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long delta(Map<String, Object> before, Map<String, Object> after, String key) {
+        return (Long) after.get(key) - (Long) before.get(key);
+    }
+
+    private static Loan newLoan(String principal) {
+        Loan loan = new Loan();
+        loan.setLoanType(Loan.LoanType.CAR);
+        loan.setPrincipal(new BigDecimal(principal));
+        loan.setInterestRate(new BigDecimal("9.5"));
+        loan.setTenureMonths(24);
+        return loan;
+    }
+}
@@ -0,0 +1,149 @@
+package com.Loan.service;
+
+import com.Loan.Borrowers;
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DashboardStatsServiceTests {
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = Borrowers.create(userRepository, "Stats");
+    }
+
+    @AfterEach
+    void tearDown() {
+        Borrowers.delete(paymentRepository, loanRepository, userRepository, borrower);
+    }
+
+    @Test
+    void statsAreAggregatedPerStatus() {
+        seed(3, Loan.LoanStatus.ACTIVE);
+        seed(2, Loan.LoanStatus.PENDING);
+        seed(1, Loan.LoanStatus.REJECTED);
+        seed(1, Loan.LoanStatus.DEFAULTED);
+
+        Map<String, Object> stats = dashboardStatsService.getDashboardStats();
+
+        assertThat(stats.get("activeLoans")).isEqualTo(3L);
+        assertThat(stats.get("pendingLoans")).isEqualTo(2L);
+        assertThat(stats.get("rejectedLoans")).isEqualTo(2L);
+        assertThat(stats.get("totalLoans")).isEqualTo(7L);
+        assertThat(stats.get("totalDisbursed")).isEqualTo(700000.0);
+        assertThat(stats.get("pendingPayments")).isEqualTo(5L);
+        assertThat(stats.get("totalPayments")).isEqualTo(7L);
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithRowCount() {
+        seed(2, Loan.LoanStatus.ACTIVE);
+        long smallTable = statementsFor(() -> dashboardStatsService.getDashboardStats());
+
+        seed(40, Loan.LoanStatus.ACTIVE);
+        seed(40, Loan.LoanStatus.PENDING);
+        long largeTable = statementsFor(() -> dashboardStatsService.getDashboardStats());
+
+        assertThat(smallTable).isEqualTo(3);
+        assertThat(largeTable).isEqualTo(smallTable);
+        assertThat(statementsFor(() -> dashboardStatsService.getLoanDistribution())).isEqualTo(1);
+    }
+
+    @Test
+    void trendsSumPrincipalPerMonthInOneStatement() {
+        LocalDate today = LocalDate.of(2026, 3, 15);
+        startedOn(LocalDate.of(2026, 3, 1), "100000");
+        startedOn(LocalDate.of(2026, 3, 31), "50000");
+        startedOn(LocalDate.of(2026, 1, 10), "25000");
+        // Outside the six months shown
+        startedOn(LocalDate.of(2025, 9, 30), "999999");
+        startedOn(LocalDate.of(2026, 4, 1), "999999");
+
+        List<Map<String, Object>> trends = dashboardStatsService.getDisbursementTrends(today, 6);
+
+        assertThat(trends).extracting(month -> month.get("month")).containsExactly("Oct", "Nov", "Dec", "Jan", "Feb", "Mar");
+        assertThat(trends).extracting(month -> month.get("amount")).containsExactly(0.0, 0.0, 0.0, 25000.0, 0.0, 150000.0);
+        assertThat(statementsFor(() -> dashboardStatsService.getDisbursementTrends(today, 6))).isEqualTo(1);
+    }
+
+    private void startedOn(LocalDate startDate, String principal) {
+        Loan loan = new Loan();
+        loan.setUser(borrower);
+        loan.setLoanType(Loan.LoanType.PERSONAL);
+        loan.setPrincipal(new BigDecimal(principal));
+        loan.setInterestRate(new BigDecimal("12"));
+        loan.setTenureMonths(12);
+        loan.setStartDate(startDate);
+        loan.setEmi(new BigDecimal("8884.88"));
+        loan.setStatus(Loan.LoanStatus.ACTIVE);
+        loan.setOutstandingBalance(loan.getPrincipal());
+        loanRepository.save(loan);
+    }
+
+    private long statementsFor(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seed(int count, Loan.LoanStatus status) {
+        for (int i = 0; i < count; i++) {
+            Loan loan = new Loan();
+            loan.setUser(borrower);
+            loan.setLoanType(Loan.LoanType.PERSONAL);
+            loan.setPrincipal(new BigDecimal("100000"));
+            loan.setInterestRate(new BigDecimal("12"));
+            loan.setTenureMonths(12);
+            loan.setStartDate(LocalDate.now());
+            loan.setEmi(new BigDecimal("8884.88"));
+            loan.setStatus(status);
+            loan.setOutstandingBalance(loan.getPrincipal());
+            loan = loanRepository.save(loan);
+
+            Payment payment = new Payment();
+            payment.setLoan(loan);
+            payment.setUser(borrower);
+            payment.setAmount(loan.getEmi());
+            payment.setDueDate(LocalDate.now().plusMonths(1));
+            payment.setStatus(i % 2 == 0 ? Payment.PaymentStatus.PENDING : Payment.PaymentStatus.PAID);
+            paymentRepository.save(payment);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.Loan.service;
+
+import com.Loan.dto.StoredDocument;
+import com.Loan.dto.StoredFileDTO;
+import com.Loan.entity.StoredFile;
+import com.Loan.repository.StoredFileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "loan.documents.directory=target/catalog-test")
+class DocumentCatalogServiceTests {
+
+    @Autowired
+    private DocumentCatalogService documentCatalogService;
+
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        storedFileRepository.deleteAll();
+        FileSystemUtils.deleteRecursively(Paths.get("target/catalog-test").toFile());
+    }
+
+    @Test
+    void listingIsPagedAndSortedFromTheCatalog() throws Exception {
+        UUID loanId = UUID.randomUUID();
+        store("small", "a.pdf", loanId);
+        store("a little larger", "b.pdf", null);
+        store("the largest document of all", "c.pdf", null);
+
+        List<StoredFileDTO> bySize = documentCatalogService.list("size", Sort.Direction.DESC, 0, 2);
+        assertThat(bySize).extracting(StoredFileDTO::getOriginalFilename).containsExactly("c.pdf", "b.pdf");
+        assertThat(documentCatalogService.list("size", Sort.Direction.DESC, 1, 2))
+                .extracting(StoredFileDTO::getOriginalFilename).containsExactly("a.pdf");
+
+        StoredFileDTO first = documentCatalogService.list("originalFilename", Sort.Direction.ASC, 0, 1).get(0);
+        assertThat(first.getLoanId()).isEqualTo(loanId);
+        assertThat(first.getStatus()).isEqualTo("PRESENT");
+        assertThat(documentStorageService.resolve(first.getName())).isNotNull();
+
+        assertThatThrownBy(() -> documentCatalogService.list("name; drop table", Sort.Direction.ASC, 0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reconcileFlagsOrphanedAndMissingFiles() throws Exception {
+        StoredDocument kept = store("kept", "kept.pdf", null);
+        StoredDocument lost = store("lost", "lost.pdf", null);
+        Files.delete(lost.getPath());
+        // Written without a catalog row, long enough ago not to look like an upload in flight
+        Path orphan = Files.writeString(Paths.get("target/catalog-test/1700000000_legacy.pdf"), "legacy");
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+        Path inFlight = documentStorageService.store(stream("in flight"), "new.pdf").getPath();
+
+        documentCatalogService.reconcile();
+
+        assertThat(status(kept.getName())).isEqualTo(StoredFile.Status.PRESENT);
+        assertThat(status(lost.getName())).isEqualTo(StoredFile.Status.MISSING);
+        assertThat(status("1700000000_legacy.pdf")).isEqualTo(StoredFile.Status.ORPHANED);
+        assertThat(storedFileRepository.findAllNames()).doesNotContain(inFlight.getFileName().toString());
+        assertThat(meterRegistry.get("documents.catalog.orphaned").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("documents.catalog.missing").gauge().value()).isEqualTo(1);
+
+        // Reconciling again changes nothing; restoring the file clears MISSING
+        Files.writeString(lost.getPath(), "lost");
+        documentCatalogService.reconcile();
+        assertThat(storedFileRepository.count()).isEqualTo(3);
+        assertThat(status(lost.getName())).isEqualTo(StoredFile.Status.PRESENT);
+    }
+
+    @Test
+    void deleteRemovesTheRowAndItsFile() throws Exception {
+        StoredDocument document = store("delete me", "x.pdf", null);
+        UUID id = storedFileRepository.findAll().get(0).getId();
+
+        assertThat(documentCatalogService.delete(id)).isTrue();
+
+        assertThat(document.getPath()).doesNotExist();
+        assertThat(storedFileRepository.count()).isZero();
+        assertThat(documentCatalogService.delete(id)).isFalse();
+    }
+
+    @Test
+    void deletingOneOfTwoIdenticalUploadsKeepsTheSharedFile() throws Exception {
+        UUID firstLoan = UUID.randomUUID();
+        UUID secondLoan = UUID.randomUUID();
+        StoredDocument first = store("same payslip", "first.pdf", firstLoan);
+        StoredDocument second = store("same payslip", "second.pdf", secondLoan);
+        assertThat(second.getName()).isEqualTo(first.getName());
+
+        StoredFile firstRow = storedFileRepository.findAll().stream()
+                .filter(file -> firstLoan.equals(file.getLoanId()))
+                .findFirst().orElseThrow();
+        assertThat(documentCatalogService.delete(firstRow.getId())).isTrue();
+
+        // The second loan's row and the file it points at are untouched
+        assertThat(storedFileRepository.findAll()).singleElement()
+                .satisfies(file -> assertThat(file.getLoanId()).isEqualTo(secondLoan));
+        assertThat(documentStorageService.resolve(second.getName())).isNotNull();
+
+        UUID secondRow = storedFileRepository.findAll().get(0).getId();
+        assertThat(documentCatalogService.delete(secondRow)).isTrue();
+        assertThat(second.getPath()).doesNotExist();
+    }
+
+    @Test
+    void discardingAnUncatalogedUploadKeepsContentOthersStillName() throws Exception {
+        StoredDocument unused = documentStorageService.store(stream("never cataloged"), "unused.pdf");
+        StoredDocument cataloged = store("already on file", "kept.pdf", null);
+        StoredDocument duplicate = documentStorageService.store(stream("already on file"), "again.pdf");
+
+        documentCatalogService.discard(unused);
+        documentCatalogService.discard(duplicate);
+
+        assertThat(unused.getPath()).doesNotExist();
+        assertThat(documentStorageService.resolve(cataloged.getName())).isNotNull();
+    }
+
+    private StoredDocument store(String content, String originalFilename, UUID loanId) throws Exception {
+        StoredDocument document = documentStorageService.store(stream(content), originalFilename);
+        documentCatalogService.catalog(document, loanId, null);
+        return document;
+    }
+
+    private StoredFile.Status status(String name) {
+        return storedFileRepository.findAll().stream()
+                .filter(file -> file.getName().equals(name))
+                .findFirst().orElseThrow().getStatus();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
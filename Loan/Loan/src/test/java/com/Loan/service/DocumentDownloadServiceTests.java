@@ -0,0 +1,150 @@
+package com.Loan.service;
+
+import com.Loan.dto.StoredDocument;
+import com.Loan.repository.StoredFileRepository;
+import com.Loan.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "loan.documents.directory=target/documents-test")
+class DocumentDownloadServiceTests {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private DocumentCatalogService documentCatalogService;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private byte[] content;
+    private StoredDocument document;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        content = new byte[256 * 1024];
+        new Random(17).nextBytes(content);
+        document = documentStorageService.store(new ByteArrayInputStream(content), "statement.pdf");
+    }
+
+    @AfterEach
+    void tearDown() {
+        storedFileRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void fullDownloadCarriesValidatorsAndIsSentWithSendfile() throws Exception {
+        double sentBefore = sendfileBytes();
+
+        HttpResponse<byte[]> response = get(document.getName(), null, null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(content);
+        assertThat(response.headers().firstValue("ETag")).hasValue("\"" + document.getName() + "\"");
+        assertThat(response.headers().firstValue("Last-Modified")).isPresent();
+        assertThat(response.headers().firstValue("Accept-Ranges")).hasValue("bytes");
+        assertThat(sendfileBytes() - sentBefore).isEqualTo(content.length);
+    }
+
+    @Test
+    void downloadIsNamedAfterTheUploadedFile() throws Exception {
+        // Not cataloged yet, so all that is known is the hash
+        assertThat(get(document.getName(), null, null).headers().firstValue("Content-Disposition"))
+                .hasValue("attachment; filename=\"" + document.getName() + "\"");
+
+        documentCatalogService.catalog(document, null, null);
+
+        assertThat(get(document.getName(), null, null).headers().firstValue("Content-Disposition"))
+                .hasValue("attachment; filename=\"statement.pdf\"");
+    }
+
+    @Test
+    void matchingValidatorsAnswerNotModified() throws Exception {
+        HttpResponse<byte[]> byEtag = get(document.getName(), "If-None-Match", "\"" + document.getName() + "\"");
+        assertThat(byEtag.statusCode()).isEqualTo(304);
+        assertThat(byEtag.body()).isEmpty();
+
+        String lastModified = get(document.getName(), null, null).headers().firstValue("Last-Modified").orElseThrow();
+        assertThat(get(document.getName(), "If-Modified-Since", lastModified).statusCode()).isEqualTo(304);
+        assertThat(get(document.getName(), "If-None-Match", "\"other\"").statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void rangesReturnPartialContent() throws Exception {
+        HttpResponse<byte[]> middle = get(document.getName(), "Range", "bytes=1000-1999");
+        assertThat(middle.statusCode()).isEqualTo(206);
+        assertThat(middle.headers().firstValue("Content-Range")).hasValue("bytes 1000-1999/" + content.length);
+        assertThat(middle.body()).isEqualTo(Arrays.copyOfRange(content, 1000, 2000));
+
+        HttpResponse<byte[]> suffix = get(document.getName(), "Range", "bytes=-10");
+        assertThat(suffix.body()).isEqualTo(Arrays.copyOfRange(content, content.length - 10, content.length));
+
+        HttpResponse<byte[]> beyond = get(document.getName(), "Range", "bytes=" + content.length + "-");
+        assertThat(beyond.statusCode()).isEqualTo(416);
+        assertThat(beyond.headers().firstValue("Content-Range")).hasValue("bytes */" + content.length);
+    }
+
+    @Test
+    void staleIfRangeSendsTheWholeDocument() throws Exception {
+        HttpRequest request = request(document.getName())
+                .header("Range", "bytes=0-9")
+                .header("If-Range", "\"stale\"")
+                .build();
+
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).hasSize(content.length);
+    }
+
+    @Test
+    void unknownDocumentIsNotFound() throws Exception {
+        assertThat(get("0".repeat(64), null, null).statusCode()).isEqualTo(404);
+    }
+
+    private HttpResponse<byte[]> get(String name, String header, String value) throws Exception {
+        HttpRequest.Builder request = request(name);
+        if (header != null) {
+            request.header(header, value);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpRequest.Builder request(String name) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/admin/files/" + name))
+                .header("Authorization", "Bearer " + jwtUtil.generateToken("admin@loan.com", "ADMIN"))
+                .GET();
+    }
+
+    private double sendfileBytes() {
+        return meterRegistry.summary("documents.download.bytes", "transfer", "sendfile").totalAmount();
+    }
+}
@@ -0,0 +1,76 @@
+package com.Loan.service;
+
+import com.Loan.dto.StoredDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentStorageServiceTests {
+
+    @TempDir
+    Path dir;
+
+    private Path uploads;
+    private DocumentStorageService storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        uploads = Files.createDirectories(dir.resolve("uploads"));
+        storage = new DocumentStorageService();
+        ReflectionTestUtils.setField(storage, "directory", uploads.toString());
+    }
+
+    @Test
+    void uploadsAreStoredByContentHashInShards() throws Exception {
+        byte[] content = new byte[3 * 1024 * 1024];
+        new Random(7).nextBytes(content);
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+
+        StoredDocument document = storage.store(new MockMultipartFile("file", "salary-slip.pdf", "application/pdf", content));
+
+        assertThat(document.getName()).isEqualTo(hash);
+        assertThat(document.getSize()).isEqualTo(content.length);
+        assertThat(document.getOriginalFilename()).isEqualTo("salary-slip.pdf");
+        assertThat(document.getPath()).isEqualTo(uploads.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash));
+        assertThat(Files.readAllBytes(document.getPath())).isEqualTo(content);
+        assertThat(storage.resolve(hash)).isEqualTo(document.getPath());
+    }
+
+    @Test
+    void identicalUploadsShareOneFile() throws Exception {
+        StoredDocument first = storage.store(stream("same bytes"), "a.docx");
+        StoredDocument second = storage.store(stream("same bytes"), "b.docx");
+
+        assertThat(second.getPath()).isEqualTo(first.getPath());
+        assertThat(storage.list()).containsExactly(first.getPath());
+    }
+
+    @Test
+    void legacyFlatFilesResolveButNothingOutsideTheDirectory() throws Exception {
+        Path legacy = Files.writeString(uploads.resolve("1234_old.pdf"), "legacy");
+        Files.writeString(dir.resolve("outside.txt"), "secret");
+
+        assertThat(storage.resolve("1234_old.pdf")).isEqualTo(legacy);
+        assertThat(storage.resolve("../outside.txt")).isNull();
+        assertThat(storage.resolve("missing.pdf")).isNull();
+
+        assertThat(storage.delete("1234_old.pdf")).isTrue();
+        assertThat(legacy).doesNotExist();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
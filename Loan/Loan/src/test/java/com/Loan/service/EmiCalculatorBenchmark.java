@@ -0,0 +1,55 @@
+package com.Loan.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original unbounded BigDecimal.pow EMI with the bounded-precision
+ * and double fast-path calculators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmiCalculatorBenchmark {
+
+    @Param({"12", "60", "360"})
+    private int months;
+
+    private final BigDecimal principal = new BigDecimal("2500000");
+    private final BigDecimal annualRate = new BigDecimal("8.75");
+    private final FastEmiCalculator fast = new FastEmiCalculator();
+    private final BigDecimalEmiCalculator bounded = new BigDecimalEmiCalculator();
+
+    @Benchmark
+    public BigDecimal unboundedPow() {
+        BigDecimal monthlyRate = annualRate.divide(BigDecimal.valueOf(1200), 10, RoundingMode.HALF_UP);
+        BigDecimal onePlusPowerN = monthlyRate.add(BigDecimal.ONE).pow(months);
+        BigDecimal numerator = principal.multiply(monthlyRate).multiply(onePlusPowerN);
+        return numerator.divide(onePlusPowerN.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public BigDecimal boundedPrecision() {
+        return bounded.calculateEmi(principal, annualRate, months);
+    }
+
+    @Benchmark
+    public BigDecimal fastPath() {
+        return fast.calculateEmi(principal, annualRate, months);
+    }
+}
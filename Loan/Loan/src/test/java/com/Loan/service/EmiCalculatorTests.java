@@ -0,0 +1,53 @@
+package com.Loan.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmiCalculatorTests {
+
+    private static final BigDecimal[] PRINCIPALS = {
+            new BigDecimal("1000"), new BigDecimal("99999.99"), new BigDecimal("2500000"), new BigDecimal("75000000")
+    };
+
+    private final FastEmiCalculator fast = new FastEmiCalculator();
+    private final BigDecimalEmiCalculator bounded = new BigDecimalEmiCalculator();
+
+    @Test
+    void matchesExactResultToThePaisaAcrossRateTenureGrid() {
+        for (int rateQuarters = 1; rateQuarters <= 36 * 4; rateQuarters++) {
+            BigDecimal rate = BigDecimal.valueOf(rateQuarters, 2).multiply(BigDecimal.valueOf(25));
+            for (int months = 1; months <= 360; months++) {
+                for (BigDecimal principal : PRINCIPALS) {
+                    BigDecimal expected = exactEmi(principal, rate, months);
+                    assertThat(fast.calculateEmi(principal, rate, months))
+                            .as("fast EMI for %s at %s%% over %d months", principal, rate, months)
+                            .isEqualTo(expected);
+                    assertThat(bounded.calculateEmi(principal, rate, months))
+                            .as("bounded EMI for %s at %s%% over %d months", principal, rate, months)
+                            .isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void zeroRateSplitsPrincipalEvenly() {
+        assertThat(fast.calculateEmi(new BigDecimal("12000"), BigDecimal.ZERO, 12)).isEqualTo(new BigDecimal("1000.00"));
+        assertThat(bounded.calculateEmi(new BigDecimal("12000"), BigDecimal.ZERO, 12)).isEqualTo(new BigDecimal("1000.00"));
+    }
+
+    // The original unbounded-precision formula, kept as the reference result
+    private static BigDecimal exactEmi(BigDecimal principal, BigDecimal annualRate, int months) {
+        BigDecimal monthlyRate = annualRate.divide(BigDecimal.valueOf(1200), 10, RoundingMode.HALF_UP);
+        BigDecimal onePlusPowerN = monthlyRate.add(BigDecimal.ONE).pow(months);
+
+        BigDecimal numerator = principal.multiply(monthlyRate).multiply(onePlusPowerN);
+        BigDecimal denominator = onePlusPowerN.subtract(BigDecimal.ONE);
+
+        return numerator.divide(denominator, 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,162 @@
+package com.Loan.service;
+
+import com.Loan.Borrowers;
+import com.Loan.entity.Loan;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class LoanLifecycleTests {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = Borrowers.create(userRepository, "Lifecycle");
+    }
+
+    @AfterEach
+    void tearDown() {
+        Borrowers.delete(paymentRepository, loanRepository, userRepository, borrower);
+    }
+
+    @Test
+    void onlyLegalTransitionsAreApplied() {
+        Loan loan = loanService.applyForLoan(borrower.getId(), newLoan());
+
+        Loan approved = loanService.decideLoan(loan.getId(), true, null, null, null);
+        assertThat(approved.getStatus()).isEqualTo(Loan.LoanStatus.ACTIVE);
+        // A repeated approval (double click, second admin) changes nothing
+        assertThat(loanService.decideLoan(loan.getId(), true, null, null, null).getStartDate()).isEqualTo(approved.getStartDate());
+
+        assertThatThrownBy(() -> loanService.decideLoan(loan.getId(), false, "Too late", null, null))
+                .isInstanceOf(LoanConflictException.class);
+        assertThatThrownBy(() -> loanService.updateLoan(loan.getId(), withStatus(Loan.LoanStatus.PENDING)))
+                .isInstanceOf(LoanConflictException.class);
+
+        loanService.updateLoan(loan.getId(), withStatus(Loan.LoanStatus.DEFAULTED));
+        loanService.updateLoan(loan.getId(), withStatus(Loan.LoanStatus.COMPLETED));
+        assertThatThrownBy(() -> loanService.updateLoan(loan.getId(), withStatus(Loan.LoanStatus.ACTIVE)))
+                .isInstanceOf(LoanConflictException.class);
+        assertThat(loanRepository.findById(loan.getId()).orElseThrow().getStatus()).isEqualTo(Loan.LoanStatus.COMPLETED);
+    }
+
+    @Test
+    void editOfAStaleVersionIsRefused() {
+        Loan loan = loanService.applyForLoan(borrower.getId(), newLoan());
+        Long seen = loan.getVersion();
+        loanService.decideLoan(loan.getId(), false, "Insufficient income", null, null);
+
+        // A second admin approving from the form they loaded before the rejection
+        Loan edit = withStatus(Loan.LoanStatus.ACTIVE);
+        edit.setVersion(seen);
+        assertThatThrownBy(() -> loanService.updateLoan(loan.getId(), edit)).isInstanceOf(LoanConflictException.class);
+        assertThat(loanRepository.findById(loan.getId()).orElseThrow().getStatus()).isEqualTo(Loan.LoanStatus.REJECTED);
+    }
+
+    @Test
+    void concurrentWriteToTheSameLoanFailsTheLoser() {
+        Loan loan = loanService.applyForLoan(borrower.getId(), newLoan());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            Loan stale = loanRepository.findById(loan.getId()).orElseThrow();
+            // Another request commits a decision while this one is still working
+            Thread other = new Thread(() -> loanService.decideLoan(loan.getId(), true, null, null, null));
+            other.start();
+            try {
+                other.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            stale.setRejectionReason("Overwrites the approval");
+            stale.setStatus(Loan.LoanStatus.REJECTED);
+            loanRepository.saveAndFlush(stale);
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(loanRepository.findById(loan.getId()).orElseThrow().getStatus()).isEqualTo(Loan.LoanStatus.ACTIVE);
+    }
+
+    @Test
+    void lostRacesAreRetriedABoundedNumberOfTimes() {
+        double before = meterRegistry.counter("optimistic.lock.retries", "operation", "test.flaky").count();
+        AtomicInteger attempts = new AtomicInteger();
+        String result = optimisticRetry.inTransaction("test.flaky", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Loan.class, "id");
+            }
+            return "done";
+        });
+        assertThat(result).isEqualTo("done");
+        assertThat(meterRegistry.counter("optimistic.lock.retries", "operation", "test.flaky").count() - before).isEqualTo(2);
+
+        AtomicInteger hopeless = new AtomicInteger();
+        assertThatThrownBy(() -> optimisticRetry.inTransaction("test.hopeless", () -> {
+            hopeless.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Loan.class, "id");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(hopeless.get()).isEqualTo(4);
+
+        // Anything else fails at once
+        AtomicInteger broken = new AtomicInteger();
+        assertThatThrownBy(() -> optimisticRetry.inTransaction("test.broken", () -> {
+            broken.incrementAndGet();
+            throw new IllegalArgumentException("bad input");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(broken.get()).isEqualTo(1);
+    }
+
+    private static Loan withStatus(Loan.LoanStatus status) {
+        Loan details = new Loan();
+        details.setStatus(status);
+        return details;
+    }
+
+    private static Loan newLoan() {
+        Loan loan = new Loan();
+        loan.setLoanType(Loan.LoanType.HOME);
+        loan.setPrincipal(new BigDecimal("500000"));
+        loan.setInterestRate(new BigDecimal("8.5"));
+        loan.setTenureMonths(12);
+        return loan;
+    }
+}
@@ -0,0 +1,100 @@
+package com.Loan.service;
+
+import com.Loan.Borrowers;
+import com.Loan.entity.Loan;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class LoanListingTests {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = Borrowers.create(userRepository, "Listing");
+
+        for (int i = 0; i < 25; i++) {
+            Loan loan = new Loan();
+            loan.setLoanType(i % 5 == 0 ? Loan.LoanType.HOME : Loan.LoanType.PERSONAL);
+            loan.setPrincipal(new BigDecimal("10000"));
+            loan.setInterestRate(new BigDecimal("11"));
+            loan.setTenureMonths(12);
+            loanService.applyForLoan(borrower.getId(), loan);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanRepository.deleteAll();
+        userRepository.delete(borrower);
+    }
+
+    @Test
+    void cursorWalksEveryLoanOnceNewestFirst() {
+        List<Loan> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Window<Loan> window = loanService.scrollLoans(null, null, null, null, cursor, 10);
+            seen.addAll(window.getContent());
+            Loan last = window.getContent().get(window.size() - 1);
+            cursor = window.hasNext() ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null;
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        Set<UUID> ids = new HashSet<>();
+        seen.forEach(loan -> ids.add(loan.getId()));
+        assertThat(ids).hasSize(25);
+        for (int i = 1; i < seen.size(); i++) {
+            LocalDateTime previous = seen.get(i - 1).getCreatedAt();
+            assertThat(seen.get(i).getCreatedAt()).isBeforeOrEqualTo(previous);
+        }
+    }
+
+    @Test
+    void filtersArePushedIntoTheQuery() {
+        Window<Loan> homeLoans = loanService.scrollLoans(Loan.LoanStatus.PENDING, Loan.LoanType.HOME, null, null, null, 50);
+        assertThat(homeLoans.getContent()).hasSize(5).allMatch(loan -> loan.getLoanType() == Loan.LoanType.HOME);
+        assertThat(homeLoans.hasNext()).isFalse();
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        assertThat(loanService.scrollLoans(null, null, tomorrow, null, null, 50).getContent()).isEmpty();
+        assertThat(loanService.scrollLoans(null, null, LocalDate.now(), LocalDate.now(), null, 50).getContent()).hasSize(25);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> loanService.scrollLoans(null, null, null, null, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,107 @@
+package com.Loan.service;
+
+import com.Loan.entity.Loan;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class LoanReportServiceTests {
+
+    @Autowired
+    private LoanReportService loanReportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = new User();
+        borrower.setEmail("report-borrower@loan.com");
+        borrower.setPassword("secret");
+        borrower.setName("Sharma, Priya");
+        borrower.setRole(User.Role.USER);
+        borrower = userRepository.save(borrower);
+
+        seed(LocalDate.of(2026, 3, 31));
+        seed(LocalDate.of(2026, 4, 1));
+        seed(LocalDate.of(2026, 4, 30));
+        seed(LocalDate.of(2026, 5, 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanRepository.deleteAll();
+        userRepository.delete(borrower);
+    }
+
+    @Test
+    void monthFilterIsAppliedInTheQueryWithOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String csv = write("2026-04");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        String[] lines = csv.split("\n");
+        assertThat(lines[0]).isEqualTo("Loan ID,User,Type,Principal,Status,Date");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[1]).contains(",\"Sharma, Priya\",CAR,150000.00,ACTIVE,2026-04-");
+    }
+
+    @Test
+    void yearAndUnfilteredReportsCoverEveryLoan() {
+        assertThat(write("2026").split("\n")).hasSize(5);
+        assertThat(write(null).split("\n")).hasSizeGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    void malformedPeriodIsRejected() {
+        assertThatThrownBy(() -> loanReportService.parsePeriod("April")).isInstanceOf(DateTimeParseException.class);
+    }
+
+    private String write(String period) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        loanReportService.writeCsv(period, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void seed(LocalDate startDate) {
+        Loan loan = new Loan();
+        loan.setUser(borrower);
+        loan.setLoanType(Loan.LoanType.CAR);
+        loan.setPrincipal(new BigDecimal("150000"));
+        loan.setInterestRate(new BigDecimal("9"));
+        loan.setTenureMonths(36);
+        loan.setStartDate(startDate);
+        loan.setEmi(new BigDecimal("4770.02"));
+        loan.setStatus(Loan.LoanStatus.ACTIVE);
+        loan.setOutstandingBalance(loan.getPrincipal());
+        loanRepository.save(loan);
+    }
+}
@@ -0,0 +1,231 @@
+package com.Loan.service;
+
+import com.Loan.Borrowers;
+import com.Loan.dto.OutboxMessage;
+import com.Loan.entity.NotificationOutbox;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.NotificationJdbcRepository;
+import com.Loan.repository.NotificationOutboxRepository;
+import com.Loan.repository.NotificationRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The scheduled poll is pushed out of the way so each test drains explicitly
+@SpringBootTest(properties = {
+        "loan.notifications.outbox.poll-interval=PT1H",
+        "loan.notifications.outbox.batch-size=2",
+        "loan.notifications.outbox.workers=2",
+        "loan.notifications.outbox.max-in-flight=4",
+        "loan.notifications.outbox.max-attempts=3",
+        "loan.notifications.outbox.retry-delay=PT1M",
+        "loan.notifications.outbox.max-retry-delay=PT90S"
+})
+class NotificationDispatcherTests {
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+
+    @Autowired
+    private ScriptedChannel channel;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = Borrowers.create(userRepository, "Outbox");
+        channel.reset();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.release();
+        assertThat(dispatcher.awaitIdle(Duration.ofSeconds(10))).isTrue();
+        outboxRepository.deleteAllInBatch();
+        notificationRepository.deleteAllInBatch();
+        Borrowers.delete(paymentRepository, loanRepository, userRepository, borrower);
+    }
+
+    @Test
+    void notificationIsQueuedWithoutWaitingForDelivery() throws InterruptedException {
+        // Nothing could be delivered right now, yet the notification is created
+        channel.hold();
+        notify(1);
+
+        assertThat(notificationRepository.findDtosByUserId(borrower.getId()))
+                .singleElement().satisfies(notification -> assertThat(notification.getType()).isEqualTo("test"));
+        NotificationOutbox queued = outboxRepository.findAll().get(0);
+        assertThat(queued.getStatus()).isEqualTo(NotificationOutbox.Status.PENDING);
+        assertThat(queued.getUserId()).isEqualTo(borrower.getId());
+
+        channel.release();
+        assertThat(dispatcher.drain()).isEqualTo(1);
+        assertThat(dispatcher.awaitIdle(Duration.ofSeconds(10))).isTrue();
+
+        NotificationOutbox sent = outboxRepository.findById(queued.getId()).orElseThrow();
+        assertThat(sent.getStatus()).isEqualTo(NotificationOutbox.Status.SENT);
+        assertThat(sent.getAttempts()).isEqualTo(1);
+        assertThat(sent.getSentAt()).isNotNull();
+        assertThat(channel.sent).extracting(OutboxMessage::getNotificationId).containsExactly(queued.getNotificationId());
+        assertThat(channel.threads).singleElement().satisfies(thread -> {
+            assertThat(thread.getName()).matches("notification-dispatch-\\d+");
+            assertThat(thread.isDaemon()).isTrue();
+        });
+    }
+
+    @Test
+    void failedDeliveryBacksOffAndIsGivenUpAfterMaxAttempts() throws InterruptedException {
+        channel.failures.set(Integer.MAX_VALUE);
+        notify(1);
+
+        LocalDateTime before = LocalDateTime.now();
+        assertThat(dispatcher.drain()).isEqualTo(1);
+        assertThat(dispatcher.awaitIdle(Duration.ofSeconds(10))).isTrue();
+
+        NotificationOutbox retrying = outboxRepository.findAll().get(0);
+        assertThat(retrying.getStatus()).isEqualTo(NotificationOutbox.Status.PENDING);
+        assertThat(retrying.getAttempts()).isEqualTo(1);
+        assertThat(retrying.getLastError()).contains("provider unavailable");
+        // retry-delay plus up to half again as jitter
+        assertThat(retrying.getNextAttemptAt()).isBetween(before.plusMinutes(1), LocalDateTime.now().plusSeconds(91));
+        // Not due yet
+        assertThat(dispatcher.drain()).isZero();
+
+        for (int attempt = 2; attempt <= 3; attempt++) {
+            makeDue();
+            assertThat(dispatcher.drain()).isEqualTo(1);
+            assertThat(dispatcher.awaitIdle(Duration.ofSeconds(10))).isTrue();
+        }
+
+        NotificationOutbox dead = outboxRepository.findAll().get(0);
+        assertThat(dead.getStatus()).isEqualTo(NotificationOutbox.Status.DEAD);
+        assertThat(dead.getAttempts()).isEqualTo(3);
+        makeDue();
+        assertThat(dispatcher.drain()).isZero();
+    }
+
+    @Test
+    void claimsStopAtMaxInFlightUntilDeliveriesFinish() throws InterruptedException {
+        channel.hold();
+        notify(10);
+
+        // Four claimed (two batches of two), the rest wait in the table
+        assertThat(dispatcher.drain()).isEqualTo(4);
+        assertThat(channel.started.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(dispatcher.drain()).isZero();
+        assertThat(outboxRepository.countByStatus(NotificationOutbox.Status.PENDING)).isEqualTo(10);
+
+        channel.release();
+        assertThat(dispatcher.awaitIdle(Duration.ofSeconds(10))).isTrue();
+        assertThat(outboxRepository.countByStatus(NotificationOutbox.Status.SENT)).isEqualTo(4);
+
+        int drained = 4;
+        while (drained < 10) {
+            drained += dispatcher.drain();
+            assertThat(dispatcher.awaitIdle(Duration.ofSeconds(10))).isTrue();
+        }
+        assertThat(outboxRepository.countByStatus(NotificationOutbox.Status.SENT)).isEqualTo(10);
+        assertThat(channel.sent).hasSize(10);
+    }
+
+    private void notify(int count) {
+        List<NotificationJdbcRepository.Message> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(new NotificationJdbcRepository.Message(borrower.getId(), "Message " + i));
+        }
+        notificationService.notifyAll("test", messages);
+    }
+
+    private void makeDue() {
+        for (NotificationOutbox delivery : outboxRepository.findAll()) {
+            delivery.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+            outboxRepository.save(delivery);
+        }
+    }
+
+    /**
+     * Fails the next {@code failures} sends; while held, every send blocks until released.
+     */
+    static class ScriptedChannel implements NotificationChannel {
+        final AtomicInteger failures = new AtomicInteger();
+        final Queue<OutboxMessage> sent = new ConcurrentLinkedQueue<>();
+        final Queue<Thread> threads = new ConcurrentLinkedQueue<>();
+        volatile CountDownLatch gate = new CountDownLatch(0);
+        volatile CountDownLatch started = new CountDownLatch(0);
+
+        @Override
+        public void send(OutboxMessage message) throws Exception {
+            threads.add(Thread.currentThread());
+            started.countDown();
+            gate.await(10, TimeUnit.SECONDS);
+            if (failures.getAndUpdate(left -> Math.max(left - 1, 0)) > 0) {
+                throw new IllegalStateException("provider unavailable");
+            }
+            sent.add(message);
+        }
+
+        void hold() {
+            gate = new CountDownLatch(1);
+            started = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void reset() {
+            failures.set(0);
+            sent.clear();
+            threads.clear();
+            gate = new CountDownLatch(0);
+            started = new CountDownLatch(0);
+        }
+    }
+
+    @TestConfiguration
+    static class ChannelConfig {
+        @Bean
+        @Primary
+        ScriptedChannel scriptedChannel() {
+            return new ScriptedChannel();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.Loan.service;
+
+import com.Loan.Borrowers;
+import com.Loan.dto.NotificationDTO;
+import com.Loan.dto.PaymentDTO;
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.NotificationRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "loan.payments.overdue.chunk-size=2")
+class OverduePaymentSweeperTests {
+
+    @Autowired
+    private OverduePaymentSweeper sweeper;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = Borrowers.create(userRepository, "Overdue");
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAllInBatch();
+        Borrowers.delete(paymentRepository, loanRepository, userRepository, borrower);
+    }
+
+    @Test
+    void marksDuePendingPaymentsOverdueAndNotifiesOnce() {
+        Loan loan = Borrowers.activeLoan(loanService, borrower);
+        List<PaymentDTO> schedule = paymentService.getPaymentsByLoanId(loan.getId());
+        LocalDate today = schedule.get(4).getDueDate().plusDays(1);
+        // Paid early: stays PAID even though its due date has passed
+        paymentService.updatePaymentStatus(schedule.get(0).getId(), Payment.PaymentStatus.PAID);
+        dashboardCounters.reconcile();
+        double markedBefore = meterRegistry.counter("payments.overdue.marked").count();
+
+        long marked = sweeper.sweep(today);
+
+        assertThat(marked).isEqualTo(4);
+        List<PaymentDTO> after = paymentService.getPaymentsByLoanId(loan.getId());
+        assertThat(after.get(0).getStatus()).isEqualTo("PAID");
+        assertThat(after.subList(1, 5)).allMatch(payment -> "OVERDUE".equals(payment.getStatus()));
+        assertThat(after.subList(5, after.size())).allMatch(payment -> "PENDING".equals(payment.getStatus()));
+        // Overdue installments are still owed
+        assertThat(paymentService.getPendingPayments(borrower.getId())).hasSize(after.size() - 1);
+
+        List<NotificationDTO> notifications = notificationRepository.findDtosByUserId(borrower.getId());
+        assertThat(notifications).hasSize(4)
+                .allMatch(notification -> OverduePaymentSweeper.NOTIFICATION_TYPE.equals(notification.getType()) && !notification.isRead());
+        assertThat(notifications).anyMatch(notification -> notification.getMessage().contains(schedule.get(4).getDueDate().toString()));
+
+        assertThat(meterRegistry.counter("payments.overdue.marked").count() - markedBefore).isEqualTo(4);
+        assertThat(meterRegistry.get("payments.overdue.sweep.last").gauge().value()).isEqualTo(4);
+        dashboardCounters.reconcile();
+        assertThat(dashboardCounters.getLastDrift()).isZero();
+
+        // Nothing left to do: no second notification for the same payment
+        assertThat(sweeper.sweep(today)).isZero();
+        assertThat(notificationRepository.findDtosByUserId(borrower.getId())).hasSize(4);
+    }
+}
@@ -0,0 +1,152 @@
+package com.Loan.service;
+
+import com.Loan.Borrowers;
+import com.Loan.dto.PaymentDTO;
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class PaymentPostingTests {
+
+    @Autowired
+    private PaymentPostingService paymentPostingService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = Borrowers.create(userRepository, "Posting");
+    }
+
+    @AfterEach
+    void tearDown() {
+        Borrowers.delete(paymentRepository, loanRepository, userRepository, borrower);
+    }
+
+    @Test
+    void concurrentPostingsRepayTheLoanExactlyOnce() throws Exception {
+        Loan loan = Borrowers.activeLoan(loanService, borrower);
+        List<PaymentDTO> schedule = paymentService.getPaymentsByLoanId(loan.getId());
+        dashboardCounters.reconcile();
+        double postedBefore = meterRegistry.counter("payments.posted").count();
+        double completedBefore = meterRegistry.counter("loans.completed").count();
+
+        // Every installment posted three times over, all at once and in no particular order
+        List<PaymentDTO> postings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            postings.addAll(schedule);
+        }
+        Collections.shuffle(postings);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Payment>> results = new ArrayList<>();
+        try {
+            for (PaymentDTO payment : postings) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return paymentPostingService.post(payment.getId());
+                }));
+            }
+            start.countDown();
+            for (Future<Payment> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS).getStatus()).isEqualTo(Payment.PaymentStatus.PAID);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Loan repaid = loanRepository.findById(loan.getId()).orElseThrow();
+        assertThat(repaid.getOutstandingBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(repaid.getStatus()).isEqualTo(Loan.LoanStatus.COMPLETED);
+        assertThat(paymentService.getPaymentsByLoanId(loan.getId()))
+                .allMatch(payment -> "PAID".equals(payment.getStatus()) && payment.getPaidDate() != null);
+        assertThat(meterRegistry.counter("payments.posted").count() - postedBefore).isEqualTo(schedule.size());
+        assertThat(meterRegistry.counter("loans.completed").count() - completedBefore).isEqualTo(1);
+        dashboardCounters.reconcile();
+        assertThat(dashboardCounters.getLastDrift()).isZero();
+    }
+
+    @Test
+    void postingTakesThePrincipalComponentOffTheBalance() {
+        Loan loan = Borrowers.activeLoan(loanService, borrower);
+        List<Payment> schedule = paymentRepository.findByLoanId(loan.getId());
+        Payment first = schedule.get(0);
+
+        Payment paid = paymentService.updatePaymentStatus(first.getId(), Payment.PaymentStatus.PAID);
+
+        assertThat(paid.getStatus()).isEqualTo(Payment.PaymentStatus.PAID);
+        BigDecimal expected = loan.getPrincipal().subtract(first.getPrincipalComponent());
+        assertThat(balanceOf(loan)).isEqualByComparingTo(expected);
+        // Paying it again is a no-op
+        paymentService.updatePaymentStatus(first.getId(), Payment.PaymentStatus.PAID);
+        assertThat(balanceOf(loan)).isEqualByComparingTo(expected);
+
+        // Undoing it puts the principal back
+        Payment reversed = paymentService.updatePaymentStatus(first.getId(), Payment.PaymentStatus.PENDING);
+        assertThat(reversed.getStatus()).isEqualTo(Payment.PaymentStatus.PENDING);
+        assertThat(reversed.getPaidDate()).isNull();
+        assertThat(balanceOf(loan)).isEqualByComparingTo(loan.getPrincipal());
+    }
+
+    @Test
+    void paymentAgainstAClosedLoanIsRolledBack() {
+        Loan loan = Borrowers.activeLoan(loanService, borrower);
+        Payment first = paymentRepository.findByLoanId(loan.getId()).get(0);
+        Loan completed = new Loan();
+        completed.setStatus(Loan.LoanStatus.COMPLETED);
+        loanService.updateLoan(loan.getId(), completed);
+
+        assertThatThrownBy(() -> paymentPostingService.post(first.getId())).isInstanceOf(LoanConflictException.class);
+
+        assertThat(paymentRepository.findById(first.getId()).orElseThrow().getStatus()).isEqualTo(Payment.PaymentStatus.PENDING);
+        assertThat(balanceOf(loan)).isEqualByComparingTo(loan.getPrincipal());
+    }
+
+    private BigDecimal balanceOf(Loan loan) {
+        return loanRepository.findById(loan.getId()).orElseThrow().getOutstandingBalance();
+    }
+}
@@ -0,0 +1,178 @@
+package com.Loan.service;
+
+import com.Loan.Borrowers;
+import com.Loan.entity.Loan;
+import com.Loan.entity.Payment;
+import com.Loan.entity.SettlementRun;
+import com.Loan.entity.User;
+import com.Loan.repository.LoanRepository;
+import com.Loan.repository.PaymentRepository;
+import com.Loan.repository.SettlementRunRepository;
+import com.Loan.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "loan.payments.settlement.directory=target/settlement-test",
+        "loan.payments.settlement.report-directory=target/settlement-test/reports",
+        "loan.payments.settlement.chunk-size=2"
+})
+class SettlementReconciliationServiceTests {
+
+    private static final String HEADER = "loan_id,due_date,amount,reference";
+
+    @Autowired
+    private SettlementReconciliationService settlementService;
+
+    @Autowired
+    private SettlementRunRepository settlementRunRepository;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(Paths.get("target/settlement-test"));
+        borrower = Borrowers.create(userRepository, "Settlement");
+    }
+
+    @AfterEach
+    void tearDown() {
+        settlementRunRepository.deleteAll();
+        Borrowers.delete(paymentRepository, loanRepository, userRepository, borrower);
+    }
+
+    @Test
+    void creditsArePostedAndTheRestReported() throws IOException {
+        Loan loan = Borrowers.activeLoan(loanService, borrower);
+        List<Payment> schedule = schedule(loan);
+        Loan closed = Borrowers.activeLoan(loanService, borrower);
+        Payment closedInstallment = schedule(closed).get(0);
+        Loan completed = new Loan();
+        completed.setStatus(Loan.LoanStatus.COMPLETED);
+        loanService.updateLoan(closed.getId(), completed);
+
+        SettlementRun run = run("daily.csv", List.of(
+                HEADER,
+                credit(schedule.get(0), "UTR001"),
+                credit(schedule.get(1), "UTR002"),
+                credit(schedule.get(1), "UTR003"),
+                loan.getId() + "," + schedule.get(2).getDueDate() + ",1.00,UTR004",
+                UUID.randomUUID() + "," + schedule.get(0).getDueDate() + ",100.00,UTR005",
+                "not,a,settlement,line",
+                "",
+                credit(closedInstallment, "UTR006")));
+
+        assertThat(run.getStatus()).isEqualTo(SettlementRun.Status.COMPLETED);
+        assertThat(run.getRowsRead()).isEqualTo(7);
+        assertThat(run.getRowsPosted()).isEqualTo(2);
+        assertThat(run.getRowsExceptions()).isEqualTo(5);
+        assertThat(run.getAmountPosted()).isEqualByComparingTo(schedule.get(0).getAmount().add(schedule.get(1).getAmount()));
+        assertThat(run.getCheckpointLine()).isEqualTo(8);
+        assertThat(run.getRowsPerSecond()).isNotNull();
+
+        assertThat(paymentRepository.findById(schedule.get(0).getId()).orElseThrow().getStatus()).isEqualTo(Payment.PaymentStatus.PAID);
+        assertThat(paymentRepository.findById(schedule.get(2).getId()).orElseThrow().getStatus()).isEqualTo(Payment.PaymentStatus.PENDING);
+        assertThat(loanRepository.findById(loan.getId()).orElseThrow().getOutstandingBalance()).isEqualByComparingTo(
+                loan.getPrincipal().subtract(schedule.get(0).getPrincipalComponent()).subtract(schedule.get(1).getPrincipalComponent()));
+        assertThat(paymentRepository.findById(closedInstallment.getId()).orElseThrow().getStatus()).isEqualTo(Payment.PaymentStatus.PENDING);
+
+        List<String> report = Files.readAllLines(settlementService.getReport(run.getId()));
+        assertThat(report.get(0)).isEqualTo(SettlementReconciliationService.REPORT_HEADER);
+        assertThat(report.subList(1, report.size())).extracting(row -> row.split(",")[0] + " " + row.split(",")[1])
+                .containsExactly("3 ALREADY_PAID", "4 AMOUNT_MISMATCH", "5 UNMATCHED", "6 REJECTED", "8 LOAN_NOT_REPAYING");
+        assertThat(report.get(1)).contains("UTR003");
+    }
+
+    @Test
+    void paidUpLoanIsCompleted() throws IOException {
+        Loan loan = Borrowers.activeLoan(loanService, borrower);
+        dashboardCounters.reconcile();
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        for (Payment installment : schedule(loan)) {
+            lines.add(credit(installment, null));
+        }
+
+        SettlementRun run = run("payoff.csv", lines);
+
+        assertThat(run.getRowsPosted()).isEqualTo(12);
+        assertThat(run.getRowsExceptions()).isZero();
+        Loan repaid = loanRepository.findById(loan.getId()).orElseThrow();
+        assertThat(repaid.getOutstandingBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(repaid.getStatus()).isEqualTo(Loan.LoanStatus.COMPLETED);
+        dashboardCounters.reconcile();
+        assertThat(dashboardCounters.getLastDrift()).isZero();
+    }
+
+    @Test
+    void resumedRunStartsAfterTheCheckpoint() throws IOException {
+        Loan loan = Borrowers.activeLoan(loanService, borrower);
+        List<Payment> schedule = schedule(loan);
+        Files.write(Paths.get("target/settlement-test", "resume.csv"), List.of(
+                HEADER,
+                credit(schedule.get(0), "UTR101"),
+                credit(schedule.get(1), "UTR102")));
+        SettlementRun interrupted = new SettlementRun();
+        interrupted.setFileName("resume.csv");
+        interrupted.setStatus(SettlementRun.Status.INTERRUPTED);
+        interrupted.setCheckpointLine(1);
+        interrupted = settlementRunRepository.save(interrupted);
+
+        SettlementRun resumed = settlementService.runReconciliation(interrupted.getId());
+
+        assertThat(resumed.getStatus()).isEqualTo(SettlementRun.Status.COMPLETED);
+        assertThat(resumed.getRowsRead()).isEqualTo(1);
+        assertThat(resumed.getCheckpointLine()).isEqualTo(2);
+        // Line 1 was before the checkpoint, so its installment is untouched
+        assertThat(paymentRepository.findById(schedule.get(0).getId()).orElseThrow().getStatus()).isEqualTo(Payment.PaymentStatus.PENDING);
+        assertThat(paymentRepository.findById(schedule.get(1).getId()).orElseThrow().getStatus()).isEqualTo(Payment.PaymentStatus.PAID);
+    }
+
+    private SettlementRun run(String name, List<String> lines) throws IOException {
+        Files.write(Paths.get("target/settlement-test", name), lines);
+        SettlementRun run = new SettlementRun();
+        run.setFileName(name);
+        run.setStatus(SettlementRun.Status.QUEUED);
+        return settlementService.runReconciliation(settlementRunRepository.save(run).getId());
+    }
+
+    private List<Payment> schedule(Loan loan) {
+        List<Payment> schedule = new ArrayList<>(paymentRepository.findByLoanId(loan.getId()));
+        schedule.sort(Comparator.comparing(Payment::getDueDate));
+        return schedule;
+    }
+
+    private static String credit(Payment installment, String reference) {
+        return installment.getLoan().getId() + "," + installment.getDueDate() + "," + installment.getAmount().toPlainString()
+                + "," + (reference == null ? "" : reference);
+    }
+}
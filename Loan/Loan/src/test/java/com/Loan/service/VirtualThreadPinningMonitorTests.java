@@ -0,0 +1,47 @@
+package com.Loan.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "loan.threads.pinned-threshold=PT0.01S"
+})
+class VirtualThreadPinningMonitorTests {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void blockingInsideSynchronizedIsCounted() throws Exception {
+        Object monitor = new Object();
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                sleepQuietly(100);
+            }
+        }).join();
+
+        // JFR streams events in batches, roughly once a second
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pinnedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(pinnedCount()).isPositive();
+    }
+
+    private double pinnedCount() {
+        return meterRegistry.counter("jvm.threads.virtual.pinned").count();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
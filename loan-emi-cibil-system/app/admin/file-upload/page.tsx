@@ -17,6 +17,7 @@ import {
 import { apiClient } from "@/lib/api-client"
 
 interface FileInfo {
+    id: string
     name: string
     size: number
     lastModified: number
@@ -68,11 +69,12 @@ export default function FileRepositoryPage() {
         }
     }
 
-    const handleDelete = async (filename: string) => {
+    const handleDelete = async (file: FileInfo) => {
+        const filename = file.name
         if (!confirm(`Are you sure you want to delete "${filename}"?`)) return
 
         try {
-            await apiClient.admin.deleteFile(filename)
+            await apiClient.admin.deleteFile(file.id)
             setStatus({ type: "success", message: `File "${filename}" deleted successfully.` })
             fetchFiles() // Refresh list
         } catch (error) {
@@ -165,7 +167,7 @@ export default function FileRepositoryPage() {
                                                     <Button variant="ghost" size="icon" onClick={() => handleDownload(file.name)} title="Download">
                                                         <Download className="h-4 w-4 text-slate-600" />
                                                     </Button>
-                                                    <Button variant="ghost" size="icon" onClick={() => handleDelete(file.name)} title="Delete">
+                                                    <Button variant="ghost" size="icon" onClick={() => handleDelete(file)} title="Delete">
                                                         <Trash2 className="h-4 w-4 text-red-500" />
                                                     </Button>
                                                 </div>
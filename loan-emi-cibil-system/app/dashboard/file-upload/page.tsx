@@ -55,7 +55,7 @@ export default function UserFileUploadPage() {
         // Ideally we'd rename it, but for now we follow the existing pattern.
 
         try {
-            await apiClient.admin.uploadFile(formData)
+            await apiClient.documents.upload(formData)
             setUploadSuccess(true)
             toast({
                 title: "Upload Successful",
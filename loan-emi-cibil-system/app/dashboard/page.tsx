@@ -14,27 +14,41 @@ import { Button } from "@/components/ui/button"
 import Link from "next/link"
 import { Download, FileText } from "lucide-react"
 
+type DocumentEntry = { name: string; originalFilename?: string }
+
 function DocumentsList() {
-  const [files, setFiles] = useState<string[]>([])
+  const [files, setFiles] = useState<DocumentEntry[]>([])
   const [loading, setLoading] = useState(true)
 
   useEffect(() => {
-    // @ts-ignore
-    if (apiClient.admin?.getFiles) {
-      apiClient.admin.getFiles() // @ts-ignore
-        .then(setFiles) // @ts-ignore
-        .catch(err => console.error(err)) // @ts-ignore
-        .finally(() => setLoading(false))
-    } else {
-      setLoading(false)
-    }
+    apiClient.documents.getAll()
+      .then(setFiles)
+      .catch((err: unknown) => console.error(err))
+      .finally(() => setLoading(false))
   }, [])
 
+  // A plain link would not carry the bearer token, so the file is fetched with it and saved from a blob
+  const handleDownload = async (file: DocumentEntry) => {
+    try {
+      const blob = await apiClient.documents.download(file.name)
+      const url = window.URL.createObjectURL(blob)
+      const a = document.createElement("a")
+      a.href = url
+      a.download = file.originalFilename || file.name
+      document.body.appendChild(a)
+      a.click()
+      window.URL.revokeObjectURL(url)
+      document.body.removeChild(a)
+    } catch (error) {
+      console.error("Failed to download file", error)
+    }
+  }
+
   if (loading) return <div className="h-20 animate-pulse bg-muted/10 rounded" />
 
   if (files.length === 0) return (
     <div className="text-center py-8 text-muted-foreground text-sm">
-      No circulars available.
+      No documents uploaded yet.
     </div>
   )
 
@@ -46,13 +60,11 @@ function DocumentsList() {
             <div className="p-2 rounded bg-purple-500/10 text-purple-500">
               <FileText className="h-4 w-4" />
             </div>
-            <span className="text-sm font-medium text-foreground truncate max-w-[200px]">{file}</span>
+            <span className="text-sm font-medium text-foreground truncate max-w-[200px]">{file.originalFilename || file.name}</span>
           </div>
-          <a href={`http://localhost:8081/api/admin/files/${file}`} target="_blank" rel="noopener noreferrer">
-            <Button variant="ghost" size="icon" className="h-8 w-8 text-muted-foreground hover:text-purple-500">
-              <Download className="h-4 w-4" />
-            </Button>
-          </a>
+          <Button variant="ghost" size="icon" className="h-8 w-8 text-muted-foreground hover:text-purple-500" onClick={() => handleDownload(file)}>
+            <Download className="h-4 w-4" />
+          </Button>
         </div>
       ))}
     </div>
@@ -232,10 +244,10 @@ export default function DashboardPage() {
           <CardHeader className="flex flex-row items-center justify-between border-b bg-muted/20 pb-4">
             <CardTitle className="text-lg font-bold flex items-center gap-2">
               <Download className="h-5 w-5 text-purple-500" />
-              System Circulars
+              My Documents
             </CardTitle>
             <Badge variant="outline" className="bg-purple-500/10 text-purple-500 border-purple-500/20">
-              Latest Updates
+              Latest Uploads
             </Badge>
           </CardHeader>
           <CardContent className="pt-6">
@@ -180,6 +180,34 @@ export const apiClient = {
             }, "Failed to create notification"),
     },
 
+    // The signed-in user's own documents
+    documents: {
+        getAll: () =>
+            request(`${API_BASE_URL}/documents`, {}, "Failed to fetch documents"),
+
+        upload: (formData: FormData) =>
+            fetch(`${API_BASE_URL}/documents`, {
+                method: "POST",
+                headers: {
+                    ...(getAuthToken() ? { "Authorization": `Bearer ${getAuthToken()}` } : {})
+                },
+                body: formData,
+            }).then(async (res) => {
+                if (!res.ok) throw new Error(await res.text());
+                return res.text();
+            }),
+
+        download: (name: string) =>
+            fetch(`${API_BASE_URL}/documents/${name}`, {
+                headers: {
+                    ...(getAuthToken() ? { "Authorization": `Bearer ${getAuthToken()}` } : {})
+                },
+            }).then(res => {
+                if (!res.ok) throw new Error("Failed to download document");
+                return res.blob();
+            }),
+    },
+
     // Jobs
     jobs: {
         getAll: () =>
@@ -230,8 +258,8 @@ export const apiClient = {
         getFiles: () =>
             request(`${API_BASE_URL}/admin/files`, {}, "Failed to fetch files"),
 
-        deleteFile: (filename: string) =>
-            request(`${API_BASE_URL}/admin/files/${filename}`, {
+        deleteFile: (id: string) =>
+            request(`${API_BASE_URL}/admin/files/${id}`, {
                 method: "DELETE",
             }, "Failed to delete file"),
 
@@ -303,7 +331,7 @@ export const transformers = {
         userId: backendScore.user?.id || backendScore.userId,
         score: backendScore.score,
         lastUpdated: backendScore.lastUpdated,
-        factors: {
+        factors: backendScore.factors || {
             paymentHistory: backendScore.paymentHistory,
             creditUtilization: backendScore.creditUtilization,
             creditAge: backendScore.creditAge,